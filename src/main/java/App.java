@@ -26,10 +26,11 @@ public class App {
         try {
             UserDirectory userDirectory = ReadAndWriteData.readData(); // get data from data.txt
 
-            // run program UI
-            Menu menu = new Menu(userDirectory);
-            menu.loginMenu();
-            menu.mainMenu();
+            // run program UI, stopping its background work before saving
+            try (Menu menu = new Menu(userDirectory)) {
+                menu.loginMenu();
+                menu.mainMenu();
+            }
 
             ReadAndWriteData.writeData(userDirectory); // save user data into data.txt
         } catch (Exception e) {
@@ -0,0 +1,248 @@
+package data;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import io.ReadAndWriteData;
+import util.Hashing;
+import util.LinkedList;
+import util.RankedListFile;
+import util.TopKHeap;
+
+/**
+ * BatchRecommender.java
+ * Offline job computing the best friend recommendations of every User at
+ * once, e.g. nightly, and writing them to a RankedListFile that Friend can
+ * memory-map at startup. Users are split into ranges ranked in parallel on
+ * a ForkJoinPool; each ranking takes its own traversal buffer from Friend's pool,
+ * so the workers share nothing but the read-only network.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * @see data.Friend#loadPrecomputedRecommendations for how the file is served
+ * CIS 22C, Course Project
+ */
+public class BatchRecommender {
+    public static final String DEFAULT_RECOMMENDATIONS_FILE = "src/main/resources/recommendations.bin";
+    public static final int DEFAULT_LIST_LENGTH = 50; // recommendations kept per User
+    private static final int USERS_PER_TASK = 64; // ranges at most this long are ranked without splitting
+
+    private final UserDirectory userDirectory;
+    private final Friend friend;
+    private final int listLength;
+
+    // Constructors
+
+    /**
+     * Creates a BatchRecommender ranking with the given Friend.
+     *
+     * @param userDirectory the directory of all Users
+     * @param friend        the Friend to rank recommendations with
+     * @param listLength    the number of recommendations to keep per User
+     * @throws IllegalArgumentException if listLength < 1
+     */
+    public BatchRecommender(UserDirectory userDirectory, Friend friend, int listLength)
+            throws IllegalArgumentException {
+        if (listLength < 1) {
+            throw new IllegalArgumentException("BatchRecommender.java: listLength must be at least 1");
+        }
+
+        this.userDirectory = userDirectory;
+        this.friend = friend;
+        this.listLength = listLength;
+    }
+
+    // Additional Methods
+
+    /**
+     * Ranks the recommendations of every User in parallel and writes them to
+     * a file, replacing it atomically. The Users must not change meanwhile.
+     *
+     * @param file        the path of the file
+     * @param parallelism the number of worker threads
+     * @return the number of Users ranked
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if parallelism < 1
+     */
+    public int writeRecommendations(Path file, int parallelism) throws IOException, IllegalArgumentException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("BatchRecommender.java writeRecommendations(): "
+                    + "parallelism must be at least 1");
+        }
+
+        ArrayList<User> users = userDirectory.getUsersAL();
+        int numKeys = 0;
+        for (User user : users) {
+            numKeys = Math.max(numKeys, user.getId() + 1);
+        }
+
+        int[][] ids = new int[numKeys][];
+        double[][] scores = new double[numKeys][];
+        boolean[] complete = new boolean[numKeys];
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new RankTask(friend, listLength, users, 0, users.size(), ids, scores, complete));
+        } finally {
+            pool.shutdown();
+        }
+
+        RankedListFile.write(file, fingerprint(userDirectory, friend.getScoringModel()), ids, scores, complete);
+        return users.size();
+    }
+
+    /**
+     * Computes a fingerprint of everything recommendations depend on: each
+     * User's ID, city, friends and Interest names, and the ScoringModel's
+     * hash code. The order Users, friends and Interests were added in doesn't
+     * matter, so the fingerprint stays the same when the data is saved and
+     * read back.
+     *
+     * @param userDirectory the directory of all Users
+     * @param scoringModel  the model the recommendations are scored with
+     * @return the fingerprint
+     */
+    public static long fingerprint(UserDirectory userDirectory, ScoringModel scoringModel) {
+        long fingerprint = 0;
+
+        for (User user : userDirectory.getUsersAL()) {
+            long userHash = Hashing.mix(user.getId());
+            if (user.getCity() != null) {
+                userHash = Hashing.mix(userHash ^ user.getCity().toLowerCase().hashCode());
+            }
+
+            LinkedList<Integer> friends = userDirectory.getFriendNetwork().getAdjacencyList(user.getId());
+            int[] friendIds = new int[friends.getLength()];
+            int i = 0;
+            for (int friendId : friends) {
+                friendIds[i++] = friendId;
+            }
+            Arrays.sort(friendIds);
+            for (int friendId : friendIds) {
+                userHash = Hashing.mix(userHash ^ friendId);
+            }
+
+            LinkedList<String> interests = userDirectory.getInterestManager().getInterestNames(user);
+            String[] names = new String[interests.getLength()];
+            i = 0;
+            for (String name : interests) {
+                names[i++] = name.toLowerCase();
+            }
+            Arrays.sort(names);
+            for (String name : names) {
+                userHash = Hashing.mix(userHash ^ name.hashCode());
+            }
+
+            fingerprint += userHash; // addition doesn't depend on the order of Users
+        }
+
+        return Hashing.mix(Hashing.mix(fingerprint ^ userDirectory.getUsersAL().size()) ^ scoringModel.hashCode());
+    }
+
+    /**
+     * Private static class for ranking a range of Users, split in half until
+     * it is at most USERS_PER_TASK long. Each task writes only the slots of
+     * its own Users, so the results need no locking.
+     */
+    private static class RankTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L; // tasks are never serialized
+
+        private final transient Friend friend;
+        private final int listLength;
+        private final ArrayList<User> users;
+        private final int from;
+        private final int to;
+        private final int[][] ids;
+        private final double[][] scores;
+        private final boolean[] complete;
+
+        /**
+         * Creates a task ranking users from index from up to (not including) to.
+         *
+         * @param friend     the Friend to rank recommendations with
+         * @param listLength the number of recommendations to keep per User
+         * @param users      all Users
+         * @param from       the index of the first User
+         * @param to         one past the index of the last User
+         * @param ids        the recommended IDs of each User, by User ID
+         * @param scores     the scores of each User's recommendations, by User ID
+         * @param complete   whether each User's list holds every candidate, by User ID
+         */
+        RankTask(Friend friend, int listLength, ArrayList<User> users, int from, int to, int[][] ids,
+                 double[][] scores, boolean[] complete) {
+            this.friend = friend;
+            this.listLength = listLength;
+            this.users = users;
+            this.from = from;
+            this.to = to;
+            this.ids = ids;
+            this.scores = scores;
+            this.complete = complete;
+        }
+
+        /**
+         * Ranks the range directly or splits it between two subtasks.
+         */
+        @Override
+        protected void compute() {
+            if (to - from > USERS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RankTask(friend, listLength, users, from, middle, ids, scores, complete),
+                        new RankTask(friend, listLength, users, middle, to, ids, scores, complete));
+                return;
+            }
+
+            for (int i = from; i < to; i++) {
+                User user = users.get(i);
+                // keep one extra candidate to know whether the list holds all of them
+                TopKHeap heap = friend.rankBest(user, listLength + 1, null);
+                if (heap == null) {
+                    complete[user.getId()] = true; // not in the graph, so nothing to recommend
+                    continue;
+                }
+
+                int size = Math.min(listLength, heap.getSize());
+                int[] userIds = new int[size];
+                double[] userScores = new double[size];
+                for (int j = 0; j < size; j++) {
+                    userIds[j] = heap.getId(j);
+                    userScores[j] = heap.getScore(j);
+                }
+                ids[user.getId()] = userIds;
+                scores[user.getId()] = userScores;
+                complete[user.getId()] = heap.getSize() <= listLength;
+            }
+        }
+    }
+
+    /**
+     * Reads the user data, ranks every User's recommendations and writes
+     * them to the given file (or DEFAULT_RECOMMENDATIONS_FILE).
+     *
+     * @param args an optional path of the file to write
+     */
+    public static void main(String[] args) {
+        try {
+            UserDirectory userDirectory = ReadAndWriteData.readData();
+            BatchRecommender recommender = new BatchRecommender(userDirectory, new Friend(userDirectory),
+                    DEFAULT_LIST_LENGTH);
+            Path file = Paths.get(args.length > 0 ? args[0] : DEFAULT_RECOMMENDATIONS_FILE);
+
+            long start = System.nanoTime();
+            int numUsers = recommender.writeRecommendations(file, Runtime.getRuntime().availableProcessors());
+            System.out.printf("Wrote recommendations for %d users to %s in %d ms%n", numUsers, file,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            System.out.println("Error caught from main: " + e.getMessage());
+        }
+    }
+}
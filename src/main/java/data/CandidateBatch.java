@@ -0,0 +1,200 @@
+package data;
+
+import java.util.Arrays;
+
+/**
+ * CandidateBatch.java
+ * Holds the features of the friend candidates of one User as parallel
+ * primitive arrays (a struct of arrays), so a ScoringModel can score them
+ * all in one tight loop without creating an object per candidate. A batch
+ * is reused from one ranking to the next and must only be used by one
+ * thread at a time.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * @see data.ScoringModel for how candidates are scored
+ * CIS 22C, Course Project
+ */
+public class CandidateBatch {
+    public static final int MIN_DISTANCE = 2; // friends of friends
+    public static final int MAX_DISTANCE = 4; // furthest distance searched in the friend network
+    public static final int UNREACHABLE_DISTANCE = MAX_DISTANCE + 1; // for Users only found by Interest
+
+    // indexes of the features in score contributions
+    public static final int FEATURE_DISTANCE = 0;
+    public static final int FEATURE_MUTUAL_FRIENDS = 1;
+    public static final int FEATURE_SHARED_INTERESTS = 2;
+    public static final int FEATURE_RELATED_INTERESTS = 3;
+    public static final int FEATURE_SAME_CITY = 4;
+    public static final int FEATURE_DEGREE = 5;
+    public static final int NUM_FEATURES = 6;
+
+    private int[] ids;
+    private int[] distances; // hops from the User in the friend network
+    private int[] mutualFriends;
+    private int[] sharedInterests;
+    private int[] relatedInterests; // the candidate's Interests related to (but not shared with) the User's
+    private boolean[] sameCity;
+    private int[] degrees; // number of friends of the candidate
+    private double[] scores; // scratch space for the scores of the batch
+    private int size;
+
+    // Constructors
+
+    /**
+     * Default constructor for CandidateBatch creates an empty batch that
+     * grows to fit the candidates added.
+     */
+    public CandidateBatch() {
+        final int INITIAL_CAPACITY = 16;
+
+        ids = new int[INITIAL_CAPACITY];
+        distances = new int[INITIAL_CAPACITY];
+        mutualFriends = new int[INITIAL_CAPACITY];
+        sharedInterests = new int[INITIAL_CAPACITY];
+        relatedInterests = new int[INITIAL_CAPACITY];
+        sameCity = new boolean[INITIAL_CAPACITY];
+        degrees = new int[INITIAL_CAPACITY];
+        scores = new double[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    // Accessors
+
+    /**
+     * Gets the number of candidates in the batch.
+     *
+     * @return the number of candidates
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the ID of a candidate.
+     *
+     * @param index the position of the candidate, from 0 to getSize() - 1
+     * @return the candidate's User ID
+     */
+    public int getId(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Gets the distance of a candidate from the User in the friend network.
+     *
+     * @param index the position of the candidate, from 0 to getSize() - 1
+     * @return MIN_DISTANCE to MAX_DISTANCE, or UNREACHABLE_DISTANCE if further
+     */
+    public int getDistance(int index) {
+        return distances[index];
+    }
+
+    /**
+     * Gets the number of friends a candidate shares with the User.
+     *
+     * @param index the position of the candidate, from 0 to getSize() - 1
+     * @return the number of mutual friends
+     */
+    public int getMutualFriends(int index) {
+        return mutualFriends[index];
+    }
+
+    /**
+     * Gets the number of Interests a candidate shares with the User.
+     *
+     * @param index the position of the candidate, from 0 to getSize() - 1
+     * @return the number of shared Interests
+     */
+    public int getSharedInterests(int index) {
+        return sharedInterests[index];
+    }
+
+    /**
+     * Gets the number of a candidate's Interests that the User doesn't have
+     * but that are related to one of the User's.
+     *
+     * @param index the position of the candidate, from 0 to getSize() - 1
+     * @return the number of related Interests
+     */
+    public int getRelatedInterests(int index) {
+        return relatedInterests[index];
+    }
+
+    /**
+     * Determines whether a candidate lives in the same city as the User.
+     *
+     * @param index the position of the candidate, from 0 to getSize() - 1
+     * @return whether the cities match (ignoring case)
+     */
+    public boolean isSameCity(int index) {
+        return sameCity[index];
+    }
+
+    /**
+     * Gets the number of friends of a candidate.
+     *
+     * @param index the position of the candidate, from 0 to getSize() - 1
+     * @return the candidate's degree in the friend network
+     */
+    public int getDegree(int index) {
+        return degrees[index];
+    }
+
+    /**
+     * Gets the scratch array the batch is scored into, at least getSize() long.
+     *
+     * @return the scores array, reused by every ranking with this batch
+     */
+    double[] getScores() {
+        return scores;
+    }
+
+    // Mutators
+
+    /**
+     * Removes every candidate, keeping the arrays for the next ranking.
+     */
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds a candidate and their features.
+     *
+     * @param id               the candidate's User ID
+     * @param distance         the distance from the User in the friend network
+     * @param mutualFriends    the number of friends shared with the User
+     * @param sharedInterests  the number of Interests shared with the User
+     * @param relatedInterests the number of the candidate's Interests related to the User's
+     * @param sameCity         whether the candidate lives in the User's city
+     * @param degree           the number of friends of the candidate
+     */
+    void add(int id, int distance, int mutualFriends, int sharedInterests, int relatedInterests,
+             boolean sameCity, int degree) {
+        if (size == ids.length) {
+            int length = 2 * size;
+            ids = Arrays.copyOf(ids, length);
+            distances = Arrays.copyOf(distances, length);
+            this.mutualFriends = Arrays.copyOf(this.mutualFriends, length);
+            this.sharedInterests = Arrays.copyOf(this.sharedInterests, length);
+            this.relatedInterests = Arrays.copyOf(this.relatedInterests, length);
+            this.sameCity = Arrays.copyOf(this.sameCity, length);
+            degrees = Arrays.copyOf(degrees, length);
+            scores = Arrays.copyOf(scores, length);
+        }
+
+        ids[size] = id;
+        distances[size] = distance;
+        this.mutualFriends[size] = mutualFriends;
+        this.sharedInterests[size] = sharedInterests;
+        this.relatedInterests[size] = relatedInterests;
+        this.sameCity[size] = sameCity;
+        degrees[size] = degree;
+        size++;
+    }
+}
@@ -0,0 +1,363 @@
+package data;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
+import java.util.HexFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+import util.HashTable;
+
+/**
+ * CredentialStore.java
+ * Stores salted PBKDF2 password hashes keyed by username and verifies
+ * login attempts on a bounded pool of worker threads, so PBKDF2 never runs
+ * on the caller's thread. Each password is hashed as soon as it is
+ * registered, on a separate pool that never refuses work, so registering
+ * every existing User at startup returns right away; a login that arrives
+ * before its User's hash is ready waits for it.
+ * A successful login starts a short-lived session with a random ID, which
+ * later checks present instead of the password, in O(1).
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Course Project
+ */
+public class CredentialStore {
+    private static final String HASH_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int HASH_ITERATIONS = 10000;
+    private static final int HASH_LENGTH = 256; // in bits
+    private static final int SALT_LENGTH = 16; // in bytes
+    private static final int SESSION_ID_LENGTH = 32; // in bytes
+    private static final int MAX_WORKERS = 4;
+    private static final int MAX_QUEUED_VERIFICATIONS = 64;
+    private static final long SESSION_TTL_MILLIS = 5 * 60 * 1000; // 5 minutes
+
+    private final HashTable<Credential> credentialTable; // stored credentials keyed by username
+    private final ConcurrentHashMap<String, Session> sessionCache; // session of each recently verified user
+    private final ThreadPoolExecutor verifierPool;
+    private final ThreadPoolExecutor hasherPool; // hashes registered passwords
+    private final SecureRandom random;
+
+    /**
+     * Private static class storing the salt and PBKDF2 hash of one User's password.
+     * Two Credentials are equal when their usernames are equal, so a Credential
+     * holding only a username can be used to look up the stored one.
+     */
+    private static class Credential {
+        private final String username;
+        private final byte[] salt;
+        private final CompletableFuture<byte[]> hash; // completed once hasherPool has hashed the password
+
+        /**
+         * Creates a new Credential with the given username, salt, and password hash.
+         *
+         * @param username the username the Credential belongs to
+         * @param salt     the random salt the password is hashed with
+         * @param hash     the future hash of the password
+         */
+        public Credential(String username, byte[] salt, CompletableFuture<byte[]> hash) {
+            this.username = username;
+            this.salt = salt;
+            this.hash = hash;
+        }
+
+        /**
+         * Returns a hash of only the Credential's username.
+         *
+         * @return a hashcode of the Credential based on the username
+         */
+        @Override
+        public int hashCode() {
+            return username.hashCode();
+        }
+
+        /**
+         * Determines whether two Credentials belong to the same username.
+         *
+         * @param obj the Object to compare to this
+         * @return whether obj and this are equal
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof Credential)) {
+                return false;
+            } else {
+                return username.equals(((Credential) obj).username);
+            }
+        }
+    }
+
+    /**
+     * Private static class for a verified session, identified by a random ID
+     * that reveals nothing about the password.
+     */
+    private static class Session {
+        private final byte[] id;
+        private final long expiresAt;
+
+        /**
+         * Creates a new Session with the given ID and expiry time.
+         *
+         * @param id        the random session ID
+         * @param expiresAt the time (in milliseconds) after which the Session is stale
+         */
+        public Session(byte[] id, long expiresAt) {
+            this.id = id;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // Constructors
+
+    /**
+     * Creates an empty CredentialStore with the given table size.
+     *
+     * @param size the size of the underlying HashTable
+     * @throws IllegalArgumentException when size <= 0
+     */
+    public CredentialStore(int size) throws IllegalArgumentException {
+        credentialTable = new HashTable<>(size);
+        sessionCache = new ConcurrentHashMap<>();
+        random = new SecureRandom();
+
+        // bounded pool: at most MAX_WORKERS hashing at once, verifications are refused when the queue is full
+        verifierPool = newPool("credential-verifier", new ArrayBlockingQueue<>(MAX_QUEUED_VERIFICATIONS));
+        // registrations are never refused: every User is registered at startup
+        hasherPool = newPool("credential-hasher", new LinkedBlockingQueue<>());
+        hasherPool.allowCoreThreadTimeOut(true); // idle once the existing Users are hashed
+    }
+
+    // Accessors
+
+    /**
+     * Determines whether a Credential is stored for the given username.
+     *
+     * @param username the username to look up
+     * @return whether the username has been registered
+     * @throws IllegalArgumentException if username is null
+     */
+    public boolean contains(String username) throws IllegalArgumentException {
+        return findCredential(username) != null;
+    }
+
+    /**
+     * Verifies the given username and password on the worker pool.
+     *
+     * @param username the username to verify
+     * @param password the password to verify
+     * @return a future completed with whether the credentials are correct, or
+     * completed exceptionally with a RejectedExecutionException if too many
+     * verifications are already queued
+     * @throws IllegalArgumentException if username or password is null
+     */
+    public CompletableFuture<Boolean> verifyAsync(String username, String password)
+            throws IllegalArgumentException {
+        // precondition
+        if (username == null || password == null) {
+            throw new IllegalArgumentException("CredentialStore.java verifyAsync(): " +
+                    "Username and password cannot be null");
+        }
+
+        Credential stored = findCredential(username);
+        if (stored == null) { // unknown username
+            return CompletableFuture.completedFuture(false);
+        }
+
+        try {
+            // the stored hash may still be computing: combine with it instead of blocking a worker on it
+            return stored.hash.thenCombine(
+                    CompletableFuture.supplyAsync(() -> hashPassword(password, stored.salt), verifierPool),
+                    MessageDigest::isEqual);
+        } catch (RejectedExecutionException e) { // queue is full
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Verifies the given username and password on the worker pool and, if
+     * they are correct, starts a session lasting SESSION_TTL_MILLIS. Any
+     * earlier session of the User ends.
+     *
+     * @param username the username to log in
+     * @param password the password to verify
+     * @return a future completed with the new session ID, or null if the
+     * credentials are incorrect
+     * @throws IllegalArgumentException if username or password is null
+     * @see #verifyAsync for how verification is scheduled
+     */
+    public CompletableFuture<String> loginAsync(String username, String password) throws IllegalArgumentException {
+        return verifyAsync(username, password).thenApply(verified -> verified ? startSession(username) : null);
+    }
+
+    /**
+     * Determines in O(1) whether a session ID belongs to the current session
+     * of a User. A successful check keeps the session alive for another
+     * SESSION_TTL_MILLIS, so only an idle session expires.
+     *
+     * @param username  the username of the User
+     * @param sessionId the session ID returned by loginAsync
+     * @return whether the session exists and has not expired
+     */
+    public boolean hasSession(String username, String sessionId) {
+        if (username == null || sessionId == null) {
+            return false;
+        }
+
+        Session session = sessionCache.get(username);
+        if (session == null) {
+            return false;
+        }
+        if (session.expiresAt <= System.currentTimeMillis()) {
+            sessionCache.remove(username, session);
+            return false;
+        }
+        if (!MessageDigest.isEqual(session.id, sessionId.getBytes(StandardCharsets.UTF_8))) {
+            return false;
+        }
+        sessionCache.replace(username, session, new Session(session.id,
+                System.currentTimeMillis() + SESSION_TTL_MILLIS));
+        return true;
+    }
+
+    // Mutators
+
+    /**
+     * Stores the given password with a new random salt for the given
+     * username if the username is not already registered. The password is
+     * hashed on hasherPool, and only its hash is kept.
+     *
+     * @param username the username to register
+     * @param password the password to hash and store
+     * @return true if the Credential was stored, false if the username already exists
+     * @throws IllegalArgumentException if username or password is null
+     */
+    public boolean register(String username, String password) throws IllegalArgumentException {
+        // precondition
+        if (username == null || password == null) {
+            throw new IllegalArgumentException("CredentialStore.java register(): " +
+                    "Username and password cannot be null");
+        }
+
+        byte[] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+        CompletableFuture<byte[]> hash = new CompletableFuture<>();
+        Credential credential = new Credential(username, salt, hash);
+
+        synchronized (credentialTable) {
+            if (credentialTable.contains(credential)) {
+                return false;
+            }
+            credentialTable.add(credential);
+        }
+
+        hasherPool.execute(() -> {
+            try {
+                hash.complete(hashPassword(password, salt));
+            } catch (Throwable e) { // fail the verifications waiting for it, instead of leaving them hanging
+                hash.completeExceptionally(e);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Ends the session of the given username, so they have to log in again.
+     *
+     * @param username the username whose session to end
+     */
+    public void invalidateSession(String username) {
+        if (username != null) {
+            sessionCache.remove(username);
+        }
+    }
+
+    // Additional Methods
+
+    /**
+     * Looks up the stored Credential of the given username.
+     *
+     * @param username the username to look up
+     * @return the stored Credential, or null if the username is not registered
+     * @throws IllegalArgumentException if username is null
+     */
+    private Credential findCredential(String username) throws IllegalArgumentException {
+        if (username == null) {
+            throw new IllegalArgumentException("CredentialStore.java findCredential(): Username cannot be null");
+        }
+
+        synchronized (credentialTable) {
+            return credentialTable.get(new Credential(username, null, null));
+        }
+    }
+
+    /**
+     * Creates a pool of MAX_WORKERS daemon threads, which don't keep the
+     * program alive after the UI exits.
+     *
+     * @param name  the name of the threads
+     * @param queue the queue of waiting tasks; when it is full, new tasks are
+     *              refused with a RejectedExecutionException
+     * @return the pool
+     */
+    private static ThreadPoolExecutor newPool(String name, BlockingQueue<Runnable> queue) {
+        return new ThreadPoolExecutor(MAX_WORKERS, MAX_WORKERS, 60L, TimeUnit.SECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Computes the PBKDF2 hash of a password with the given salt.
+     *
+     * @param password the password to hash
+     * @param salt     the salt to hash with
+     * @return the hashed password
+     * @throws IllegalStateException if PBKDF2 is not available in this JVM
+     */
+    private static byte[] hashPassword(String password, byte[] salt) throws IllegalStateException {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, HASH_ITERATIONS, HASH_LENGTH);
+        try {
+            return SecretKeyFactory.getInstance(HASH_ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            throw new IllegalStateException("CredentialStore.java hashPassword(): " + e.getMessage());
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    /**
+     * Starts a new session for a verified User, replacing any earlier one.
+     *
+     * @param username the username of the User
+     * @return the random session ID, as hexadecimal
+     */
+    private String startSession(String username) {
+        byte[] bytes = new byte[SESSION_ID_LENGTH];
+        random.nextBytes(bytes);
+        String sessionId = HexFormat.of().formatHex(bytes);
+
+        sessionCache.put(username, new Session(sessionId.getBytes(StandardCharsets.UTF_8),
+                System.currentTimeMillis() + SESSION_TTL_MILLIS));
+        return sessionId;
+    }
+}
@@ -1,11 +1,20 @@
 package data;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.StringTokenizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import util.Graph;
-import util.LinkedList;
+import util.RankedList;
+import util.RankedListFile;
+import util.RoaringBitmap;
+import util.TopKHeap;
+import util.TraversalBuffer;
 
 /**
  * Friend.java
@@ -24,134 +33,710 @@ import util.LinkedList;
  * CIS 22C, Course Project
  */
 public class Friend {
+    private static final int MIN_DISTANCE = CandidateBatch.MIN_DISTANCE;
+    private static final int MAX_DISTANCE = CandidateBatch.MAX_DISTANCE;
+    private static final int UNREACHABLE_DISTANCE = CandidateBatch.UNREACHABLE_DISTANCE;
+    private static final int MAX_INTEREST_SCAN = 5000; // Users sharing an Interest scanned before using LSH
+    private static final int SIMILAR_USER_CANDIDATES = 500; // candidates taken from LSH otherwise
+    private static final int CACHED_RECOMMENDATIONS = 50; // best recommendations cached per User
+    private static final int CACHE_SIZE = 1000; // Users with cached recommendations
+    private static final long CACHE_TTL_MILLIS = 5 * 60 * 1000; // bounds drift in related-Interest scores
+
+    // idle scratch space, reused by whichever thread ranks next: one per concurrent ranking at most,
+    // even when every request runs on a new (virtual) thread
+    private static final ConcurrentLinkedQueue<Workspace> WORKSPACES = new ConcurrentLinkedQueue<>();
+
     private final Graph friendGraph;
     private final UserDirectory userDirectory;
+    private final ScoringModel scoringModel;
+    private final RecommendationCache recommendationCache;
+    private volatile RankedListFile precomputed; // recommendations written by BatchRecommender, may be null
+    private final RoaringBitmap stalePrecomputed; // IDs of Users whose precomputed recommendations are outdated
 
+    /**
+     * Private static class for the scratch space of one ranking, taken from
+     * WORKSPACES for the ranking and returned afterwards.
+     */
+    private static class Workspace {
+        private final TraversalBuffer buffer = new TraversalBuffer();
+        private final CandidateBatch batch = new CandidateBatch();
+    }
+
+    /**
+     * Constructor for Friend scoring with LinearScoringModel.DEFAULT.
+     *
+     * @param userDirectory the directory of all Users
+     * @see #Friend(UserDirectory, ScoringModel)
+     */
     public Friend(UserDirectory userDirectory) {
+        this(userDirectory, LinearScoringModel.DEFAULT);
+    }
+
+    /**
+     * Constructor for Friend, registering its recommendation cache to be
+     * invalidated by changes to the userDirectory's network and Interests.
+     *
+     * @param userDirectory the directory of all Users
+     * @param scoringModel  the model scoring friend candidates
+     * @throws NullPointerException if scoringModel is null
+     */
+    public Friend(UserDirectory userDirectory, ScoringModel scoringModel) throws NullPointerException {
+        if (scoringModel == null) {
+            throw new NullPointerException("Friend.java: scoringModel cannot be null");
+        }
+
         friendGraph = userDirectory.getFriendNetwork();
         this.userDirectory = userDirectory;
+        this.scoringModel = scoringModel;
+        recommendationCache = new RecommendationCache(CACHE_SIZE, CACHE_TTL_MILLIS);
+        userDirectory.addChangeListener(recommendationCache);
+        precomputed = null;
+        stalePrecomputed = new RoaringBitmap();
+        userDirectory.addChangeListener(new PrecomputedInvalidator());
+    }
+
+    /**
+     * Private inner class marking the Users whose precomputed recommendations
+     * a change to the network may have affected. Unlike RecommendationCache,
+     * the file does not record what each list was computed from, so every
+     * User who could have been affected is marked.
+     */
+    private class PrecomputedInvalidator implements NetworkChangeListener {
+        /**
+         * Marks every User who has either new friend as a candidate, since
+         * their distance, mutual friends and number of friends may change.
+         *
+         * @param userId1 the ID of one User
+         * @param userId2 the ID of the other User
+         */
+        @Override
+        public void friendshipAdded(int userId1, int userId2) {
+            if (precomputed != null) {
+                markCandidatesStale(userId1);
+                markCandidatesStale(userId2);
+            }
+        }
+
+        /**
+         * Marks every User who has the User as a candidate, since the
+         * Interests they share may change.
+         *
+         * @param userId     the ID of the User
+         * @param interestId the ID of the Interest
+         */
+        @Override
+        public void interestAdded(int userId, int interestId) {
+            if (precomputed != null) {
+                markCandidatesStale(userId);
+            }
+        }
+
+        /**
+         * Marks every User who has the User as a candidate (as well as the
+         * User): those within MAX_DISTANCE and those sharing one of the
+         * User's Interests.
+         *
+         * @param userId the ID of the User
+         */
+        private void markCandidatesStale(int userId) {
+            markNeighborhoodStale(userId, MAX_DISTANCE);
+
+            User user = userDirectory.findUserById(userId);
+            if (user != null) {
+                InterestManager interestManager = userDirectory.getInterestManager();
+                for (int id : user.getInterestIds()) {
+                    interestManager.forEachUserWithInterest(id, sharingId -> {
+                        synchronized (stalePrecomputed) {
+                            stalePrecomputed.add(sharingId);
+                        }
+                    });
+                }
+            }
+        }
+
+        /**
+         * Marks the Users within the given distance of a User.
+         *
+         * @param userId   the ID of the User
+         * @param maxDepth the largest distance to mark
+         */
+        private void markNeighborhoodStale(int userId, int maxDepth) {
+            Workspace workspace = acquireWorkspace();
+            try {
+                TraversalBuffer buffer = workspace.buffer;
+                try {
+                    friendGraph.boundedBFS(userId, maxDepth, buffer);
+                } catch (IndexOutOfBoundsException e) {
+                    return; // the User isn't in the graph, so has no neighborhood
+                }
+
+                synchronized (stalePrecomputed) {
+                    for (int i = 0; i < buffer.getNumReached(); i++) {
+                        stalePrecomputed.add(buffer.getReached(i));
+                    }
+                }
+            } finally {
+                releaseWorkspace(workspace);
+            }
+        }
+    }
+
+    /**
+     * Memory-maps recommendations written by BatchRecommender so they are
+     * served directly, without ranking. The file is only used if it was
+     * computed from the same Users, friendships and Interests as
+     * userDirectory holds now, with the same scoringModel; afterwards, Users whose neighborhood changes
+     * fall back to live recommendations.
+     *
+     * @param file the path of the file
+     * @return false if the file doesn't exist or is outdated
+     * @throws IOException when the file cannot be read or is invalid
+     * @see BatchRecommender#fingerprint for how the data is compared
+     */
+    public boolean loadPrecomputedRecommendations(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+
+        RankedListFile loaded = RankedListFile.open(file);
+        if (loaded.getFingerprint() != BatchRecommender.fingerprint(userDirectory, scoringModel)) {
+            return false;
+        }
+
+        synchronized (stalePrecomputed) {
+            stalePrecomputed.clear();
+        }
+        precomputed = loaded;
+        return true;
     }
 
     /**
-     * Private static class for temporarily storing a friend along with
-     * an associated score. This class is useful for sorting a
-     * user's friend recommendation by score, and their user object
+     * Private static class for ranking scored candidates: keeps the best ones
+     * in a bounded heap and, when continuing from a previous page, skips the
+     * candidates that ranked at or above the end of that page.
      */
-    private static class FriendTempClass {
-        private final User userObject;
-        private final double score;
+    private static class Ranking {
+        private final TopKHeap heap;
+        private final boolean hasCursor;
+        private final double cursorScore;
+        private final int cursorId;
+
+        /**
+         * Constructor for a ranking that keeps the best k candidates after the cursor.
+         *
+         * @param k           the number of candidates to keep
+         * @param cursorToken the continuation token of the previous page, or null for the first page
+         * @throws IllegalArgumentException when cursorToken is not a valid token
+         */
+        public Ranking(int k, String cursorToken) throws IllegalArgumentException {
+            heap = new TopKHeap(k);
+            hasCursor = cursorToken != null;
+
+            if (hasCursor) {
+                String[] parts = cursorToken.split(":");
+                try {
+                    if (parts.length != 2) {
+                        throw new NumberFormatException();
+                    }
+                    cursorScore = Double.longBitsToDouble(Long.parseUnsignedLong(parts[0], 16));
+                    cursorId = Integer.parseInt(parts[1], 16);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Ranking: invalid continuation token " + cursorToken);
+                }
+            } else {
+                cursorScore = 0;
+                cursorId = 0;
+            }
+        }
 
         /**
-         * Constructor for storing the friend user and their score.
+         * Offers a scored candidate.
          *
-         * @param userObject friend's user object to return.
-         * @param score      friend's score recommendation based on calculateScore
+         * @param candidateId the ID of the candidate
+         * @param score       the candidate's score
          */
-        public FriendTempClass(User userObject, double score) {
-            this.userObject = userObject;
-            this.score = score;
+        public void offer(int candidateId, double score) {
+            if (isAfterCursor(candidateId, score)) {
+                heap.offer(candidateId, score);
+            }
         }
 
         /**
-         * Gets the Friend's object
+         * Determines whether a candidate ranks after the end of the previous page.
          *
-         * @return will return friend object
+         * @param candidateId the ID of the candidate
+         * @param score       the candidate's score
+         * @return true if there is no previous page or the candidate ranks below its end
          */
-        public User getObject() {
-            return this.userObject;
+        public boolean isAfterCursor(int candidateId, double score) {
+            return !hasCursor || TopKHeap.isWorse(score, candidateId, cursorScore, cursorId);
         }
 
         /**
-         * Gets the friend's recommendation score
+         * Returns the token that continues after the given candidate.
          *
-         * @return will return the recommendation score
+         * @param candidateId the ID of the last candidate on a page
+         * @param score       the candidate's score
+         * @return the continuation token
          */
-        public double getScore() {
-            return score;
+        public static String tokenAfter(int candidateId, double score) {
+            return Long.toHexString(Double.doubleToLongBits(score)) + ":" + Integer.toHexString(candidateId);
         }
     }
 
     /**
-     * Gets friend recommendations for a given user by calculating each
-     * User's recommendation score to the given user and adding Users
-     * with a good score to an ArrayList.
+     * Gets all friend recommendations for a given user, best first.
      *
      * @param user the User to find recommended friends for
      * @return an ArrayList of Users that are recommended (by algorithm) to the user
+     * @see #getFriendRecommendations(User, int, String) for how candidates are found and ranked
      */
     public ArrayList<User> getFriendRecommendations(User user) {
-        int interestScore = 0;
-        ArrayList<User> recommendations = new ArrayList<>();
-        ArrayList<FriendTempClass> pFriendsList = new ArrayList<>();
+        return getFriendRecommendations(user, Integer.MAX_VALUE, null).getUsers();
+    }
 
-        try {
-            friendGraph.BFS(user.getId());  // BFS updates the distance array
-        } catch (IndexOutOfBoundsException e) {
-            return new ArrayList<>(); // Return an empty list in case of error
+    /**
+     * Gets the first page of at most k friend recommendations for a given user.
+     *
+     * @param user the User to find recommended friends for
+     * @param k    the maximum number of recommendations on the page
+     * @return the first page of recommendations
+     * @throws IllegalArgumentException when k < 1
+     * @see #getFriendRecommendations(User, int, String) for how candidates are found and ranked
+     */
+    public RecommendationPage getFriendRecommendations(User user, int k) throws IllegalArgumentException {
+        return getFriendRecommendations(user, k, null);
+    }
+
+    /**
+     * Gets a page of at most k friend recommendations for a given user, best
+     * first. Candidates are only the Users within MAX_DISTANCE of the user in
+     * friendGraph (but not already friends) and the Users who share one of
+     * the user's Interests (or, for very popular Interests, the Users with
+     * the most similar Interests, found by MinHash LSH), so the work depends
+     * on the size of the user's neighborhood rather than the number of Users.
+     * Only the best scores are kept, in a bounded heap, so ranking n
+     * candidates takes O(n log k).
+     * The best CACHED_RECOMMENDATIONS of each user are kept in
+     * recommendationCache until the network around the user changes, and
+     * pages within them (or within the precomputed recommendations, if
+     * loaded and still current) are served without ranking again; later
+     * pages are recomputed from their token.
+     *
+     * @param user              the User to find recommended friends for
+     * @param k                 the maximum number of recommendations on the page
+     * @param continuationToken the token from the previous page, or null for the first page
+     * @return a page of recommendations with the token for the next page
+     * @throws IllegalArgumentException when k < 1 or the token is invalid
+     * @see #getFriendRecommendations(User, int, String, boolean) to explain the recommendations
+     */
+    public RecommendationPage getFriendRecommendations(User user, int k, String continuationToken)
+            throws IllegalArgumentException {
+        return getFriendRecommendations(user, k, continuationToken, false);
+    }
+
+    /**
+     * Gets a page of at most k friend recommendations for a given user, best
+     * first, optionally explaining each one: its distance, mutual friends,
+     * shared Interests by name and the contribution of each feature to its
+     * score. The caches only hold IDs and scores, so an explained page is
+     * always ranked again, and the explanations are read from the
+     * CandidateBatch that ranking filled, without another traversal. Pages
+     * that aren't explained cost nothing extra.
+     *
+     * @param user              the User to find recommended friends for
+     * @param k                 the maximum number of recommendations on the page
+     * @param continuationToken the token from the previous page, or null for the first page
+     * @param explain           whether to explain the recommendations on the page
+     * @return a page of recommendations with the token for the next page, and
+     * their explanations if explain is true
+     * @throws IllegalArgumentException when k < 1 or the token is invalid
+     * @see #getFriendRecommendations(User, int, String) for how candidates are found and ranked
+     */
+    public RecommendationPage getFriendRecommendations(User user, int k, String continuationToken,
+                                                       boolean explain) throws IllegalArgumentException {
+        if (k < 1) {
+            throw new IllegalArgumentException("Friend.java getFriendRecommendations(): k must be at least 1");
         }
 
-        // Get the current friends of the user
-        LinkedList<Integer> currentFriends = friendGraph.getAdjacencyList(user.getId());
-        ArrayList<Integer> currentFriendsList = new ArrayList<>();
-        currentFriends.positionIterator();
-        while (!currentFriends.offEnd()) {
-            currentFriendsList.add(currentFriends.getIterator());
-            currentFriends.advanceIterator();
+        // keep one extra candidate to know whether there is a next page
+        Ranking ranking = new Ranking(k == Integer.MAX_VALUE ? k : k + 1, continuationToken);
+
+        RankedList entry = null;
+        if (!explain) {
+            entry = getPrecomputed(user.getId());
+            if (entry == null) {
+                entry = recommendationCache.get(user.getId());
+            }
+            if (entry == null) {
+                entry = cacheRecommendations(user);
+            }
+        }
+        if (entry != null) {
+            // skip the cached candidates up to the end of the previous page
+            int start = 0;
+            while (start < entry.getSize() && !ranking.isAfterCursor(entry.getId(start), entry.getScore(start))) {
+                start++;
+            }
+            if (entry.isComplete() || (long) start + k < entry.getSize()) {
+                return getCachedPage(entry, start, k);
+            }
         }
 
-        // Iterate over all users in the directory and find recommendations
-        for (User potentialFriend : userDirectory.getUsersAL()) {
-            if (!potentialFriend.equals(user) && !currentFriendsList.contains(potentialFriend.getId())) {
-                int dist = friendGraph.getDistance(potentialFriend.getId());  // Get distance from the user
-                if (dist >= 2 && dist <= 4) {// Check valid distance for recommendation
+        Workspace workspace = acquireWorkspace();
+        try {
+            TopKHeap heap = rank(user, ranking, null, workspace);
+            if (heap == null) {
+                return new RecommendationPage(new ArrayList<>(), null); // Return an empty page in case of error
+            }
 
-                    StringTokenizer StringTokenized = new StringTokenizer(potentialFriend.getInterests().toString());
-                    while (StringTokenized.hasMoreTokens()) {
-                        String next = StringTokenized.nextToken();
-                        if (user.getInterests().toString().contains(next)) {
-                            interestScore++;
-                        }
-                    }
+            int pageSize = Math.min(k, heap.getSize());
+            ArrayList<User> recommendations = new ArrayList<>(pageSize);
+            for (int i = 0; i < pageSize; i++) {
+                recommendations.add(userDirectory.findUserById(heap.getId(i)));
+            }
 
-                    FriendTempClass pUser = new FriendTempClass(potentialFriend, calculateScore(dist, interestScore));
+            String nextToken = null;
+            if (heap.getSize() > k) {
+                nextToken = Ranking.tokenAfter(heap.getId(k - 1), heap.getScore(k - 1));
+            }
+            if (explain) {
+                return new RecommendationPage(recommendations, nextToken,
+                        explain(user, heap, pageSize, workspace.batch));
+            }
+            return new RecommendationPage(recommendations, nextToken);
+        } finally {
+            releaseWorkspace(workspace);
+        }
+    }
+
+    /**
+     * Explains the first recommendations of a ranking from the features left
+     * in its CandidateBatch by the ranking.
+     *
+     * @param user     the User the recommendations are for
+     * @param heap     the ranking, sorted best first
+     * @param pageSize the number of recommendations to explain
+     * @param batch    the batch the ranking scored
+     * @return the explanations, in the order of the ranking
+     */
+    private ArrayList<RecommendationExplanation> explain(User user, TopKHeap heap, int pageSize,
+                                                         CandidateBatch batch) {
+        HashMap<Integer, Integer> ranks = new HashMap<>();
+        for (int i = 0; i < pageSize; i++) {
+            ranks.put(heap.getId(i), i);
+        }
 
-                    pFriendsList.add(pUser);
+        InterestManager interestManager = userDirectory.getInterestManager();
+        RecommendationExplanation[] explanations = new RecommendationExplanation[pageSize];
+        for (int i = 0; i < batch.getSize() && !ranks.isEmpty(); i++) {
+            Integer rank = ranks.remove(batch.getId(i));
+            if (rank != null) {
+                User candidate = userDirectory.findUserById(batch.getId(i));
+                ArrayList<String> sharedInterests = new ArrayList<>();
+                for (int interestId : user.getSharedInterestIds(candidate)) {
+                    sharedInterests.add(interestManager.getInterest(interestId).getInterestName());
                 }
+                explanations[rank] = new RecommendationExplanation(candidate, heap.getScore(rank),
+                        batch.getDistance(i), batch.getMutualFriends(i), sharedInterests,
+                        batch.getRelatedInterests(i), batch.isSameCity(i), batch.getDegree(i),
+                        scoringModel.explain(batch, i));
+            }
+        }
+        return new ArrayList<>(Arrays.asList(explanations));
+    }
+
+    /**
+     * Returns the model scoring friend candidates.
+     *
+     * @return the ScoringModel
+     */
+    public ScoringModel getScoringModel() {
+        return scoringModel;
+    }
+
+    /**
+     * Returns the cache of the best friend recommendations of each User.
+     *
+     * @return the RecommendationCache, e.g. for its hit and miss counts
+     */
+    public RecommendationCache getRecommendationCache() {
+        return recommendationCache;
+    }
+
+    /**
+     * Ranks the best CACHED_RECOMMENDATIONS candidates of a user and caches
+     * them along with every User and Interest the ranking was computed from.
+     *
+     * @param user the User to find recommended friends for
+     * @return the new cache Entry, or null if the user is not in friendGraph
+     */
+    private RecommendationCache.Entry cacheRecommendations(User user) {
+        ArrayList<Integer> userDependencies = new ArrayList<>();
+        // read first: a change made during the ranking keeps it out of the cache
+        long generation = recommendationCache.getGeneration();
+        // keep one extra candidate to know whether the entry holds all of them
+        TopKHeap heap = rankBest(user, CACHED_RECOMMENDATIONS + 1, userDependencies);
+        if (heap == null) {
+            return null;
+        }
+
+        int size = Math.min(CACHED_RECOMMENDATIONS, heap.getSize());
+        int[] ids = new int[size];
+        double[] scores = new double[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = heap.getId(i);
+            scores[i] = heap.getScore(i);
+        }
+
+        int[] dependencies = new int[userDependencies.size()];
+        for (int i = 0; i < dependencies.length; i++) {
+            dependencies[i] = userDependencies.get(i);
+        }
+        return recommendationCache.put(user.getId(), ids, scores, heap.getSize() <= CACHED_RECOMMENDATIONS,
+                dependencies, user.getInterestIds(), generation);
+    }
+
+    /**
+     * Returns the precomputed recommendations of a User if they are still current.
+     *
+     * @param userId the ID of the User
+     * @return the User's precomputed recommendations, or null if there are none or they are outdated
+     */
+    private RankedList getPrecomputed(int userId) {
+        RankedListFile file = precomputed;
+        if (file == null || userId >= file.getNumKeys()) {
+            return null;
+        }
+        synchronized (stalePrecomputed) {
+            if (stalePrecomputed.contains(userId)) {
+                return null;
+            }
+        }
+        return file.getList(userId);
+    }
+
+    /**
+     * Ranks the best n candidates of a User.
+     *
+     * @param user             the User to find recommended friends for
+     * @param n                the number of candidates to keep
+     * @param userDependencies collects the IDs of the Users the scores depend on, may be null
+     * @return the best candidates sorted best first, or null if the user is not in friendGraph
+     */
+    TopKHeap rankBest(User user, int n, ArrayList<Integer> userDependencies) {
+        Workspace workspace = acquireWorkspace();
+        try {
+            return rank(user, new Ranking(n, null), userDependencies, workspace);
+        } finally {
+            releaseWorkspace(workspace);
+        }
+    }
+
+    /**
+     * Takes idle scratch space from the pool, or creates it if every
+     * workspace is in use.
+     *
+     * @return a Workspace only the caller uses until it is released
+     */
+    private static Workspace acquireWorkspace() {
+        Workspace workspace = WORKSPACES.poll();
+        return workspace == null ? new Workspace() : workspace;
+    }
+
+    /**
+     * Returns scratch space to the pool for the next ranking.
+     *
+     * @param workspace the Workspace, no longer used by the caller
+     */
+    private static void releaseWorkspace(Workspace workspace) {
+        WORKSPACES.offer(workspace);
+    }
+
+    /**
+     * Scores every candidate of a User and offers them to the ranking.
+     *
+     * @param user             the User to find recommended friends for
+     * @param ranking          the ranking of scored candidates
+     * @param userDependencies collects the IDs of the Users the scores depend on, may be null
+     * @param workspace        the scratch space of the ranking
+     * @return the ranking's heap sorted best first, or null if the user is not in friendGraph
+     */
+    private TopKHeap rank(User user, Ranking ranking, ArrayList<Integer> userDependencies, Workspace workspace) {
+        // the network must not change mid-traversal, e.g. when a prefetch runs while the menu adds a friend
+        ReentrantReadWriteLock.ReadLock networkLock = userDirectory.getNetworkLock().readLock();
+        networkLock.lock();
+        try {
+            if (!rankCandidates(user, ranking, userDependencies, workspace)) {
+                return null;
+            }
+        } finally {
+            networkLock.unlock();
+        }
+        ranking.heap.sort();
+        return ranking.heap;
+    }
+
+    /**
+     * Returns a page of cached recommendations.
+     *
+     * @param entry the cached ranking
+     * @param start the rank of the first recommendation on the page
+     * @param k     the maximum number of recommendations on the page
+     * @return the page, with a token if more recommendations follow it
+     */
+    private RecommendationPage getCachedPage(RankedList entry, int start, int k) {
+        int end = (int) Math.min((long) start + k, entry.getSize());
+        ArrayList<User> recommendations = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            recommendations.add(userDirectory.findUserById(entry.getId(i)));
+        }
+
+        String nextToken = null;
+        if (end > start && (end < entry.getSize() || !entry.isComplete())) {
+            nextToken = Ranking.tokenAfter(entry.getId(end - 1), entry.getScore(end - 1));
+        }
+        return new RecommendationPage(recommendations, nextToken);
+    }
+
+    /**
+     * Scores every candidate of a user and offers them to the ranking. The
+     * candidates' features are gathered into a CandidateBatch first, so the
+     * scoringModel scores them all in one pass.
+     *
+     * @param user             the User to find recommended friends for
+     * @param ranking          the ranking of scored candidates
+     * @param userDependencies collects the IDs of the Users the scores depend on, may be null
+     * @param workspace        the scratch space of the ranking, whose batch keeps the candidates afterwards
+     * @return false if the user is not in friendGraph
+     */
+    private boolean rankCandidates(User user, Ranking ranking, ArrayList<Integer> userDependencies,
+                                   Workspace workspace) {
+        TraversalBuffer buffer = workspace.buffer;
+        CandidateBatch batch = workspace.batch;
+
+        try {
+            friendGraph.boundedBFS(user.getId(), MAX_DISTANCE, buffer); // distances stay in buffer
+        } catch (IndexOutOfBoundsException e) {
+            return false;
+        }
+        batch.clear();
+
+        // candidates from the neighborhood: the user (0) and friends (1) are excluded by distance
+        for (int i = 0; i < buffer.getNumReached(); i++) {
+            int candidateId = buffer.getReached(i);
+            if (userDependencies != null) {
+                userDependencies.add(candidateId); // a new edge here can change every distance
+            }
+
+            int dist = buffer.getDistance(candidateId);
+            if (dist >= MIN_DISTANCE && buffer.mark(candidateId)) {
+                // at distance 2 each shortest path goes through a different mutual friend
+                int mutualFriends = dist == MIN_DISTANCE ? buffer.getPathCount(candidateId) : 0;
+                addCandidate(user, candidateId, dist, mutualFriends, batch);
+            }
+        }
+
+        // candidates outside the neighborhood who share an Interest: all of them while
+        // the user's Interests are small enough to scan, else the most similar by LSH
+        InterestManager interestManager = userDirectory.getInterestManager();
+        int[] interestIds = user.getInterestIds();
+        long numSharing = 0;
+        for (int interestId : interestIds) {
+            numSharing += interestManager.countUsersWithInterest(interestId);
+        }
+
+        if (numSharing <= MAX_INTEREST_SCAN) {
+            for (int interestId : interestIds) {
+                interestManager.forEachUserWithInterest(interestId,
+                        candidateId -> addInterestCandidate(user, candidateId, buffer, batch, userDependencies));
+            }
+        } else {
+            for (int candidateId : interestManager.findSimilarUsers(user, SIMILAR_USER_CANDIDATES)) {
+                addInterestCandidate(user, candidateId, buffer, batch, userDependencies);
             }
         }
-        Collections.sort(pFriendsList, (o1, o2) ->
-                Double.compare(o2.getScore(), o1.getScore()));
-        for (FriendTempClass friendTemp : pFriendsList) {
-            if (friendTemp.getObject() == user) {
-                continue;
+
+        double[] scores = batch.getScores();
+        scoringModel.score(batch, scores);
+        for (int i = 0; i < batch.getSize(); i++) {
+            ranking.offer(batch.getId(i), scores[i]);
+        }
+        return true;
+    }
+
+    /**
+     * Gathers the features of a candidate found by Interest into the batch,
+     * unless the traversal already reached or marked them.
+     *
+     * @param user             the User to find recommended friends for
+     * @param candidateId      the ID of the candidate
+     * @param buffer           the traversal of the user's neighborhood
+     * @param batch            the batch of candidates
+     * @param userDependencies collects the IDs of the Users the scores depend on, may be null
+     */
+    private void addInterestCandidate(User user, int candidateId, TraversalBuffer buffer, CandidateBatch batch,
+                                      ArrayList<Integer> userDependencies) {
+        if (buffer.getDistance(candidateId) == -1 && buffer.mark(candidateId)) {
+            if (userDependencies != null) {
+                userDependencies.add(candidateId);
             }
-            recommendations.add(friendTemp.getObject());
+            addCandidate(user, candidateId, UNREACHABLE_DISTANCE, 0, batch);
         }
-        return recommendations;
     }
 
     /**
-     * Calculates the score for a relationship between two Users based on their distance
-     * in friendGraph and interest score. The distance is influenced by mutual friends
-     * (tracked in the Graph of Users) and the interest score is influenced by shared Interests,
-     * with shared Interests having a bigger weight on the score than distance.
+     * Gathers the features of a candidate into the batch.
      *
-     * @param dist          the distance between two Users in the friendGraph
-     * @param interestScore the number of shared interests between two Users
-     * @return the calculated score for the friendship between two Users, with a higher
-     * score indicating a higher likelihood of being recommended as a friend
+     * @param user          the User to find recommended friends for
+     * @param candidateId   the ID of the candidate
+     * @param dist          the candidate's distance from the user in friendGraph
+     * @param mutualFriends the number of friends the candidate shares with the user
+     * @param batch         the batch of candidates
      */
-    private double calculateScore(int dist, int interestScore) {
-        final double interestWeight = 2.0;  // Give shared interests more weight
-        final double distanceWeight = 1.0; // Give distance less weight
+    private void addCandidate(User user, int candidateId, int dist, int mutualFriends, CandidateBatch batch) {
+        User potentialFriend = userDirectory.findUserById(candidateId);
+        if (potentialFriend == null || potentialFriend == user) {
+            return;
+        }
+
+        int sharedInterests = user.countSharedInterests(potentialFriend); // sorted ID intersection
+        int relatedInterests = countRelatedInterests(user, potentialFriend);
+        boolean sameCity = user.getCity() != null && user.getCity().equalsIgnoreCase(potentialFriend.getCity());
+        batch.add(candidateId, dist, mutualFriends, sharedInterests, relatedInterests, sameCity,
+                friendGraph.getDegree(candidateId));
+    }
 
-        // Normalize distance: Min dist = 2, Max dist = 8
-        final int minDist = 2;
-        final int maxDist = 4;
-        double normalizedDistance = (double) (dist - minDist) / (maxDist - minDist);
+    /**
+     * Counts the Interests of another User that this User doesn't have but
+     * that are related to one of this User's Interests (lift above 1, i.e.
+     * Users with one tend to have the other).
+     *
+     * @param user  the User to find recommended friends for
+     * @param other the potential friend
+     * @return the number of the other User's Interests related to the User's
+     * @see InterestManager#getInterestLift for how related Interests are found
+     */
+    private int countRelatedInterests(User user, User other) {
+        final double minLift = 1.0;
+
+        InterestManager interestManager = userDirectory.getInterestManager();
+        int[] userInterests = user.getInterestIds();
+        int relatedScore = 0;
+
+        for (int otherInterest : other.getInterestIds()) {
+            if (user.hasInterest(otherInterest)) {
+                continue; // already counted as shared
+            }
+            for (int userInterest : userInterests) {
+                if (interestManager.getInterestLift(userInterest, otherInterest) > minLift) {
+                    relatedScore++;
+                    break;
+                }
+            }
+        }
 
-        // Calculate final score based on weighted formula
-        return (interestWeight * interestScore) - (distanceWeight * normalizedDistance);
+        return relatedScore;
     }
 
 }
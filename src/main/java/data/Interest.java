@@ -33,6 +33,15 @@ public class Interest {
 
     // Accessors
 
+    /**
+     * Gets the name of the Interest.
+     *
+     * @return the name of the Interest
+     */
+    public String getInterestName() {
+        return interestName;
+    }
+
     /**
      * Gets the ID of the Interest.
      *
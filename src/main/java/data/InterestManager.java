@@ -1,13 +1,30 @@
 package data;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
 
+import util.ConcurrentSkipList;
+import util.CooccurrenceMatrix;
+import util.CountLeaderboard;
 import util.HashTable;
-import util.BST;
+import util.LinkedList;
+import util.MinHashIndex;
+import util.ReadOnlyView;
+import util.RoaringBitmap;
+import util.TrigramIndex;
 
 /**
  * InterestManager.java
  * Manages the existing Interests and tracks which Users share each Interest.
+ * Users of each Interest are kept in a lock-free skip list, so several
+ * registration threads can add Users to Interests at the same time. Only
+ * looking up (or creating) an Interest by name is synchronized.
+ * Each Interest also has a compressed bitmap of the IDs of its Users, so
+ * questions across several Interests are answered with bitmap AND, OR, and
+ * AND NOT instead of walking the skip lists.
  *
  * @author Benjamin Liou
  * @author Kenneth Garcia
@@ -18,57 +35,750 @@ import util.BST;
  * CIS 22C, Course Project
  */
 public class InterestManager {
+    // a pair of Users sharing 1 of 3 Interests each (similarity 0.2) is found about half the time,
+    // and sharing 2 of 3 (0.5) almost always
+    private static final int SIMILARITY_BANDS = 16;
+    private static final int SIMILARITY_ROWS_PER_BAND = 2;
+
     private final HashTable<Interest> interestHashTable; // storing all existing Interests
-    private final ArrayList<BST<User>> usersSharedInterest; // tracking which Users share each Interest
+    private final ArrayList<Interest> interestsById; // the Interest with each ID
+    private final TrigramIndex interestNameIndex; // fuzzy lookup of Interest names
+    private final ArrayList<ConcurrentSkipList<User>> usersSharedInterest; // tracking which Users share each Interest
+    private final ArrayList<RoaringBitmap> interestPostings; // IDs of the Users of each Interest
+    private final ReentrantReadWriteLock postingsLock; // guards interestPostings and its bitmaps
+    private final CooccurrenceMatrix interestCooccurrence; // how often two Interests share a User
+    private final CountLeaderboard interestLeaderboard; // Interest IDs by number of Users
+    private final MinHashIndex userSimilarityIndex; // Users by their set of Interest IDs
+    private final CopyOnWriteArrayList<NetworkChangeListener> changeListeners;
+
+    /**
+     * Public static class for a User ID returned by a multi-Interest query,
+     * along with how many of the queried Interests the User has.
+     */
+    public static class InterestMatch {
+        private final int userId;
+        private final int matchCount;
+
+        /**
+         * Constructor for storing a matching User's ID and match count.
+         *
+         * @param userId     the ID of the matching User
+         * @param matchCount the number of queried Interests the User has
+         */
+        public InterestMatch(int userId, int matchCount) {
+            this.userId = userId;
+            this.matchCount = matchCount;
+        }
+
+        /**
+         * Gets the ID of the matching User.
+         *
+         * @return the User's ID
+         */
+        public int getUserId() {
+            return userId;
+        }
+
+        /**
+         * Gets the number of queried Interests the User has.
+         *
+         * @return the match count
+         */
+        public int getMatchCount() {
+            return matchCount;
+        }
+    }
+
+    /**
+     * Public static class for an Interest on the popular-interest leaderboard,
+     * along with how many Users have it.
+     */
+    public static class InterestCount {
+        private final Interest interest;
+        private final int userCount;
+
+        /**
+         * Constructor for storing an Interest and its number of Users.
+         *
+         * @param interest  the Interest
+         * @param userCount the number of Users with the Interest
+         */
+        public InterestCount(Interest interest, int userCount) {
+            this.interest = interest;
+            this.userCount = userCount;
+        }
+
+        /**
+         * Gets the Interest.
+         *
+         * @return the Interest
+         */
+        public Interest getInterest() {
+            return interest;
+        }
+
+        /**
+         * Gets the number of Users with the Interest.
+         *
+         * @return the User count
+         */
+        public int getUserCount() {
+            return userCount;
+        }
+    }
 
     /**
      * Default Constructor for InterestManager initializing interestHashTable
-     * with the set INITIAL_CAPACITY and usersSharedInterest as empty.
+     * with the set INITIAL_CAPACITY and usersSharedInterest and
+     * interestPostings as empty.
      */
     public InterestManager() {
         final int INITIAL_CAPACITY = 100;
 
         interestHashTable = new HashTable<>(INITIAL_CAPACITY);
+        interestsById = new ArrayList<>();
+        interestNameIndex = new TrigramIndex();
         usersSharedInterest = new ArrayList<>();
+        interestPostings = new ArrayList<>();
+        postingsLock = new ReentrantReadWriteLock();
+        interestCooccurrence = new CooccurrenceMatrix();
+        interestLeaderboard = new CountLeaderboard();
+        userSimilarityIndex = new MinHashIndex(SIMILARITY_BANDS, SIMILARITY_ROWS_PER_BAND);
+        changeListeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Returns the shared Interest object for a name, giving the name a new
+     * int ID if no Interest has it yet (case-insensitive). Every User with an
+     * Interest shares this one object and its name String.
+     *
+     * @param interestName the name of the Interest
+     * @return the existing or newly added Interest
+     * @throws IllegalArgumentException when interestName is null or blank
+     */
+    public Interest internInterest(String interestName) throws IllegalArgumentException {
+        if (interestName == null || interestName.trim().isEmpty()) {
+            throw new IllegalArgumentException("InternInterest: interest name cannot be blank");
+        }
+        return getOrAddInterest(interestName.trim());
+    }
+
+    /**
+     * Returns the Interest with the given ID.
+     *
+     * @param id the ID of the Interest
+     * @return the Interest, or null if no Interest has that ID
+     */
+    public Interest getInterest(int id) {
+        synchronized (interestHashTable) {
+            return id >= 0 && id < interestsById.size() ? interestsById.get(id) : null;
+        }
     }
 
     /**
-     * Adds User to an Interest.
+     * Returns the names of a User's Interests, in order by Interest ID.
+     *
+     * @param user the User
+     * @return a new LinkedList of the shared Interest names
+     * @see User#getInterestIds for the IDs the names are looked up by
+     */
+    public LinkedList<String> getInterestNames(User user) {
+        LinkedList<String> names = new LinkedList<>();
+        synchronized (interestHashTable) {
+            for (int id : user.getInterestIds()) {
+                names.addLast(interestsById.get(id).getInterestName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns the number of distinct Interests, which is also one more than
+     * the largest Interest ID.
+     *
+     * @return the number of Interests
+     */
+    public int getNumInterests() {
+        synchronized (interestHashTable) {
+            return interestsById.size();
+        }
+    }
+
+    /**
+     * Adds User to an Interest and the Interest to the User.
      * If the Interest doesn't exist, adds Interest to interestHashTable and User to the Interest.
+     * Blank names and Interests the User already has are ignored.
+     * Safe to call from several threads at once for different Users.
      *
      * @param interestName the name of the Interest
      * @param user         the User to add the Interest to
      */
     public void addUserToInterest(String interestName, User user) {
-        Interest temp = new Interest(interestName, -1);
-        Interest checkedInterest = interestHashTable.get(temp);
+        if (interestName == null || interestName.trim().isEmpty()) {
+            return;
+        }
 
-        if (checkedInterest == null) {
-            int interestId = usersSharedInterest.size();
-            Interest newInterest = new Interest(interestName, interestId);
-            interestHashTable.add(newInterest);
-            usersSharedInterest.add(new BST<>());
-            checkedInterest = newInterest;
+        Interest interest = internInterest(interestName);
+        if (!user.addInterest(interest)) {
+            return; // User already has the Interest
         }
 
-        int id = checkedInterest.getInterestID();
-        usersSharedInterest.get(id).insert(user, UserDirectory.nameComparator);
+        int id = interest.getInterestID();
+        getUsers(id).insert(user, UserDirectory.nameComparator);
+        interestCooccurrence.addToSet(otherInterestIds(user, id), id);
+        interestLeaderboard.increment(id);
+        userSimilarityIndex.add(user.getId(), id);
+
+        postingsLock.writeLock().lock();
+        try {
+            interestPostings.get(id).add(user.getId());
+        } finally {
+            postingsLock.writeLock().unlock();
+        }
+
+        fireInterestAdded(user.getId(), id);
     }
 
     /**
-     * Retrieves a BST containing users that share an existing Interest.
+     * Adds every given User to all the Interests in their interest list.
+     * Users are grouped by Interest first and each Interest's skip list is then
+     * built from its sorted group in one linear-time pass, instead of inserting
+     * the Users one at a time.
      *
-     * @param interestName the given name of an Interest
-     * @return a BST of Users that share the given Interest
+     * @param users the Users whose interests to add
+     * @precondition each User's Interests were interned by this InterestManager
+     * @see util.ConcurrentSkipList#bulkLoad for how each skip list is built
      */
-    public BST<User> retrieveInterestBST(String interestName) {
-        Interest tempInterest = interestHashTable.get(new Interest(interestName, -1));
+    public void addUsersToInterests(ArrayList<User> users) {
+        // count pairs of Interests shared by a User, in parallel
+        ArrayList<int[]> interestSets = new ArrayList<>(users.size());
+        for (User user : users) {
+            int[] interestIds = user.getInterestIds();
+            if (interestIds.length > 0) {
+                interestSets.add(interestIds);
+            }
+        }
+        interestCooccurrence.merge(CooccurrenceMatrix.build(interestSets));
+
+        // group Users by Interest ID
+        ArrayList<ArrayList<User>> usersByInterest = new ArrayList<>();
+        for (User user : users) {
+            userSimilarityIndex.addAll(user.getId(), user.getInterestIds());
+            for (int id : user.getInterestIds()) {
+                while (usersByInterest.size() <= id) {
+                    usersByInterest.add(new ArrayList<>());
+                }
+                usersByInterest.get(id).add(user);
+            }
+        }
 
-        if (tempInterest != null) {
-            int id = tempInterest.getInterestID();
+        // build each Interest's skip list from its group
+        for (int id = 0; id < usersByInterest.size(); id++) {
+            ArrayList<User> group = usersByInterest.get(id);
+            if (group.isEmpty()) {
+                continue;
+            }
+
+            postingsLock.writeLock().lock();
+            try {
+                RoaringBitmap postings = interestPostings.get(id);
+                for (User user : group) {
+                    postings.add(user.getId());
+                    interestLeaderboard.increment(id);
+                }
+            } finally {
+                postingsLock.writeLock().unlock();
+            }
+
+            ConcurrentSkipList<User> existing = getUsers(id);
+            if (existing.isEmpty()) {
+                synchronized (interestHashTable) {
+                    usersSharedInterest.set(id, ConcurrentSkipList.bulkLoad(group.toArray(new User[0]),
+                            UserDirectory.nameComparator));
+                }
+            } else {
+                for (User user : group) {
+                    existing.insert(user, UserDirectory.nameComparator);
+                }
+            }
+
+            for (User user : group) {
+                fireInterestAdded(user.getId(), id);
+            }
+        }
+    }
+
+    /**
+     * Registers a listener to be notified when a User is added to an Interest.
+     *
+     * @param listener the listener to add
+     * @throws NullPointerException if listener is null
+     */
+    public void addChangeListener(NetworkChangeListener listener) throws NullPointerException {
+        if (listener == null) {
+            throw new NullPointerException("InterestManager.java addChangeListener(): listener cannot be null");
+        }
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Notifies every listener that a User was added to an Interest.
+     *
+     * @param userId     the ID of the User
+     * @param interestId the ID of the Interest
+     */
+    private void fireInterestAdded(int userId, int interestId) {
+        for (NetworkChangeListener listener : changeListeners) {
+            listener.interestAdded(userId, interestId);
+        }
+    }
+
+    /**
+     * Returns the Interest with the given name, adding it to interestHashTable
+     * (with an empty skip list and bitmap of Users) if it doesn't exist yet.
+     *
+     * @param interestName the name of the Interest
+     * @return the existing or newly added Interest
+     */
+    private Interest getOrAddInterest(String interestName) {
+        synchronized (interestHashTable) {
+            Interest checkedInterest = interestHashTable.get(new Interest(interestName, -1));
+
+            if (checkedInterest == null) {
+                int interestId = usersSharedInterest.size();
+                checkedInterest = new Interest(interestName, interestId);
+                interestHashTable.add(checkedInterest);
+                interestsById.add(checkedInterest);
+                interestNameIndex.add(interestId, interestName);
+                interestLeaderboard.add(interestId);
+                usersSharedInterest.add(new ConcurrentSkipList<>());
+
+                postingsLock.writeLock().lock();
+                try {
+                    interestPostings.add(new RoaringBitmap());
+                } finally {
+                    postingsLock.writeLock().unlock();
+                }
+            }
+
+            return checkedInterest;
+        }
+    }
+
+    /**
+     * Returns the skip list of Users that share the Interest with the given ID.
+     *
+     * @param id the ID of an existing Interest
+     * @return the skip list of Users with that Interest
+     */
+    private ConcurrentSkipList<User> getUsers(int id) {
+        synchronized (interestHashTable) {
             return usersSharedInterest.get(id);
         }
-        return null;
     }
 
+    /**
+     * Retrieves the Users that share an existing Interest, in order by name.
+     * The view reads the Interest's skip list directly, so nothing is copied
+     * and callers cannot change the index.
+     *
+     * @param interestName the given name of an Interest
+     * @return a read-only view of the Users that share the given Interest,
+     * or null if the Interest doesn't exist
+     */
+    public ReadOnlyView<User> retrieveInterestUsers(String interestName) {
+        synchronized (interestHashTable) {
+            Interest tempInterest = interestHashTable.get(new Interest(interestName, -1));
+
+            if (tempInterest != null) {
+                int id = tempInterest.getInterestID();
+                return new ReadOnlyView<>(usersSharedInterest.get(id), UserDirectory.nameComparator);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves the Users other than the given User that share an existing
+     * Interest, in order by name, without copying or changing the index.
+     *
+     * @param interestName the given name of an Interest
+     * @param excludedUser the User to leave out, usually the one searching
+     * @return a read-only view of the other Users that share the given
+     * Interest, or null if the Interest doesn't exist
+     */
+    public ReadOnlyView<User> retrieveInterestUsers(String interestName, User excludedUser) {
+        ReadOnlyView<User> users = retrieveInterestUsers(interestName);
+        return users == null ? null : users.excluding(excludedUser);
+    }
+
+    /**
+     * Returns up to k of the Interests with the most Users, most popular first,
+     * in O(k) time. The leaderboard is updated as Users are added to Interests.
+     *
+     * @param k the maximum number of Interests to return
+     * @return an ArrayList of the most popular Interests with their User counts
+     * @throws IllegalArgumentException when k < 0
+     * @see util.CountLeaderboard#getTop for how the leaderboard is kept
+     */
+    public ArrayList<InterestCount> topInterests(int k) throws IllegalArgumentException {
+        ArrayList<InterestCount> top = new ArrayList<>();
+        for (int id : interestLeaderboard.getTop(k)) {
+            top.add(new InterestCount(getInterest(id), interestLeaderboard.getCount(id)));
+        }
+        return top;
+    }
+
+    /**
+     * Returns up to k existing Interests whose names are spelled like the
+     * given name, for "did you mean" suggestions when a name is misspelled
+     * or a different form of the word (e.g. "Golfing" for "Golf").
+     *
+     * @param interestName the name to look up
+     * @param k            the maximum number of Interests to return
+     * @return an ArrayList of similar Interests, most similar first
+     * @throws IllegalArgumentException when k < 0
+     * @see util.TrigramIndex#findSimilar for how names are compared
+     */
+    public ArrayList<Interest> suggestInterests(String interestName, int k) throws IllegalArgumentException {
+        final double MIN_SIMILARITY = 0.3;
+
+        ArrayList<Interest> suggestions = new ArrayList<>();
+        for (int id : interestNameIndex.findSimilar(interestName, k, MIN_SIMILARITY)) {
+            suggestions.add(getInterest(id));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Returns up to k Interests that Users with the given Interest also tend
+     * to have ("people who like Sailing also like Fishing"), most related
+     * first by lift.
+     *
+     * @param interestName the name of the Interest
+     * @param k            the maximum number of Interests to return
+     * @return an ArrayList of related Interests, empty if the Interest doesn't
+     * exist or shares no Users with another Interest
+     * @throws IllegalArgumentException when k < 0
+     * @see util.CooccurrenceMatrix#getRelated for the ranking
+     */
+    public ArrayList<Interest> relatedInterests(String interestName, int k) throws IllegalArgumentException {
+        if (k < 0) {
+            throw new IllegalArgumentException("RelatedInterests: k cannot be negative");
+        }
+
+        ArrayList<Interest> related = new ArrayList<>();
+        int[] ids = findInterestIds(false, interestName);
+        if (ids.length == 0) {
+            return related;
+        }
+
+        for (int id : interestCooccurrence.getRelated(ids[0], k)) {
+            related.add(getInterest(id));
+        }
+        return related;
+    }
+
+    /**
+     * Finds Users whose sets of Interests are similar to a User's, without
+     * comparing the User to everyone: only Users who share a MinHash LSH
+     * bucket with the User are compared, by their estimated Jaccard
+     * similarity (shared Interests / Interests of either).
+     *
+     * @param user the User to find similar Users for
+     * @param k    the maximum number of Users to return
+     * @return the IDs of up to k similar Users, most similar first, not including user
+     * @throws IllegalArgumentException when k < 0
+     * @see util.MinHashIndex for how candidates are found
+     */
+    public int[] findSimilarUsers(User user, int k) throws IllegalArgumentException {
+        return userSimilarityIndex.findSimilar(user.getId(), k, 0);
+    }
+
+    /**
+     * Returns the lift of two Interests: how many times more often a User has
+     * both than if the Interests were unrelated. Above 1 means related.
+     *
+     * @param interestId1 the ID of the first Interest
+     * @param interestId2 the ID of the second Interest
+     * @return the lift of the two Interests, 0 if either has no Users
+     */
+    public double getInterestLift(int interestId1, int interestId2) {
+        return interestCooccurrence.getLift(interestId1, interestId2);
+    }
+
+    /**
+     * Returns the pointwise mutual information (log2 of lift) of two Interests.
+     *
+     * @param interestId1 the ID of the first Interest
+     * @param interestId2 the ID of the second Interest
+     * @return the PMI of the two Interests, negative infinity if no User has both
+     */
+    public double getInterestPmi(int interestId1, int interestId2) {
+        return interestCooccurrence.getPmi(interestId1, interestId2);
+    }
+
+    /**
+     * Returns the IDs of the Users that have every one of the given Interests.
+     *
+     * @param interestNames the names of the Interests
+     * @return a new bitmap of User IDs, empty if any Interest doesn't exist
+     * or no names are given
+     */
+    public RoaringBitmap usersWithAllInterests(String... interestNames) {
+        int[] ids = findInterestIds(true, interestNames);
+        if (ids == null || ids.length == 0) {
+            return new RoaringBitmap();
+        }
+
+        postingsLock.readLock().lock();
+        try {
+            RoaringBitmap result = new RoaringBitmap(interestPostings.get(ids[0]));
+            for (int i = 1; i < ids.length && !result.isEmpty(); i++) {
+                result = result.and(interestPostings.get(ids[i]));
+            }
+            return result;
+        } finally {
+            postingsLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs of the Users that have at least one of the given Interests.
+     * Interests that don't exist are ignored.
+     *
+     * @param interestNames the names of the Interests
+     * @return a new bitmap of User IDs
+     */
+    public RoaringBitmap usersWithAnyInterest(String... interestNames) {
+        int[] ids = findInterestIds(false, interestNames);
+
+        postingsLock.readLock().lock();
+        try {
+            RoaringBitmap result = new RoaringBitmap();
+            for (int id : ids) {
+                result = result.or(interestPostings.get(id));
+            }
+            return result;
+        } finally {
+            postingsLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes from a set of User IDs the Users that have any of the given Interests,
+     * e.g. excludeInterests(usersWithAllInterests("Golf", "Fishing"), "Politics").
+     * Interests that don't exist are ignored.
+     *
+     * @param userIds       the User IDs to filter, not changed
+     * @param interestNames the names of the Interests to exclude
+     * @return a new bitmap of the remaining User IDs
+     */
+    public RoaringBitmap excludeInterests(RoaringBitmap userIds, String... interestNames) {
+        return userIds.andNot(usersWithAnyInterest(interestNames));
+    }
+
+    /**
+     * Passes the ID of every User with the given Interest, in increasing
+     * order, to action without copying the Interest's bitmap.
+     * The action must not add Users to Interests.
+     *
+     * @param interestId the ID of the Interest
+     * @param action     the action to perform on each User ID
+     */
+    public void forEachUserWithInterest(int interestId, IntConsumer action) {
+        postingsLock.readLock().lock();
+        try {
+            if (interestId >= 0 && interestId < interestPostings.size()) {
+                interestPostings.get(interestId).forEach(action);
+            }
+        } finally {
+            postingsLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of Users that have the Interest with the given ID, in O(1) time.
+     *
+     * @param interestId the ID of the Interest
+     * @return the number of Users with the Interest, 0 if it doesn't exist
+     */
+    public int countUsersWithInterest(int interestId) {
+        return interestLeaderboard.getCount(interestId);
+    }
+
+    /**
+     * Returns the number of Users that have the given Interest.
+     *
+     * @param interestName the name of the Interest
+     * @return the number of Users with the Interest, 0 if it doesn't exist
+     */
+    public int countUsersWithInterest(String interestName) {
+        int[] ids = findInterestIds(false, interestName);
+        if (ids.length == 0) {
+            return 0;
+        }
+
+        postingsLock.readLock().lock();
+        try {
+            return interestPostings.get(ids[0]).getCardinality();
+        } finally {
+            postingsLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the Users that have several of the given Interests, ranked by how
+     * many of them they have (most first, then by User ID). Each Interest's
+     * bitmap is read in place, without copying it: AND queries intersect the
+     * bitmaps, and OR queries count matches in buffers the size of the
+     * matching postings.
+     *
+     * @param interestNames the names of the Interests to search by
+     * @param matchAll      true to require every Interest (AND), false to
+     *                      require at least minMatch of them (OR)
+     * @param minMatch      the minimum number of Interests a User must have
+     *                      when matchAll is false
+     * @param limit         the maximum number of matches to return
+     * @return an ArrayList of at most limit matches, best first; empty if none match
+     * @throws IllegalArgumentException when minMatch < 1 or limit < 0
+     */
+    public ArrayList<InterestMatch> queryInterests(String[] interestNames, boolean matchAll, int minMatch, int limit)
+            throws IllegalArgumentException {
+        if (minMatch < 1) {
+            throw new IllegalArgumentException("QueryInterests: minMatch must be at least 1");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("QueryInterests: limit cannot be negative");
+        }
+
+        int[] ids = findInterestIds(matchAll, interestNames);
+        ArrayList<InterestMatch> matches = new ArrayList<>();
+        if (ids == null || ids.length == 0 || limit == 0) {
+            return matches;
+        }
+
+        int required = matchAll ? ids.length : minMatch;
+        if (ids.length < required) {
+            return matches;
+        }
+
+        postingsLock.readLock().lock();
+        try {
+            if (matchAll) { // intersect chunk by chunk; only the result is allocated
+                RoaringBitmap common = interestPostings.get(ids[0]);
+                for (int i = 1; i < ids.length && !common.isEmpty(); i++) {
+                    common = common.and(interestPostings.get(ids[i]));
+                }
+                int[] userIds = common.toArray();
+                for (int i = 0; i < userIds.length && matches.size() < limit; i++) {
+                    matches.add(new InterestMatch(userIds[i], ids.length));
+                }
+                return matches;
+            }
+
+            // gather every posting and sort them, so each User's IDs are adjacent;
+            // the buffers grow with the number of postings, not the largest User ID
+            int total = 0;
+            for (int id : ids) {
+                total += interestPostings.get(id).getCardinality();
+            }
+            int[] postings = new int[total];
+            int[] numPostings = {0};
+            for (int id : ids) {
+                interestPostings.get(id).forEach(userId -> postings[numPostings[0]++] = userId);
+            }
+            Arrays.sort(postings);
+
+            // count each User's matches, in ID order
+            int[] userIds = new int[total];
+            int[] counts = new int[total];
+            int numUsers = 0;
+            for (int i = 0; i < total; i++) {
+                if (numUsers > 0 && userIds[numUsers - 1] == postings[i]) {
+                    counts[numUsers - 1]++;
+                } else {
+                    userIds[numUsers] = postings[i];
+                    counts[numUsers++] = 1;
+                }
+            }
+
+            // bucket Users by match count; each bucket is in ID order
+            for (int count = ids.length; count >= required && matches.size() < limit; count--) {
+                for (int i = 0; i < numUsers && matches.size() < limit; i++) {
+                    if (counts[i] == count) {
+                        matches.add(new InterestMatch(userIds[i], count));
+                    }
+                }
+            }
+        } finally {
+            postingsLock.readLock().unlock();
+        }
+
+        return matches;
+    }
+
+    /**
+     * Looks up the distinct IDs of the Interests with the given names.
+     *
+     * @param requireAll    whether every name must be an existing Interest
+     * @param interestNames the names of the Interests
+     * @return an array of the existing Interests' IDs in the given order without
+     * duplicates, or null if requireAll is true and some Interest doesn't exist
+     */
+    private int[] findInterestIds(boolean requireAll, String... interestNames) {
+        int[] ids = new int[interestNames.length];
+        int count = 0;
+
+        synchronized (interestHashTable) {
+            for (String interestName : interestNames) {
+                Interest interest = interestHashTable.get(new Interest(interestName.trim(), -1));
+                if (interest == null) {
+                    if (requireAll) {
+                        return null;
+                    }
+                } else if (!containsId(ids, count, interest.getInterestID())) {
+                    ids[count++] = interest.getInterestID();
+                }
+            }
+        }
+
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Determines whether an ID is among the first count entries of an array.
+     *
+     * @param ids   the array of IDs
+     * @param count the number of entries in use
+     * @param id    the ID to look for
+     * @return whether id is in the array
+     */
+    private boolean containsId(int[] ids, int count, int id) {
+        for (int i = 0; i < count; i++) {
+            if (ids[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a User's Interest IDs other than the given one.
+     *
+     * @param user the User
+     * @param id   the Interest ID to leave out
+     * @return a new sorted array of the User's other Interest IDs
+     */
+    private int[] otherInterestIds(User user, int id) {
+        int[] interestIds = user.getInterestIds();
+        int[] others = new int[Math.max(interestIds.length - 1, 0)];
+        int count = 0;
+        for (int interestId : interestIds) {
+            if (interestId != id && count < others.length) {
+                others[count++] = interestId;
+            }
+        }
+        return others;
+    }
 }
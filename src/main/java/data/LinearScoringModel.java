@@ -0,0 +1,167 @@
+package data;
+
+import java.util.Arrays;
+
+/**
+ * LinearScoringModel.java
+ * Scores friend candidates with a weighted sum of their features:
+ * <pre>
+ *   sharedInterestWeight  * shared Interests
+ * + relatedInterestWeight * related Interests
+ * + mutualFriendWeight    * mutual friends
+ * + sameCityWeight        * (1 if same city, else 0)
+ * + degreeWeight          * ln(1 + number of friends)
+ * - distanceWeight        * normalized distance
+ * </pre>
+ * where the normalized distance is 0 at MIN_DISTANCE, 1 at MAX_DISTANCE and
+ * 1.5 for candidates only found by Interest.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * @see data.CandidateBatch for the features
+ * CIS 22C, Course Project
+ */
+public class LinearScoringModel implements ScoringModel {
+    /**
+     * The default weights: shared Interests count the most, then distance.
+     * Mutual friends, related Interests and a shared city add smaller
+     * amounts, and the number of friends is ignored.
+     */
+    public static final LinearScoringModel DEFAULT = new LinearScoringModel(1.0, 0.5, 2.0, 0.5, 0.5, 0.0);
+
+    private final double distanceWeight;
+    private final double mutualFriendWeight;
+    private final double sharedInterestWeight;
+    private final double relatedInterestWeight;
+    private final double sameCityWeight;
+    private final double degreeWeight;
+
+    // Constructors
+
+    /**
+     * Creates a LinearScoringModel with the given weights. A negative weight
+     * makes a feature count against a candidate (e.g. a negative degreeWeight
+     * favors Users with fewer friends).
+     *
+     * @param distanceWeight        the weight subtracted per unit of normalized distance
+     * @param mutualFriendWeight    the weight of each mutual friend
+     * @param sharedInterestWeight  the weight of each shared Interest
+     * @param relatedInterestWeight the weight of each related Interest
+     * @param sameCityWeight        the weight of living in the same city
+     * @param degreeWeight          the weight of ln(1 + number of friends)
+     * @throws IllegalArgumentException if a weight is NaN or infinite
+     */
+    public LinearScoringModel(double distanceWeight, double mutualFriendWeight, double sharedInterestWeight,
+                              double relatedInterestWeight, double sameCityWeight, double degreeWeight)
+            throws IllegalArgumentException {
+        for (double weight : new double[]{distanceWeight, mutualFriendWeight, sharedInterestWeight,
+                relatedInterestWeight, sameCityWeight, degreeWeight}) {
+            if (!Double.isFinite(weight)) {
+                throw new IllegalArgumentException("LinearScoringModel.java: weights must be finite numbers");
+            }
+        }
+
+        this.distanceWeight = distanceWeight;
+        this.mutualFriendWeight = mutualFriendWeight;
+        this.sharedInterestWeight = sharedInterestWeight;
+        this.relatedInterestWeight = relatedInterestWeight;
+        this.sameCityWeight = sameCityWeight;
+        this.degreeWeight = degreeWeight;
+    }
+
+    // Additional Methods
+
+    /**
+     * Scores every candidate in a batch in one pass over its arrays.
+     *
+     * @param candidates the candidates and their features
+     * @param scores     receives the score of candidate i at index i
+     */
+    @Override
+    public void score(CandidateBatch candidates, double[] scores) {
+        final double distanceRange = CandidateBatch.MAX_DISTANCE - CandidateBatch.MIN_DISTANCE;
+
+        int size = candidates.getSize();
+        for (int i = 0; i < size; i++) {
+            double normalizedDistance = (candidates.getDistance(i) - CandidateBatch.MIN_DISTANCE) / distanceRange;
+
+            double score = sharedInterestWeight * candidates.getSharedInterests(i)
+                    + relatedInterestWeight * candidates.getRelatedInterests(i)
+                    + mutualFriendWeight * candidates.getMutualFriends(i)
+                    - distanceWeight * normalizedDistance;
+            if (candidates.isSameCity(i)) {
+                score += sameCityWeight;
+            }
+            if (degreeWeight != 0) {
+                score += degreeWeight * Math.log1p(candidates.getDegree(i));
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Splits the score of one candidate into the weighted value of each feature.
+     *
+     * @param candidates the candidates and their features
+     * @param index      the position of the candidate in the batch
+     * @return a new array of NUM_FEATURES contributions
+     */
+    @Override
+    public double[] explain(CandidateBatch candidates, int index) {
+        final double distanceRange = CandidateBatch.MAX_DISTANCE - CandidateBatch.MIN_DISTANCE;
+
+        double[] contributions = new double[CandidateBatch.NUM_FEATURES];
+        contributions[CandidateBatch.FEATURE_DISTANCE] = 0.0 - distanceWeight // 0.0 - avoids -0.0 at MIN_DISTANCE
+                * ((candidates.getDistance(index) - CandidateBatch.MIN_DISTANCE) / distanceRange);
+        contributions[CandidateBatch.FEATURE_MUTUAL_FRIENDS] =
+                mutualFriendWeight * candidates.getMutualFriends(index);
+        contributions[CandidateBatch.FEATURE_SHARED_INTERESTS] =
+                sharedInterestWeight * candidates.getSharedInterests(index);
+        contributions[CandidateBatch.FEATURE_RELATED_INTERESTS] =
+                relatedInterestWeight * candidates.getRelatedInterests(index);
+        contributions[CandidateBatch.FEATURE_SAME_CITY] = candidates.isSameCity(index) ? sameCityWeight : 0;
+        contributions[CandidateBatch.FEATURE_DEGREE] = degreeWeight * Math.log1p(candidates.getDegree(index));
+        return contributions;
+    }
+
+    /**
+     * Determines whether another model has the same weights.
+     *
+     * @param o the object to compare
+     * @return whether o is a LinearScoringModel with equal weights
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LinearScoringModel)) {
+            return false;
+        }
+        return Arrays.equals(getWeights(), ((LinearScoringModel) o).getWeights());
+    }
+
+    /**
+     * Returns a hash code computed from the weights, the same in every run.
+     *
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(getWeights());
+    }
+
+    /**
+     * Returns the weights in the order the constructor takes them.
+     *
+     * @return a new array of the six weights
+     */
+    private double[] getWeights() {
+        return new double[]{distanceWeight, mutualFriendWeight, sharedInterestWeight, relatedInterestWeight,
+                sameCityWeight, degreeWeight};
+    }
+}
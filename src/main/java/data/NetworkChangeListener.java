@@ -0,0 +1,33 @@
+package data;
+
+/**
+ * NetworkChangeListener.java
+ * Listener notified when the friend network or the Interests of a User
+ * change, e.g. to invalidate cached friend recommendations.
+ * Methods may be called from any thread.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Course Project
+ */
+public interface NetworkChangeListener {
+    /**
+     * Called after two Users become friends.
+     *
+     * @param userId1 the ID of one User
+     * @param userId2 the ID of the other User
+     */
+    void friendshipAdded(int userId1, int userId2);
+
+    /**
+     * Called after a User is added to an Interest.
+     *
+     * @param userId     the ID of the User
+     * @param interestId the ID of the Interest
+     */
+    void interestAdded(int userId, int interestId);
+}
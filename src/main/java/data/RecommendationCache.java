@@ -0,0 +1,346 @@
+package data;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import util.RankedList;
+
+/**
+ * RecommendationCache.java
+ * Caches the best friend recommendations of each User, evicting the least
+ * recently used entry when full and treating entries older than the TTL as
+ * missing. Each entry remembers the Users and Interests it was computed from,
+ * and is invalidated as soon as one of those Users gains a friend or an
+ * Interest, or a User is added to one of those Interests. A ranking
+ * computed while such a change happened is not cached, since it may have
+ * been read before the change but stored after its invalidation.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Course Project
+ */
+public class RecommendationCache implements NetworkChangeListener {
+    /**
+     * Public static class for the cached ranking of one User, best first.
+     */
+    public static class Entry implements RankedList {
+        private final int[] ids;
+        private final double[] scores;
+        private final boolean complete;
+        private final int[] userDependencies;
+        private final int[] interestDependencies;
+        private final long expiresAt;
+
+        /**
+         * Constructor for a cached ranking.
+         *
+         * @param ids                  the IDs of the recommended Users, best first
+         * @param scores               the score of each recommended User
+         * @param complete             whether ids holds every candidate, not just the best
+         * @param userDependencies     the IDs of the Users the ranking was computed from
+         * @param interestDependencies the IDs of the Interests the ranking was computed from
+         * @param expiresAt            the System.nanoTime() after which the entry is stale
+         */
+        public Entry(int[] ids, double[] scores, boolean complete, int[] userDependencies,
+                     int[] interestDependencies, long expiresAt) {
+            this.ids = ids;
+            this.scores = scores;
+            this.complete = complete;
+            this.userDependencies = userDependencies;
+            this.interestDependencies = interestDependencies;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Gets the number of cached recommendations.
+         *
+         * @return the number of recommended Users
+         */
+        @Override
+        public int getSize() {
+            return ids.length;
+        }
+
+        /**
+         * Gets the ID of a recommended User.
+         *
+         * @param index the rank of the User, 0 for the best
+         * @return the ID of the User
+         */
+        @Override
+        public int getId(int index) {
+            return ids[index];
+        }
+
+        /**
+         * Gets the score of a recommended User.
+         *
+         * @param index the rank of the User, 0 for the best
+         * @return the score of the User
+         */
+        @Override
+        public double getScore(int index) {
+            return scores[index];
+        }
+
+        /**
+         * Determines whether the entry holds every candidate.
+         *
+         * @return false if there are more candidates ranked after the last cached one
+         */
+        @Override
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+
+    private final LinkedHashMap<Integer, Entry> entries; // User ID -> Entry, least recently used first
+    private final HashMap<Integer, HashSet<Integer>> userDependents; // User ID -> Users whose entry used it
+    private final HashMap<Integer, HashSet<Integer>> interestDependents; // Interest ID -> Users whose entry used it
+    private final int maxEntries;
+    private final long ttlNanos;
+    private long hits;
+    private long misses;
+    private long invalidations;
+    private long generation; // counts invalidating changes
+
+    // Constructors
+
+    /**
+     * Creates an empty RecommendationCache.
+     *
+     * @param maxEntries the largest number of Users to cache recommendations for
+     * @param ttlMillis  how long an entry stays valid, in milliseconds
+     * @throws IllegalArgumentException when maxEntries < 1 or ttlMillis < 0
+     */
+    public RecommendationCache(int maxEntries, long ttlMillis) throws IllegalArgumentException {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("RecommendationCache.java: maxEntries must be at least 1");
+        }
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("RecommendationCache.java: ttlMillis cannot be negative");
+        }
+
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        entries = new LinkedHashMap<>(16, 0.75f, true); // access order for LRU
+        userDependents = new HashMap<>();
+        interestDependents = new HashMap<>();
+    }
+
+    // Accessors
+
+    /**
+     * Returns the cached ranking of a User, counting a hit or a miss.
+     *
+     * @param userId the ID of the User
+     * @return the cached Entry, or null if there is none or it has expired
+     */
+    public synchronized Entry get(int userId) {
+        Entry entry = entries.get(userId);
+
+        if (entry != null && System.nanoTime() - entry.expiresAt > 0) { // expired
+            remove(userId);
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return entry;
+    }
+
+    /**
+     * Returns the number of invalidating changes so far. Read it before
+     * ranking and pass it to put, so the ranking is only cached if nothing
+     * changed in between.
+     *
+     * @return the current generation
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the number of Users with cached recommendations.
+     *
+     * @return the number of entries
+     */
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of lookups that found a valid entry.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that found no valid entry.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of entries removed because the network changed.
+     *
+     * @return the number of invalidations
+     */
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    // Mutators
+
+    /**
+     * Caches the ranking of a User, evicting the least recently used entry if
+     * the cache is full. The ranking is not cached if the network changed
+     * after generation was read, since its invalidation has already run.
+     *
+     * @param userId               the ID of the User
+     * @param ids                  the IDs of the recommended Users, best first
+     * @param scores               the score of each recommended User
+     * @param complete             whether ids holds every candidate
+     * @param userDependencies     the IDs of the Users the ranking was computed from
+     * @param interestDependencies the IDs of the Interests the ranking was computed from
+     * @param generation           the getGeneration() read before the ranking was computed
+     * @return the new Entry, even if it was not cached
+     */
+    public synchronized Entry put(int userId, int[] ids, double[] scores, boolean complete,
+                                 int[] userDependencies, int[] interestDependencies, long generation) {
+        Entry entry = new Entry(ids, scores, complete, userDependencies, interestDependencies,
+                System.nanoTime() + ttlNanos);
+        if (generation != this.generation) { // possibly stale
+            return entry;
+        }
+
+        remove(userId);
+        entries.put(userId, entry);
+        for (int dependency : userDependencies) {
+            userDependents.computeIfAbsent(dependency, d -> new HashSet<>()).add(userId);
+        }
+        for (int dependency : interestDependencies) {
+            interestDependents.computeIfAbsent(dependency, d -> new HashSet<>()).add(userId);
+        }
+
+        if (entries.size() > maxEntries) {
+            remove(entries.keySet().iterator().next()); // least recently used
+        }
+        return entry;
+    }
+
+    /**
+     * Removes every entry computed from the given User.
+     *
+     * @param userId the ID of the User that changed
+     */
+    public synchronized void invalidateUser(int userId) {
+        generation++;
+        invalidateAll(userDependents.get(userId));
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+        userDependents.clear();
+        interestDependents.clear();
+    }
+
+    // Additional Methods
+
+    /**
+     * Invalidates the entries computed from either new friend, since paths
+     * through the new edge may reach new candidates.
+     *
+     * @param userId1 the ID of one User
+     * @param userId2 the ID of the other User
+     */
+    @Override
+    public synchronized void friendshipAdded(int userId1, int userId2) {
+        invalidateUser(userId1);
+        invalidateUser(userId2);
+    }
+
+    /**
+     * Invalidates the entries computed from the User (whose score changes)
+     * and from the Interest (whose Users gain a new candidate).
+     *
+     * @param userId     the ID of the User
+     * @param interestId the ID of the Interest
+     */
+    @Override
+    public synchronized void interestAdded(int userId, int interestId) {
+        invalidateUser(userId);
+        invalidateAll(interestDependents.get(interestId));
+    }
+
+    /**
+     * Removes the entries of the given Users.
+     *
+     * @param userIds the IDs of the Users, may be null
+     */
+    private void invalidateAll(HashSet<Integer> userIds) {
+        if (userIds == null) {
+            return;
+        }
+        for (int userId : userIds.toArray(new Integer[0])) { // remove() changes the set
+            if (remove(userId)) {
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Removes the entry of a User along with its dependencies.
+     *
+     * @param userId the ID of the User
+     * @return whether there was an entry to remove
+     */
+    private boolean remove(int userId) {
+        Entry entry = entries.remove(userId);
+        if (entry == null) {
+            return false;
+        }
+
+        removeDependent(userDependents, entry.userDependencies, userId);
+        removeDependent(interestDependents, entry.interestDependencies, userId);
+        return true;
+    }
+
+    /**
+     * Removes a User from the dependents of each of the given keys.
+     *
+     * @param dependents   the map of dependents
+     * @param dependencies the keys the User depended on
+     * @param userId       the ID of the User
+     */
+    private void removeDependent(Map<Integer, HashSet<Integer>> dependents, int[] dependencies, int userId) {
+        for (int dependency : dependencies) {
+            HashSet<Integer> users = dependents.get(dependency);
+            if (users != null) {
+                users.remove(userId);
+                if (users.isEmpty()) {
+                    dependents.remove(dependency);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package data;
+
+import java.util.ArrayList;
+
+/**
+ * RecommendationExplanation.java
+ * Explains why a User was recommended as a friend: the features the
+ * ScoringModel scored and, when the model can split its score, how much
+ * each feature added to it.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * @see data.Friend#getFriendRecommendations(User, int, String, boolean)
+ * CIS 22C, Course Project
+ */
+public class RecommendationExplanation {
+    private final User user;
+    private final double score;
+    private final int distance;
+    private final int mutualFriends;
+    private final ArrayList<String> sharedInterests;
+    private final int relatedInterests;
+    private final boolean sameCity;
+    private final int degree;
+    private final double[] contributions; // by CandidateBatch.FEATURE_ index, null if the model can't split scores
+
+    // Constructors
+
+    /**
+     * Creates an explanation of one recommendation.
+     *
+     * @param user             the recommended User
+     * @param score            the User's score
+     * @param distance         the distance from the User recommended to, UNREACHABLE_DISTANCE if only found by Interest
+     * @param mutualFriends    the number of mutual friends
+     * @param sharedInterests  the names of the shared Interests
+     * @param relatedInterests the number of the User's Interests related to (but not shared with) the other's
+     * @param sameCity         whether both Users live in the same city
+     * @param degree           the number of friends of the recommended User
+     * @param contributions    the contribution of each feature to the score, or null
+     */
+    public RecommendationExplanation(User user, double score, int distance, int mutualFriends,
+                                     ArrayList<String> sharedInterests, int relatedInterests, boolean sameCity,
+                                     int degree, double[] contributions) {
+        this.user = user;
+        this.score = score;
+        this.distance = distance;
+        this.mutualFriends = mutualFriends;
+        this.sharedInterests = sharedInterests;
+        this.relatedInterests = relatedInterests;
+        this.sameCity = sameCity;
+        this.degree = degree;
+        this.contributions = contributions;
+    }
+
+    // Accessors
+
+    /**
+     * Gets the recommended User.
+     *
+     * @return the User
+     */
+    public User getUser() {
+        return user;
+    }
+
+    /**
+     * Gets the score the User was ranked by.
+     *
+     * @return the score
+     */
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the distance between the two Users in the friend network.
+     *
+     * @return the number of hops, or CandidateBatch.UNREACHABLE_DISTANCE if the
+     * User was only found by Interest
+     */
+    public int getDistance() {
+        return distance;
+    }
+
+    /**
+     * Gets the number of friends the two Users share.
+     *
+     * @return the number of mutual friends
+     */
+    public int getMutualFriends() {
+        return mutualFriends;
+    }
+
+    /**
+     * Gets the names of the Interests the two Users share.
+     *
+     * @return the shared Interest names
+     */
+    public ArrayList<String> getSharedInterests() {
+        return sharedInterests;
+    }
+
+    /**
+     * Gets the number of the recommended User's Interests related to the other User's.
+     *
+     * @return the number of related Interests
+     */
+    public int getRelatedInterests() {
+        return relatedInterests;
+    }
+
+    /**
+     * Determines whether the two Users live in the same city.
+     *
+     * @return whether the cities match
+     */
+    public boolean isSameCity() {
+        return sameCity;
+    }
+
+    /**
+     * Gets the number of friends of the recommended User.
+     *
+     * @return the User's degree in the friend network
+     */
+    public int getDegree() {
+        return degree;
+    }
+
+    /**
+     * Determines whether the score was split into feature contributions.
+     *
+     * @return false if the ScoringModel can't split its scores
+     */
+    public boolean hasContributions() {
+        return contributions != null;
+    }
+
+    /**
+     * Gets how much one feature added to the score.
+     *
+     * @param feature a CandidateBatch.FEATURE_ index
+     * @return the feature's contribution (negative if it lowered the score),
+     * or NaN if the score wasn't split
+     * @throws IndexOutOfBoundsException if feature is not a feature index
+     */
+    public double getContribution(int feature) throws IndexOutOfBoundsException {
+        if (feature < 0 || feature >= CandidateBatch.NUM_FEATURES) {
+            throw new IndexOutOfBoundsException("RecommendationExplanation.java getContribution(): "
+                    + "invalid feature " + feature);
+        }
+        return contributions == null ? Double.NaN : contributions[feature];
+    }
+
+    // Additional Methods
+
+    /**
+     * Describes the explanation on one line, e.g.
+     * "score 4.50: 2 hops (+0.00), 3 mutual friends (+1.50), shared Golf, Chess (+4.00)".
+     * Features that are zero are left out.
+     *
+     * @return the description
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(String.format("score %.2f: ", score));
+
+        if (distance == CandidateBatch.UNREACHABLE_DISTANCE) {
+            sb.append("not connected");
+        } else {
+            sb.append(distance).append(" hops");
+        }
+        appendContribution(sb, CandidateBatch.FEATURE_DISTANCE);
+
+        if (mutualFriends > 0) {
+            sb.append(", ").append(mutualFriends).append(mutualFriends == 1 ? " mutual friend" : " mutual friends");
+            appendContribution(sb, CandidateBatch.FEATURE_MUTUAL_FRIENDS);
+        }
+        if (!sharedInterests.isEmpty()) {
+            sb.append(", shared ").append(String.join(", ", sharedInterests));
+            appendContribution(sb, CandidateBatch.FEATURE_SHARED_INTERESTS);
+        }
+        if (relatedInterests > 0) {
+            sb.append(", ").append(relatedInterests)
+                    .append(relatedInterests == 1 ? " related interest" : " related interests");
+            appendContribution(sb, CandidateBatch.FEATURE_RELATED_INTERESTS);
+        }
+        if (sameCity) {
+            sb.append(", same city");
+            appendContribution(sb, CandidateBatch.FEATURE_SAME_CITY);
+        }
+        if (contributions != null && contributions[CandidateBatch.FEATURE_DEGREE] != 0) {
+            sb.append(", ").append(degree).append(" friends");
+            appendContribution(sb, CandidateBatch.FEATURE_DEGREE);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Appends the contribution of a feature in parentheses, if the score was split.
+     *
+     * @param sb      the StringBuilder to append to
+     * @param feature a CandidateBatch.FEATURE_ index
+     */
+    private void appendContribution(StringBuilder sb, int feature) {
+        if (contributions != null) {
+            sb.append(String.format(" (%+.2f)", contributions[feature]));
+        }
+    }
+}
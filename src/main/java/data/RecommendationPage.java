@@ -0,0 +1,88 @@
+package data;
+
+import java.util.ArrayList;
+
+/**
+ * RecommendationPage.java
+ * One page of friend recommendations, best first, along with the
+ * continuation token to pass back to Friend#getFriendRecommendations to get
+ * the next page and, if requested, why each User was recommended.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Course Project
+ */
+public class RecommendationPage {
+    private final ArrayList<User> users;
+    private final String nextToken;
+    private final ArrayList<RecommendationExplanation> explanations; // null if not explained
+
+    // Constructors
+
+    /**
+     * Creates a page of recommended Users.
+     *
+     * @param users     the recommended Users on this page, best first
+     * @param nextToken the token for the next page, or null if this is the last page
+     */
+    public RecommendationPage(ArrayList<User> users, String nextToken) {
+        this(users, nextToken, null);
+    }
+
+    /**
+     * Creates a page of recommended Users with their explanations.
+     *
+     * @param users        the recommended Users on this page, best first
+     * @param nextToken    the token for the next page, or null if this is the last page
+     * @param explanations the explanation of each User, in the same order, or null
+     */
+    public RecommendationPage(ArrayList<User> users, String nextToken,
+                              ArrayList<RecommendationExplanation> explanations) {
+        this.users = users;
+        this.nextToken = nextToken;
+        this.explanations = explanations;
+    }
+
+    // Accessors
+
+    /**
+     * Gets the recommended Users on this page, best first.
+     *
+     * @return the ArrayList of recommended Users
+     */
+    public ArrayList<User> getUsers() {
+        return users;
+    }
+
+    /**
+     * Gets the token to request the page after this one.
+     *
+     * @return the continuation token, or null if there are no more pages
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * Gets why each User on this page was recommended.
+     *
+     * @return the explanations in the same order as getUsers(), or null if
+     * the page was requested without explanations
+     */
+    public ArrayList<RecommendationExplanation> getExplanations() {
+        return explanations;
+    }
+
+    /**
+     * Determines whether there is a page after this one.
+     *
+     * @return whether more recommendations are available
+     */
+    public boolean hasNextPage() {
+        return nextToken != null;
+    }
+}
@@ -0,0 +1,195 @@
+package data;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RecommendationService.java
+ * Asynchronous front end to Friend for many concurrent sessions. Each
+ * request runs on its own virtual thread and is answered through a
+ * CompletableFuture. Identical requests (same User, page size, token and
+ * explain flag) arriving while one is still running share its result
+ * instead of ranking again. At most maxPendingRequests distinct requests
+ * are queued or running at once; further requests fail right away with a
+ * RejectedExecutionException, so callers can back off instead of piling up
+ * work.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * @see data.Friend#getFriendRecommendations(User, int, String, boolean) for how requests are answered
+ * CIS 22C, Course Project
+ */
+public class RecommendationService implements AutoCloseable {
+    public static final int DEFAULT_MAX_PENDING_REQUESTS = 256;
+
+    private final Friend friend;
+    private final ExecutorService executor;
+    private final Semaphore pendingPermits; // one per request queued or running
+    private final ConcurrentHashMap<String, CompletableFuture<RecommendationPage>> inFlight; // by request key
+    private final AtomicLong coalescedRequests;
+    private final AtomicLong rejectedRequests;
+
+    // Constructors
+
+    /**
+     * Creates a RecommendationService allowing DEFAULT_MAX_PENDING_REQUESTS.
+     *
+     * @param friend the Friend answering requests
+     * @see #RecommendationService(Friend, int)
+     */
+    public RecommendationService(Friend friend) {
+        this(friend, DEFAULT_MAX_PENDING_REQUESTS);
+    }
+
+    /**
+     * Creates a RecommendationService running each request on a new virtual thread.
+     *
+     * @param friend             the Friend answering requests
+     * @param maxPendingRequests the most distinct requests queued or running at once
+     * @throws NullPointerException     if friend is null
+     * @throws IllegalArgumentException if maxPendingRequests < 1
+     */
+    public RecommendationService(Friend friend, int maxPendingRequests)
+            throws NullPointerException, IllegalArgumentException {
+        if (friend == null) {
+            throw new NullPointerException("RecommendationService.java: friend cannot be null");
+        }
+        if (maxPendingRequests < 1) {
+            throw new IllegalArgumentException("RecommendationService.java: maxPendingRequests must be at least 1");
+        }
+
+        this.friend = friend;
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        pendingPermits = new Semaphore(maxPendingRequests);
+        inFlight = new ConcurrentHashMap<>();
+        coalescedRequests = new AtomicLong();
+        rejectedRequests = new AtomicLong();
+    }
+
+    // Accessors
+
+    /**
+     * Gets the number of distinct requests queued or running.
+     *
+     * @return the number of pending requests
+     */
+    public int getPendingRequests() {
+        return inFlight.size();
+    }
+
+    /**
+     * Gets the number of requests answered by sharing an identical in-flight request.
+     *
+     * @return the number of coalesced requests
+     */
+    public long getCoalescedRequests() {
+        return coalescedRequests.get();
+    }
+
+    /**
+     * Gets the number of requests refused because too many were pending.
+     *
+     * @return the number of rejected requests
+     */
+    public long getRejectedRequests() {
+        return rejectedRequests.get();
+    }
+
+    // Additional Methods
+
+    /**
+     * Requests a page of friend recommendations without explanations.
+     *
+     * @param user              the User to find recommended friends for
+     * @param k                 the maximum number of recommendations on the page
+     * @param continuationToken the token from the previous page, or null for the first page
+     * @return a future completed with the page
+     * @see #getFriendRecommendations(User, int, String, boolean)
+     */
+    public CompletableFuture<RecommendationPage> getFriendRecommendations(User user, int k,
+                                                                          String continuationToken) {
+        return getFriendRecommendations(user, k, continuationToken, false);
+    }
+
+    /**
+     * Requests a page of friend recommendations, to be ranked on a virtual
+     * thread. If the same request is already pending, its result is shared;
+     * the page is then the same object for every caller, so callers must not
+     * modify it.
+     *
+     * @param user              the User to find recommended friends for
+     * @param k                 the maximum number of recommendations on the page
+     * @param continuationToken the token from the previous page, or null for the first page
+     * @param explain           whether to explain the recommendations on the page
+     * @return a future completed with the page, or completed exceptionally with
+     * an IllegalArgumentException when k < 1 or the token is invalid, or a
+     * RejectedExecutionException when too many requests are pending or the
+     * service is closed
+     */
+    public CompletableFuture<RecommendationPage> getFriendRecommendations(User user, int k,
+                                                                          String continuationToken,
+                                                                          boolean explain) {
+        // the token goes last: it may contain any character
+        String key = user.getId() + "/" + k + "/" + explain + "/" + continuationToken;
+
+        CompletableFuture<RecommendationPage> request = new CompletableFuture<>();
+        CompletableFuture<RecommendationPage> pending = inFlight.putIfAbsent(key, request);
+        if (pending != null) {
+            coalescedRequests.incrementAndGet();
+            return pending.copy(); // a copy, so one caller cancelling doesn't affect the others
+        }
+
+        // backpressure: refuse rather than queue without bound
+        if (!pendingPermits.tryAcquire()) {
+            rejectedRequests.incrementAndGet();
+            inFlight.remove(key, request);
+            request.completeExceptionally(new RejectedExecutionException("RecommendationService.java: "
+                    + "too many pending requests"));
+            return request;
+        }
+
+        try {
+            executor.execute(() -> {
+                RecommendationPage page = null;
+                Throwable failure = null;
+                try {
+                    page = friend.getFriendRecommendations(user, k, continuationToken, explain);
+                } catch (Throwable e) { // Errors too, so the request never stays pending
+                    failure = e;
+                }
+
+                // free the request's place before completing it, so a caller
+                // reacting to the result can ask again right away
+                inFlight.remove(key, request); // later requests rank again, seeing any changes since
+                pendingPermits.release();
+                if (failure == null) {
+                    request.complete(page);
+                } else {
+                    request.completeExceptionally(failure);
+                }
+            });
+        } catch (RejectedExecutionException e) { // closed
+            pendingPermits.release();
+            inFlight.remove(key, request);
+            request.completeExceptionally(e);
+        }
+        return request.copy();
+    }
+
+    /**
+     * Stops accepting requests and waits for the pending ones to finish.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
@@ -0,0 +1,43 @@
+package data;
+
+/**
+ * ScoringModel.java
+ * Scores friend candidates from their features; a higher score ranks a
+ * candidate higher. Implementations must be deterministic (the same features
+ * always give the same score) and may be called from several threads at
+ * once with different batches. Precomputed recommendations are only served
+ * by a Friend whose model has the same hashCode as the one that computed
+ * them, so models that score alike should have equal hash codes.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * @see data.LinearScoringModel for the default model
+ * CIS 22C, Course Project
+ */
+public interface ScoringModel {
+    /**
+     * Scores every candidate in a batch.
+     *
+     * @param candidates the candidates and their features
+     * @param scores     receives the score of candidate i at index i, at least candidates.getSize() long
+     */
+    void score(CandidateBatch candidates, double[] scores);
+
+    /**
+     * Splits the score of one candidate into the contribution of each
+     * feature, indexed by the CandidateBatch.FEATURE_ constants, which add
+     * up to the score (up to rounding). Models whose scores can't be split
+     * return null.
+     *
+     * @param candidates the candidates and their features
+     * @param index      the position of the candidate in the batch
+     * @return a new array of NUM_FEATURES contributions, or null
+     */
+    default double[] explain(CandidateBatch candidates, int index) {
+        return null;
+    }
+}
@@ -1,11 +1,11 @@
 package data;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 
 import util.BST;
-import util.LinkedList;
 
 /**
  * User.java
@@ -28,7 +28,7 @@ public class User implements Comparable<User> {
     private String username;
     private String password;
     private String city;
-    private final LinkedList<String> interests;
+    private int[] interestIds; // sorted IDs of the User's Interests
     private BST<User> friends;
     private List<Integer> friendIds;
 
@@ -37,12 +37,11 @@ public class User implements Comparable<User> {
     /**
      * Creates a new User with empty friends and interests lists.
      *
-     * @see util.BST#BST() for friends list implementation
-     * @see util.LinkedList#LinkedList() for interests list implementation
+     * @see util.BST#BST(boolean) for friends list implementation
      */
     public User() {
-        friends = new BST<>();
-        interests = new LinkedList<>();
+        friends = new BST<>(true);
+        interestIds = new int[0];
         friendIds = new ArrayList<>();
     }
 
@@ -142,13 +141,25 @@ public class User implements Comparable<User> {
     }
 
     /**
-     * Get the LinkedList containing the User's Interests.
+     * Get the IDs of the User's Interests in increasing order. The User only
+     * keeps the IDs; their names are looked up in the InterestManager.
      *
-     * @return the LinkedList containing all Interests of the User
-     * @see util.LinkedList for the list implementation
+     * @return a copy of the sorted array of Interest IDs
+     * @see InterestManager#internInterest for how IDs are assigned
+     * @see InterestManager#getInterestNames(User) for the names
      */
-    public LinkedList<String> getInterests() {
-        return interests;
+    public int[] getInterestIds() {
+        return Arrays.copyOf(interestIds, interestIds.length);
+    }
+
+    /**
+     * Determine whether the User has the Interest with the given ID.
+     *
+     * @param interestId the ID of the Interest
+     * @return whether the User has the Interest
+     */
+    public boolean hasInterest(int interestId) {
+        return Arrays.binarySearch(interestIds, interestId) >= 0;
     }
 
     /**
@@ -254,15 +265,30 @@ public class User implements Comparable<User> {
     }
 
     /**
-     * Adds a new interest to the user's list of interests.
+     * Adds an interned Interest to the user's interests by its ID.
      *
-     * @param interest the interest to add
-     * @see util.LinkedList#addLast(Object) for interest storage
+     * @param interest the Interest to add, from InterestManager#internInterest
+     * @return true if the Interest was added, false if the User already has it
+     * @throws NullPointerException if interest is null
      */
-    public void addInterest(String interest) {
-        if (interest != null && !interest.trim().isEmpty()) {
-            interests.addLast(interest.trim());
+    public boolean addInterest(Interest interest) throws NullPointerException {
+        if (interest == null) {
+            throw new NullPointerException("User.java addInterest(): interest cannot be null");
         }
+
+        int index = Arrays.binarySearch(interestIds, interest.getInterestID());
+        if (index >= 0) {
+            return false;
+        }
+
+        // insert the ID in sorted order
+        index = -index - 1;
+        int[] newIds = new int[interestIds.length + 1];
+        System.arraycopy(interestIds, 0, newIds, 0, index);
+        newIds[index] = interest.getInterestID();
+        System.arraycopy(interestIds, index, newIds, index + 1, interestIds.length - index);
+        interestIds = newIds;
+        return true;
     }
 
     /**
@@ -309,6 +335,61 @@ public class User implements Comparable<User> {
 
     // Additional Methods
 
+    /**
+     * Counts the Interests this User shares with another User by merging
+     * their sorted Interest ID arrays, in time linear in their sizes.
+     *
+     * @param other the other User
+     * @return the number of shared Interests
+     */
+    public int countSharedInterests(User other) {
+        int[] a = interestIds;
+        int[] b = other.interestIds;
+        int count = 0;
+
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the IDs of the Interests this User shares with another User,
+     * merging their sorted Interest ID arrays like countSharedInterests.
+     *
+     * @param other the other User
+     * @return a new sorted array of the shared Interest IDs
+     */
+    public int[] getSharedInterestIds(User other) {
+        int[] a = interestIds;
+        int[] b = other.interestIds;
+        int[] shared = new int[Math.min(a.length, b.length)];
+        int count = 0;
+
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                shared[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+
+        return Arrays.copyOf(shared, count);
+    }
+
     /**
      * Compare users by their unique IDs.
      *
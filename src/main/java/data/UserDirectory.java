@@ -2,11 +2,16 @@ package data;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import util.BST;
 import util.Graph;
-import util.HashTable;
 import util.LinkedList;
+import util.PersistentBST;
+import util.PrefixIndex;
 
 /**
  * UserDirectory.java
@@ -23,10 +28,13 @@ import util.LinkedList;
  */
 public class UserDirectory {
     private final ArrayList<User> usersAL;
-    private final BST<User> usersBST;
+    private final AtomicReference<PersistentBST<User>> usersBST; // latest snapshot of all Users by name
     private final Graph friendNetwork;
-    private final HashTable<String> loginTable;
+    private final ReentrantReadWriteLock networkLock; // guards friendNetwork, usersAL and the Users' friend lists
+    private final CredentialStore credentialStore;
+    private final PrefixIndex<User> namePrefixIndex; // Users by "first last" and "last first"
     private final InterestManager interestManager;
+    private final CopyOnWriteArrayList<NetworkChangeListener> changeListeners;
     int numUsers;
 
     // Comparators
@@ -68,7 +76,10 @@ public class UserDirectory {
     /**
      * Initializes UserDirectory with given ArrayList of users, BinarySearchTree
      * of users, and Graph of the friend connections.
-     * Authenticates all user credentials by adding them to loginTable.
+     * The BinarySearchTree is copied into an immutable snapshot that is
+     * replaced (never changed) when users are added.
+     * Registers all user credentials in credentialStore, which hashes the
+     * passwords in the background.
      *
      * @param usersAL         an ArrayLIst of users
      * @param usersBST        a BinarySearchTree of users
@@ -78,17 +89,31 @@ public class UserDirectory {
     public UserDirectory(ArrayList<User> usersAL, BST<User> usersBST, Graph friendNetwork,
                          InterestManager interestManager) {
         this.usersAL = usersAL;
-        this.usersBST = usersBST;
+        this.usersBST = new AtomicReference<>(new PersistentBST<>(usersBST));
         this.friendNetwork = friendNetwork;
+        this.networkLock = new ReentrantReadWriteLock();
         this.interestManager = interestManager;
+        this.changeListeners = new CopyOnWriteArrayList<>();
 
-        // authenticate all user credentials into the loginTable
+        // authenticate all user credentials into the credentialStore
         final int NUM_USERS_OFFSET = 10;
         this.numUsers = usersAL.size();
-        this.loginTable = new HashTable<>(numUsers + NUM_USERS_OFFSET);
+        this.credentialStore = new CredentialStore(numUsers + NUM_USERS_OFFSET);
         for (User user : usersAL) {
-            loginTable.add(getLoginKey(user.getUsername(), user.getPassword()));
+            credentialStore.register(user.getUsername(), user.getPassword());
         }
+
+        // index all user names for prefix search
+        this.namePrefixIndex = new PrefixIndex<>(2 * (numUsers + NUM_USERS_OFFSET));
+        ArrayList<String> names = new ArrayList<>(2 * numUsers);
+        ArrayList<User> namedUsers = new ArrayList<>(2 * numUsers);
+        for (User user : usersAL) {
+            for (String name : indexedNames(user)) {
+                names.add(name);
+                namedUsers.add(user);
+            }
+        }
+        namePrefixIndex.addAll(names, namedUsers); // sorts once instead of per user
     }
 
     // Accessors
@@ -111,6 +136,27 @@ public class UserDirectory {
         return usersAL.size();
     }
 
+    /**
+     * Get the height of the BST ordering all Users by name. Used to confirm
+     * that the directory stays balanced (O(log n) height) after bulk imports.
+     *
+     * @return the height of usersBST, or -1 if it is empty
+     */
+    public int getUsersBSTHeight() {
+        return usersBST.get().getHeight();
+    }
+
+    /**
+     * Get the current snapshot of all Users ordered by name. The snapshot
+     * never changes, so it can be read (searched or iterated) without locking
+     * while other threads register new Users.
+     *
+     * @return the latest PersistentBST of all Users
+     */
+    public PersistentBST<User> getUsersSnapshot() {
+        return usersBST.get();
+    }
+
     /**
      * Get the ArrayList of all Users in UserDirectory.
      *
@@ -129,6 +175,18 @@ public class UserDirectory {
         return friendNetwork;
     }
 
+    /**
+     * Get the lock guarding the friend network, the list of Users and the
+     * Users' friend lists. Code reading them on another thread than the one
+     * changing them (e.g. ranking recommendations in the background) holds
+     * its read lock; changes through this UserDirectory hold its write lock.
+     *
+     * @return the ReentrantReadWriteLock of the network
+     */
+    ReentrantReadWriteLock getNetworkLock() {
+        return networkLock;
+    }
+
     /**
      * Get the InterestManager managing the interests of the Users
      * in the UserDirectory.
@@ -146,8 +204,7 @@ public class UserDirectory {
      * @param lastName  last name to search for
      * @return list of users with exactly matching names
      * @throws NullPointerException if firstName or lastName is null
-     * @see data.User#getFirstName
-     * @see data.User#getLastName
+     * @see util.PersistentBST#searchAll for the equal-range lookup
      */
     public ArrayList<User> findUsersByName(String firstName, String lastName) throws NullPointerException {
         // precondition
@@ -159,7 +216,40 @@ public class UserDirectory {
         User userToFind = new User();
         userToFind.setFirstName(firstName);
         userToFind.setLastName(lastName);
-        return usersBST.findUsersByName(firstName, lastName, userToFind, this.getNameComparator());
+        return usersBST.get().searchAll(userToFind, nameComparator);
+    }
+
+    /**
+     * Returns up to limit users whose first or last name starts with the given
+     * text (case-insensitive). The text may also continue into the other name,
+     * e.g. "joe b" or "biden j".
+     *
+     * @param prefix the partial name to search for
+     * @param limit  the maximum number of users to return
+     * @return list of matching users in order by the matched name
+     * @throws NullPointerException if prefix is null
+     * @see util.PrefixIndex#findByPrefix for the prefix lookup
+     */
+    public ArrayList<User> findUsersByPrefix(String prefix, int limit) throws NullPointerException {
+        // precondition
+        if (prefix == null) {
+            throw new NullPointerException("UserDirectory.java findUsersByPrefix(): Prefix cannot be null");
+        }
+
+        return namePrefixIndex.findByPrefix(prefix, limit);
+    }
+
+    /**
+     * Finds a user by their unique ID.
+     *
+     * @param id the ID of the user
+     * @return the user with the given ID, or null if no user has it
+     */
+    public User findUserById(int id) {
+        if (id < 1 || id > usersAL.size()) {
+            return null;
+        }
+        return usersAL.get(id - 1);
     }
 
     /**
@@ -189,6 +279,8 @@ public class UserDirectory {
     /**
      * Add a new User into the UserDirectory with their given
      * username, password, firstName, lastName, and city.
+     * The User's name must be set before calling, as it is used to
+     * order and index the User.
      *
      * @param user the User to add
      * @return the new User added to the UserDirectory, or null if username and/or credentials already exist
@@ -200,73 +292,89 @@ public class UserDirectory {
             return false;
         }
 
-        // authenticate credentials
-        boolean foundCreds = getCredAuthStatus(user.getUsername(), user.getPassword());
-
-        if (!foundCreds) { // if credentials are not already found in UserDirectory
-            // add User to UserDirectory
+        // add User to UserDirectory
+        networkLock.writeLock().lock();
+        try {
             numUsers++;
             user.setId(numUsers);
             usersAL.add(user);
-            usersBST.insert(user, nameComparator);
-            addAuthNewUser(user);
-            return true;
+        } finally {
+            networkLock.writeLock().unlock();
         }
-
-        System.out.println("Username and/or Password already used.");
-        return false; // if given username and password already exist
+        usersBST.updateAndGet(snapshot -> snapshot.insert(user, nameComparator)); // publish new snapshot
+        addToNameIndex(user);
+        addAuthNewUser(user);
+        return true;
     }
 
-    // Additional methods for loginTable (HashTable) and authentication
-
     /**
-     * Return a login key created by combining a User's username and password.
+     * Adds a User to namePrefixIndex under both "first last" and "last first".
      *
-     * @param username the username to combine
-     * @param password the password to combine
-     * @return the combined login key
-     * @throws IllegalArgumentException if either parameter is null
-     * @see #addAuthNewUser for key usage in registration
+     * @param user the User to index (names may be null)
      */
-    private String getLoginKey(String username, String password) {
-        // precondition
-        if (username == null || password == null) {
-            throw new IllegalArgumentException("Auth.java getLoginKey(): Username and/or Password cannot be null");
+    private void addToNameIndex(User user) {
+        for (String name : indexedNames(user)) {
+            namePrefixIndex.add(name, user);
         }
+    }
 
-        // format: "username:password"
-        return username + ":" + password;
+    /**
+     * Returns the names a User is indexed under in namePrefixIndex.
+     *
+     * @param user the User (names may be null)
+     * @return "first last" and "last first"
+     */
+    private static String[] indexedNames(User user) {
+        String firstName = user.getFirstName() != null ? user.getFirstName() : "";
+        String lastName = user.getLastName() != null ? user.getLastName() : "";
+
+        return new String[]{firstName + " " + lastName, lastName + " " + firstName};
     }
 
+    // Additional methods for credentialStore and authentication
+
     /**
-     * Authenticate a given pair of username and password by checking if the login key
-     * already exists in loginTable.
+     * Authenticate a given pair of username and password against the
+     * hashed credentials in credentialStore, on its worker pool.
      *
      * @param username the username to verify
      * @param password the password to verify
-     * @return true if the given username and password already exist (as a
-     * login key) in loginTable, false otherwise
+     * @return a future completed with the new session ID if the given username
+     * exists and the password matches its stored hash, or null otherwise
+     * @throws IllegalArgumentException if username or password is null
+     * @see CredentialStore#loginAsync for how credentials are checked
      */
-    public boolean getCredAuthStatus(String username, String password) {
+    public CompletableFuture<String> authenticateAsync(String username, String password)
+            throws IllegalArgumentException {
         // precondition
         if (username == null || password == null) {
-            throw new IllegalArgumentException("Auth.java getCredAuthStatus(): " +
+            throw new IllegalArgumentException("Auth.java authenticateAsync(): " +
                     "Username and password cannot be null");
         }
 
-        String loginKey = getLoginKey(username, password);
-        return loginTable.contains(loginKey);
+        return credentialStore.loginAsync(username, password);
     }
 
     /**
-     * Authenticate a new user by adding their login key to the loginTable if
-     * their login key does not already exist.
+     * Determines whether a session ID from authenticateAsync is still valid.
+     *
+     * @param username  the username of the User
+     * @param sessionId the session ID
+     * @return whether the User is still logged in with sessionId
+     * @see CredentialStore#hasSession
+     */
+    public boolean hasSession(String username, String sessionId) {
+        return credentialStore.hasSession(username, sessionId);
+    }
+
+    /**
+     * Authenticate a new user by storing a salted hash of their password in
+     * credentialStore if their username is not already registered.
      *
      * @param user the new user to authenticate (must have username and password set)
-     * @return true if User's login key has been added to loginTable, false otherwise
+     * @return true if User's credentials have been added to credentialStore, false otherwise
      * @throws IllegalArgumentException if user, username, or password is null
-     * @see #getLoginKey for credential format
-     * @see util.HashTable#contains for credential verification
+     * @see CredentialStore#register for credential storage
      */
     public boolean addAuthNewUser(User user) {
         // precondition for user object
@@ -284,34 +392,77 @@ public class UserDirectory {
             throw new IllegalArgumentException("Auth.java addAuthNewUser(): Password cannot be null");
         }
 
-        // check for login key in loginTable
-        String loginKey = getLoginKey(username, password);
-        if (loginTable.contains(loginKey)) {
-            System.out.println("Error: could not register user as the given username and password have already " +
+        // authenticate new user
+        if (!credentialStore.register(username, password)) {
+            System.out.println("Error: could not register user as the given username has already " +
                     "been registered.\n");
             return false;
         }
-
-        // authenticate new user
-        loginTable.add(loginKey);
         return true;
     }
 
     // Additional Methods for friendNetwork (Graph)
 
     /**
-     * Updates the friendNetwork by adding a friend to the connected edges
-     * of currUser.
+     * Makes two Users friends: adds each to the other's friend list and
+     * connects them in the friendNetwork, notifying the listeners if they
+     * weren't connected yet. Holds the write lock of networkLock throughout,
+     * so rankings running on other threads never see a half-added friend.
      *
      * @param currUser the current user
      * @param friend   the friend to add to currUser's connections
+     * @see #getNetworkLock() for the lock rankings hold
      */
     public void addFriendConnection(User currUser, User friend) {
-        if (friendNetwork.getAdjacencyList(currUser.getId()).findIndex(friend.getId()) == -1) { // (-1 for not found)
-            friendNetwork.addUndirectedEdge(currUser.getId(), friend.getId());
+        networkLock.writeLock().lock();
+        try {
+            currUser.addFriend(friend);
+
+            if (friendNetwork.getAdjacencyList(currUser.getId()).findIndex(friend.getId()) == -1) { // (-1 for not found)
+                friendNetwork.addUndirectedEdge(currUser.getId(), friend.getId());
+
+                for (NetworkChangeListener listener : changeListeners) {
+                    listener.friendshipAdded(currUser.getId(), friend.getId());
+                }
+            }
+        } finally {
+            networkLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a friend from a User's friend list, holding the write lock of
+     * networkLock.
+     *
+     * @param currUser the current user
+     * @param friend   the friend to remove from currUser's friend list
+     * @see User#removeFriend(User) for what is removed
+     */
+    public void removeFriend(User currUser, User friend) {
+        networkLock.writeLock().lock();
+        try {
+            currUser.removeFriend(friend);
+        } finally {
+            networkLock.writeLock().unlock();
         }
     }
 
+    /**
+     * Registers a listener to be notified when Users become friends or are
+     * added to Interests (through this UserDirectory's InterestManager).
+     *
+     * @param listener the listener to add
+     * @throws NullPointerException if listener is null
+     */
+    public void addChangeListener(NetworkChangeListener listener) throws NullPointerException {
+        if (listener == null) {
+            throw new NullPointerException("UserDirectory.java addChangeListener(): listener cannot be null");
+        }
+
+        changeListeners.add(listener);
+        interestManager.addChangeListener(listener);
+    }
+
     // Additional Methods
 
     /**
@@ -327,7 +478,8 @@ public class UserDirectory {
         sb.append("\n===========================\n");// lol
         sb.append("  User Directory Contents\n");
         sb.append("===========================\n\n");
-        sb.append(String.format("Total Users: %d\n\n", getNumUsers()));
+        sb.append(String.format("Total Users: %d\n", getNumUsers()));
+        sb.append(String.format("Directory BST Height: %d\n\n", getUsersBSTHeight()));
 
         if (getNumUsers() == 0) {
             sb.append("No users in directory.");
@@ -345,18 +497,11 @@ public class UserDirectory {
                     user.getCity() != null ? user.getCity() : "(no city)"));
 
             sb.append("Interests: ");
-            LinkedList<String> interests = user.getInterests();
+            LinkedList<String> interests = interestManager.getInterestNames(user);
             if (interests.getLength() == 0) {
                 sb.append("(none)");
             } else {
-                interests.positionIterator();
-                while (!interests.offEnd()) {
-                    sb.append(interests.getIterator());
-                    interests.advanceIterator();
-                    if (!interests.offEnd()) {
-                        sb.append(", ");
-                    }
-                }
+                sb.append(String.join(", ", interests));
             }
 
             sb.append(String.format("\nFriend Count: %d\n", user.getFriendCount()));
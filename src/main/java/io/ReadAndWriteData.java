@@ -43,7 +43,6 @@ public class ReadAndWriteData {
      */
     public static UserDirectory readData() {
         ArrayList<User> usersAL = new ArrayList<>();
-        BST<User> allUsersBST = new BST<>();
         InterestManager interestManager = new InterestManager();
 
         int userID, numFriends, friendID, numInterests;
@@ -98,21 +97,26 @@ public class ReadAndWriteData {
             numInterests = Integer.parseInt((fileInput.nextLine()));
             for (int i = 0; i < numInterests; i++) {
                 interest = fileInput.nextLine(); // read one interest
-                currUser.addInterest(interest); // add to current user
-                interestManager.addUserToInterest(interest, currUser); // add to interest manager
+                if (!interest.isBlank()) { // blank lines have no name to intern
+                    currUser.addInterest(interestManager.internInterest(interest)); // add shared Interest to current user
+                }
             }
 
             usersAL.add(currUser);
-            allUsersBST.insert(currUser, UserDirectory.nameComparator);
         }
 
+        // bulk load the BSTs once all users are read (sorts, then builds in linear time)
+        BST<User> allUsersBST = BST.bulkLoad(usersAL.toArray(new User[0]), UserDirectory.nameComparator, true);
+        interestManager.addUsersToInterests(usersAL); // add all users to interest manager
+
         // all friends to users
         for (User user : usersAL) { // for each user
-            BST<User> currFriends = new BST<>();
-            for (int currFriendID : user.getFriendIds()) { // for each friendID
-                currFriends.insert(usersAL.get(currFriendID - 1), UserDirectory.nameComparator);
+            ArrayList<Integer> friendIdsAL = user.getFriendIds();
+            User[] currFriends = new User[friendIdsAL.size()];
+            for (int i = 0; i < currFriends.length; i++) { // for each friendID
+                currFriends[i] = usersAL.get(friendIdsAL.get(i) - 1);
             }
-            user.setFriends(currFriends);
+            user.setFriends(BST.bulkLoad(currFriends, UserDirectory.nameComparator, true));
         }
 
         fileInput.close();
@@ -166,14 +170,12 @@ public class ReadAndWriteData {
                 writer.newLine();
 
                 // Write interests
-                LinkedList<String> interests = user.getInterests();
+                LinkedList<String> interests = ud.getInterestManager().getInterestNames(user);
                 writer.write(String.valueOf(interests.getLength()));
                 writer.newLine();
-                interests.positionIterator();
-                while (!interests.offEnd()) {
-                    writer.write(interests.getIterator());
+                for (String interest : interests) {
+                    writer.write(interest);
                     writer.newLine();
-                    interests.advanceIterator();
                 }
             }
         } catch (IOException e) {
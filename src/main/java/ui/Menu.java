@@ -1,16 +1,26 @@
 package ui;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Scanner;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import data.BatchRecommender;
+import data.Interest;
+import data.InterestManager.InterestCount;
+import data.InterestManager.InterestMatch;
+import data.RecommendationExplanation;
+import data.RecommendationPage;
+import data.RecommendationService;
 import data.User;
 import data.UserDirectory;
 
 import data.Friend;
 
-import util.BST;
 import util.LinkedList;
+import util.ReadOnlyView;
 
 /**
  * Menu.java
@@ -26,23 +36,33 @@ import util.LinkedList;
  * @author Yukai Qiu
  * CIS 22C, Course Project
  */
-public class Menu {
+public class Menu implements AutoCloseable {
     private final Scanner scanner = new Scanner(System.in); // Scanner for user input
     private final UserDirectory ud;
     private final Friend friend;
+    private final RecommendationService recommendationService; // ranks the next page in the background
+    private String sessionId; // from the last login, checked before each main menu choice
     public User user;
 
     // Constructors
 
     /**
-     * Creates a new Menu with the data from the given UserDirectory
+     * Creates a new Menu with the data from the given UserDirectory, serving
+     * friend recommendations precomputed by BatchRecommender when they are
+     * still current.
      *
      * @param userDirectory the UserDirectory storing the data of existing users
      */
     public Menu(UserDirectory userDirectory) {
         this.ud = userDirectory;
         friend = new Friend(userDirectory);
+        recommendationService = new RecommendationService(friend);
 
+        try {
+            friend.loadPrecomputedRecommendations(Paths.get(BatchRecommender.DEFAULT_RECOMMENDATIONS_FILE));
+        } catch (IOException e) { // recommendations are computed live instead
+            System.out.println("Could not load precomputed recommendations: " + e.getMessage());
+        }
     }
 
     // Login Methods
@@ -89,10 +109,16 @@ public class Menu {
         String password = scanner.nextLine();
 
         if (login) {
-            // authenticate given credentials
-            boolean authenticate = ud.getCredAuthStatus(username, password);
+            // authenticate given credentials (hashed on the credential worker pool)
+            try {
+                sessionId = ud.authenticateAsync(username, password).join();
+            } catch (CompletionException e) { // too many logins being verified
+                System.out.println("The server is busy. Please try again.\n");
+                loginMenu();
+                return;
+            }
 
-            if (authenticate) { // if credentials match
+            if (sessionId != null) { // if credentials match
                 user = ud.findUserByUsername(username);
                 System.out.print("\nWelcome " + user.getUsername() + "!");
             } else { // if no matching credentials
@@ -102,58 +128,54 @@ public class Menu {
         }
 
         if (createAccount) {
-            // check to ensure credentials have not been registered
-            boolean credentialsStatus = ud.getCredAuthStatus(username, password);
-
-            // if credentials are new
-            if (!credentialsStatus) {
-                // create new User with username and password
-                this.user = new User();
-                user.setUsername(username);
-                user.setPassword(password);
-
-                // try adding user to UserDirectory
-                boolean userAdded = ud.addNewUser(this.user);
+            // create new User with username and password
+            this.user = new User();
+            user.setUsername(username);
+            user.setPassword(password);
+
+            // input remaining user info (name is needed to index the new user)
+            System.out.println("\nLet's finish setting up your account:");
+            System.out.print("Enter your first name: ");
+            user.setFirstName(scanner.nextLine()); // set first name
+            System.out.print("Enter your last name: ");
+            user.setLastName(scanner.nextLine()); // set last name
+            System.out.print("Enter your city: ");
+            user.setCity(scanner.nextLine()); // set city
+
+            // try adding user to UserDirectory (fails if the username is taken)
+            boolean userAdded = ud.addNewUser(this.user);
+
+            if (!userAdded) { // if failed to add user
+                loginMenu();
+            } else {
+                // get user interests
+                System.out.println("\nEnter one of your interests followed by the enter key.");
+                do {
+                    // input Interest
+                    System.out.print("Enter your interest or \"0\" to stop: ");
+                    String interestName = scanner.nextLine();
 
-                if (!userAdded) { // if failed to add user
-                    loginMenu();
-                } else {
-                    // input remaining user info
-                    System.out.println("\nLet's finish setting up your account:");
-                    System.out.print("Enter your first name: ");
-                    user.setFirstName(scanner.nextLine()); // set first name
-                    System.out.print("Enter your last name: ");
-                    user.setLastName(scanner.nextLine()); // set last name
-                    System.out.print("Enter your city: ");
-                    user.setCity(scanner.nextLine()); // set city
-
-                    // get user interests
-                    System.out.println("\nEnter one of your interests followed by the enter key.");
-                    do {
-                        // input Interest
-                        System.out.print("Enter your interest or \"0\" to stop: ");
-                        String interestName = scanner.nextLine();
-
-                        // check if user quit
-                        if (interestName.equals("0")) {
-                            break;
-                        }
+                    // check if user quit
+                    if (interestName.equals("0")) {
+                        break;
+                    }
 
-                        // add Interest to user
-                        ud.getInterestManager().addUserToInterest(interestName, user);
-                        user.addInterest(interestName);
-                    } while (true);
-                    System.out.println("Finished entering your interests.");
+                    // add Interest to user
+                    ud.getInterestManager().addUserToInterest(interestName, user);
+                } while (true);
+                System.out.println("Finished entering your interests.");
 
-                    // print welcome message
-                    System.out.print("\nYour account has successfully been created, welcome "
-                            + user.getUsername() + "!");
-                    printUserProfile(user);
+                // start a session without asking for the password again
+                try {
+                    sessionId = ud.authenticateAsync(username, password).join();
+                } catch (CompletionException e) { // busy: the password is asked for at the main menu instead
+                    sessionId = null;
                 }
-            } else { // credentials already used
-                System.out.println("\nAn account has already been made with your username and/or password. " +
-                        "Please login or choose a different username.\n");
-                loginMenu();
+
+                // print welcome message
+                System.out.print("\nYour account has successfully been created, welcome "
+                        + user.getUsername() + "!");
+                printUserProfile(user);
             }
         }
     }
@@ -165,7 +187,24 @@ public class Menu {
      * friends, make new friends, or exit the Menu UI.
      */
     public void mainMenu() {
+        final int NUM_POPULAR_INTERESTS = 5;
+
         while (true) {
+            // an O(1) check while the session lasts; only an idle session asks for the password again
+            if (!ud.hasSession(user.getUsername(), sessionId) && !renewSession()) {
+                System.out.println("\nGoodbye!");
+                return;
+            }
+
+            // print the most popular Interests
+            ArrayList<String> popular = new ArrayList<>(NUM_POPULAR_INTERESTS);
+            for (InterestCount interestCount : ud.getInterestManager().topInterests(NUM_POPULAR_INTERESTS)) {
+                popular.add(interestCount.getInterest().getInterestName() + " (" + interestCount.getUserCount() + ")");
+            }
+            if (!popular.isEmpty()) {
+                System.out.println("\nPopular interests: " + String.join(", ", popular));
+            }
+
             // print user options
             System.out.println("\nMain Menu:" +
                     "\n0. Quit" +
@@ -195,6 +234,32 @@ public class Menu {
         }
     }
 
+    /**
+     * Asks for the user's password until it is verified, starting a new session.
+     *
+     * @return true if the session was renewed, false if the user chose to quit
+     */
+    private boolean renewSession() {
+        System.out.print("\nYour session has expired. Please enter your password or 0 to quit: ");
+        while (true) {
+            String password = scanner.nextLine();
+            if (password.equals("0")) {
+                return false;
+            }
+
+            try {
+                sessionId = ud.authenticateAsync(user.getUsername(), password).join();
+            } catch (CompletionException e) { // too many logins being verified
+                System.out.print("The server is busy. Please enter your password again or 0 to quit: ");
+                continue;
+            }
+            if (sessionId != null) {
+                return true;
+            }
+            System.out.print("Your password is incorrect. Please try again or enter 0 to quit: ");
+        }
+    }
+
     /**
      * Prints the View Friends Menu and allows for user to view friends
      * sorted by name or to search for a specific friend by their name.
@@ -254,9 +319,10 @@ public class Menu {
      * Displays the current friends of this User.
      */
     private void displayFriends() {
-        String result = ud.findUserByUsername(user.getUsername()).getFriends().inOrderString();
         System.out.println("\nHere are your current friends:");
-        System.out.println(result.trim());
+        for (User currFriend : user.getFriends()) { // in order by name
+            System.out.println(currFriend);
+        }
     }
 
     /**
@@ -274,18 +340,9 @@ public class Menu {
 
 
         // print interests of friend as a list separated by commas
-        LinkedList<String> interests = user.getInterests();
-        interests.positionIterator();
+        LinkedList<String> interests = ud.getInterestManager().getInterestNames(user);
         System.out.print("Interests (" + interests.getLength() + "): ");
-
-        if (!(interests.getLength() == 0)) { // if interests are not empty
-            interests.positionIterator();
-            for (int i = 0; i < interests.getLength() - 1; i++) {
-                System.out.print(interests.getIterator() + ", ");
-                interests.advanceIterator();
-            }
-            System.out.print(interests.getIterator());
-        }
+        System.out.print(String.join(", ", interests)); // prints nothing when there are 0 Interests
 
         System.out.println(); // for newline when there's 0 Interests to print
     }
@@ -361,7 +418,7 @@ public class Menu {
 
                         if (choice.equalsIgnoreCase("1")) {
                             // remove matchingFriend
-                            user.removeFriend(matchingFriends.get(index - 1));
+                            ud.removeFriend(user, matchingFriends.get(index - 1));
                             System.out.println("Successfully removed as friend, your new friends list is now:");
                             displayFriends();
                         }
@@ -437,7 +494,6 @@ public class Menu {
 
                         // adding as friend
                         if (inputStr.equals("1")) {
-                            user.addFriend(viewedUser);
                             ud.addFriendConnection(user, viewedUser);
 
                             System.out.print(viewedUser.getFirstName() + " " + viewedUser.getLastName()
@@ -453,9 +509,14 @@ public class Menu {
                 break;
             case 2:
                 System.out.println("\nSearching Users by Interest:");
-                System.out.print("Please enter the interest you want to search by: ");
+                System.out.print("Please enter the interest you want to search by (separate several " +
+                        "interests with commas): ");
                 inputStr = scanner.nextLine();
-                searchByInterests(inputStr);
+                if (inputStr.contains(",")) {
+                    searchBySeveralInterests(inputStr.split(","));
+                } else {
+                    searchByInterests(inputStr);
+                }
                 break;
             case 3:
                 getFriendRecs();
@@ -469,29 +530,27 @@ public class Menu {
      * @return the selected User
      */
     public User searchUsersByName() {
-        String nameOfFriend, firstNameOfFriend = "", lastNameOfFriend = "", inputStr;
-        ArrayList<User> matchingUsers;
+        final int MAX_PREFIX_MATCHES = 10;
+
+        String nameOfFriend, inputStr;
+        ArrayList<User> matchingUsers = new ArrayList<>();
         User returnUser = null;
 
-        // get first and last name of user to search
+        // get full or partial name of user to search
         System.out.println("\nSearching users by name:");
-        System.out.print("Enter the full name of the user (first name + last name): ");
-        nameOfFriend = scanner.nextLine(); // input full name
+        System.out.print("Enter the full name of the user (first name + last name) or the start of a name: ");
+        nameOfFriend = scanner.nextLine(); // input name
 
-        // split full name into first and last
-        String[] nameParts = nameOfFriend.split(" ");
-        if (nameParts.length >= 2) { // first and last given
-            firstNameOfFriend = nameParts[0];
-            lastNameOfFriend = nameParts[1];
-        }
-        if (nameParts.length == 1) { // only first name given
-            firstNameOfFriend = nameParts[0];
-            System.out.print("Please enter the last name of the user to search: ");
-            lastNameOfFriend = scanner.nextLine();
+        // search UserDirectory by exact name if first and last given
+        String[] nameParts = nameOfFriend.trim().split("\\s+");
+        if (nameParts.length >= 2) {
+            matchingUsers = ud.findUsersByName(nameParts[0], nameParts[1]);
         }
 
-        // search UserDirectory by name
-        matchingUsers = ud.findUsersByName(firstNameOfFriend, lastNameOfFriend);
+        // otherwise show users whose names start with the given text
+        if (matchingUsers.isEmpty() && !nameOfFriend.trim().isEmpty()) {
+            matchingUsers = ud.findUsersByPrefix(nameOfFriend, MAX_PREFIX_MATCHES);
+        }
 
         if (!matchingUsers.isEmpty()) {
             System.out.println("\nHere are the matching users:");
@@ -543,38 +602,135 @@ public class Menu {
      * @param interestName the name of the given Interest
      */
     private void searchByInterests(String interestName) {
-        // return if no existing Users share the Interest
-        if (ud.getInterestManager().retrieveInterestBST(interestName) == null) {
+        final int MAX_RELATED = 3;
+        final int MAX_SUGGESTIONS = 3;
+
+        // get a view of the other Users who share the Interest
+        ReadOnlyView<User> usersWithInterestList = ud.getInterestManager().retrieveInterestUsers(interestName, user);
+
+        // offer similarly spelled Interests if none has this exact name
+        if (usersWithInterestList == null) {
+            ArrayList<Interest> suggestions = ud.getInterestManager().suggestInterests(interestName,
+                    MAX_SUGGESTIONS);
+            if (!suggestions.isEmpty()) {
+                System.out.println("\nNo interest is named \"" + interestName.trim() + "\". Did you mean:");
+                for (int i = 0; i < suggestions.size(); i++) {
+                    System.out.println((i + 1) + ". " + suggestions.get(i).getInterestName());
+                }
+                System.out.print("Enter the index (1-" + suggestions.size() + ") of the interest to search by, " +
+                        "or 0 to return to Main Menu: ");
+                try {
+                    int index = Integer.parseInt(scanner.nextLine());
+                    if (index > 0 && index <= suggestions.size()) {
+                        searchByInterests(suggestions.get(index - 1).getInterestName());
+                    } else if (index != 0) { // invalid index given
+                        System.out.println("Invalid index. Returning to Main Menu.");
+                    }
+                } catch (NumberFormatException e) { // invalid input given
+                    System.out.println("Invalid input. Returning to Main Menu.");
+                }
+                return;
+            }
+        }
+
+        // return if no Users except this user share the Interest
+        if (usersWithInterestList == null || usersWithInterestList.isEmpty()) {
             System.out.println("\nNo Users share that interest! Returning to Main Menu.");
             return;
         }
 
-        // get BST<User> containing Users who share the Interest
-        BST<User> usersWithIterestBST = ud.getInterestManager().retrieveInterestBST(interestName);
+        // suggest Interests that Users with this Interest also have
+        ArrayList<Interest> relatedInterests = ud.getInterestManager().relatedInterests(interestName, MAX_RELATED);
+        if (!relatedInterests.isEmpty()) {
+            ArrayList<String> relatedNames = new ArrayList<>(relatedInterests.size());
+            for (Interest related : relatedInterests) {
+                relatedNames.add(related.getInterestName());
+            }
+            System.out.println("\nPeople who like " + interestName.trim() + " also like: "
+                    + String.join(", ", relatedNames));
+        }
 
-        // remove this user from BST to avoid printing themselves
-        usersWithIterestBST.remove(user, ud.getNameComparator());
+        // collect Users from the view in order by name
+        ArrayList<User> usersWithInterest = new ArrayList<>();
+        ArrayList<String> descriptions = new ArrayList<>();
+        for (User currUser : usersWithInterestList) {
+            usersWithInterest.add(currUser);
+            descriptions.add(currUser.toString());
+        }
 
-        // if no User except this user shares the Interest
-        if (usersWithIterestBST.getSize() == 0) {
-            System.out.println("\nNo Users share that interest! Returning to Main Menu.");
+        chooseUserToAdd(usersWithInterest, descriptions);
+    }
+
+    /**
+     * Searches Users that share several of the given Interests, ranked by how
+     * many of the Interests they share, and allows this User to add one of
+     * them as a friend.
+     *
+     * @param interestNames the names of the given Interests
+     * @see data.InterestManager#queryInterests for the ranked query
+     */
+    private void searchBySeveralInterests(String[] interestNames) {
+        final int MAX_MATCHES = 20;
+
+        System.out.print("Enter 1 to only show Users who share every interest, or any other key to show " +
+                "Users who share any of them: ");
+        boolean matchAll = scanner.nextLine().equals("1");
+
+        int minMatch = 1;
+        if (!matchAll) {
+            System.out.print("Enter the fewest of these interests a User must share (1-" + interestNames.length
+                    + "), or any other key for 1: ");
+            try {
+                minMatch = Integer.parseInt(scanner.nextLine().trim());
+            } catch (NumberFormatException e) { // keep the default
+                minMatch = 1;
+            }
+            if (minMatch < 1 || minMatch > interestNames.length) {
+                System.out.println("Invalid number. Showing Users who share any of them.");
+                minMatch = 1;
+            }
+        }
+
+        // ask for one extra match in case this user is among them
+        ArrayList<InterestMatch> matches = ud.getInterestManager().queryInterests(interestNames, matchAll,
+                minMatch, MAX_MATCHES + 1);
+
+        ArrayList<User> matchingUsers = new ArrayList<>(matches.size());
+        ArrayList<String> descriptions = new ArrayList<>(matches.size());
+        for (InterestMatch match : matches) {
+            User currUser = ud.findUserById(match.getUserId());
+            if (currUser != null && currUser != user && matchingUsers.size() < MAX_MATCHES) {
+                matchingUsers.add(currUser);
+                descriptions.add(currUser + " (shares " + match.getMatchCount() + " of "
+                        + interestNames.length + " interests)");
+            }
+        }
+
+        if (matchingUsers.isEmpty()) {
+            System.out.println("\nNo Users share those interests! Returning to Main Menu.");
             return;
         }
 
-        // convert interestBST to ArrayList<String>
-        String BSTInOrderStr = usersWithIterestBST.inOrderString();
-        String[] splitArray = BSTInOrderStr.split("\n");
-        ArrayList<String> usersWithInterest = new ArrayList<>(Arrays.asList(splitArray));
+        chooseUserToAdd(matchingUsers, descriptions);
+    }
 
+    /**
+     * Lists the given Users and lets this User view one of their profiles
+     * and add them as a friend.
+     *
+     * @param users        the Users to choose from
+     * @param descriptions the line to print for each User
+     */
+    private void chooseUserToAdd(ArrayList<User> users, ArrayList<String> descriptions) {
         do {
             try {
                 System.out.println("\nHere are some Users who share the given interests:");
                 // print Users who have Interest
-                for (int i = 0; i < usersWithInterest.size(); i++) {
-                    System.out.println((i + 1) + ". " + usersWithInterest.get(i));
+                for (int i = 0; i < users.size(); i++) {
+                    System.out.println((i + 1) + ". " + descriptions.get(i));
                 }
 
-                System.out.print("Enter 0 to return to Main Menu or the index (1-" + usersWithInterest.size() + ") " +
+                System.out.print("Enter 0 to return to Main Menu or the index (1-" + users.size() + ") " +
                         "the person whose profile you'd like to view: ");
                 int index = Integer.parseInt(scanner.nextLine());
 
@@ -582,18 +738,8 @@ public class Menu {
                     return;
                 }
 
-                if (index > 0 && index <= usersWithInterest.size()) { // valid ID selected
-                    // get first and lastName name of selected User
-                    String selectedUser = usersWithInterest.get(index - 1);
-                    String[] splitArray2 = selectedUser.split(" ");
-                    String firstName = splitArray2[0];
-                    String lastName = splitArray2[1];
-
-                    // get tempUser from interestBST using first and last name
-                    User tempUser = new User();
-                    tempUser.setFirstName(firstName);
-                    tempUser.setLastName(lastName);
-                    tempUser = usersWithIterestBST.search(tempUser, ud.getNameComparator());
+                if (index > 0 && index <= users.size()) { // valid ID selected
+                    User tempUser = users.get(index - 1);
 
                     // print tempUser
                     printUserProfile(tempUser);
@@ -606,7 +752,7 @@ public class Menu {
                     if (choice.equalsIgnoreCase("1")) {
                         System.out.println("Successfully added " + tempUser.getFirstName() + " "
                                 + tempUser.getLastName() + " as a friend!");
-                        user.addFriend(tempUser);
+                        ud.addFriendConnection(user, tempUser);
                         displayFriends();
                         break;
                     }
@@ -627,28 +773,85 @@ public class Menu {
      * @see Friend#getFriendRecommendations for friend recoomendation system
      */
     public void getFriendRecs() {
+        final int PAGE_SIZE = 5;
+        String pageToken = null; // null for the first page
+        boolean explain = false; // whether to show why each User is recommended
+        CompletableFuture<RecommendationPage> nextPage = null; // ranked in the background while a page is read
+        String nextPageToken = null; // the token and explain flag nextPage was requested with
+        boolean nextPageExplain = false;
+
         do {
             try {
-                ArrayList<User> recommended = friend.getFriendRecommendations(user);
+                RecommendationPage page = null;
+                if (nextPage != null && pageToken != null && pageToken.equals(nextPageToken)
+                        && explain == nextPageExplain) {
+                    try {
+                        page = nextPage.join();
+                    } catch (CompletionException e) {
+                        // the service was busy or failed: rank the page below instead
+                    }
+                    nextPage = null;
+                }
+                if (page == null) {
+                    page = friend.getFriendRecommendations(user, PAGE_SIZE, pageToken, explain);
+                }
+                ArrayList<User> recommended = page.getUsers();
+                ArrayList<RecommendationExplanation> explanations = page.getExplanations();
 
                 // check if there's no recommended friends
                 if (recommended.isEmpty()) {
+                    if (pageToken != null) { // ranking changed since the last page, start over
+                        pageToken = null;
+                        continue;
+                    }
                     System.out.println("\nSorry we don't have any friend recommendations for you at this time." +
                             " Returning to Main Manu.");
-                    return;
+                    break;
                 }
 
-                // print all recommended Users
+                // print the recommended Users on this page
                 System.out.println("\nHere are some recommended friends based on interest and relations: ");
                 for (int i = 0; i < recommended.size(); i++) {
                     System.out.println((i + 1) + ". " + recommended.get(i).getFirstName() + " "
                             + recommended.get(i).getLastName());
+                    if (explanations != null) {
+                        System.out.println("   " + explanations.get(i));
+                    }
+                }
+
+                // rank the next page while the user reads this one, unless it already is
+                // (this page is shown again after W or a profile)
+                if (page.hasNextPage() && (nextPage == null || !page.getNextToken().equals(nextPageToken)
+                        || explain != nextPageExplain)) {
+                    if (nextPage != null) {
+                        nextPage.cancel(false);
+                    }
+                    nextPageToken = page.getNextToken();
+                    nextPageExplain = explain;
+                    nextPage = recommendationService.getFriendRecommendations(user, PAGE_SIZE, nextPageToken,
+                            explain);
                 }
 
                 // get user choice
-                System.out.print("Enter 0 to return to the Main Menu or the index (1-" + recommended.size() + ") " +
+                System.out.print("Enter 0 to return to the Main Menu"
+                        + (page.hasNextPage() ? ", N to see more recommendations" : "")
+                        + (explain ? ", W to hide why they're recommended," : ", W to see why they're recommended,")
+                        + " or the index (1-" + recommended.size() + ") " +
                         "of the person whose profile you'd like to view: ");
-                int index = Integer.parseInt(scanner.nextLine());
+                String input = scanner.nextLine();
+
+                // show the next page
+                if (page.hasNextPage() && input.equalsIgnoreCase("N")) {
+                    pageToken = page.getNextToken();
+                    continue;
+                }
+
+                // show this page again with or without explanations
+                if (input.equalsIgnoreCase("W")) {
+                    explain = !explain;
+                    continue;
+                }
+                int index = Integer.parseInt(input);
 
                 // return to main menu
                 if (index == 0) {
@@ -672,8 +875,11 @@ public class Menu {
                     System.out.println("Friend added successfully!");
 
                     // update this user and the overall friend connections
-                    user.addFriend(selectedUser);
-                    ud.addFriendConnection(this.user, selectedUser);
+                    ud.addFriendConnection(user, selectedUser);
+                    if (nextPage != null) { // ranked before the new friend
+                        nextPage.cancel(false);
+                        nextPage = null;
+                    }
 
                     // display this user's updated current friends
                     displayFriends();
@@ -682,6 +888,18 @@ public class Menu {
                 System.out.println("Please ensure the input is a valid index.");
             }
         } while (true);
+
+        if (nextPage != null) { // not going to be shown
+            nextPage.cancel(false);
+        }
     }
 
-}
\ No newline at end of file
+    /**
+     * Stops the background ranking of recommendations, waiting for any page
+     * still being prefetched. Call when the program exits.
+     */
+    @Override
+    public void close() {
+        recommendationService.close();
+    }
+}
@@ -1,7 +1,9 @@
 package util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 
@@ -17,45 +19,137 @@ import java.util.NoSuchElementException;
  * @author Yukai Qiu
  * CIS 22C, Final Course Project
  */
-public class BST<T> {
+public class BST<T> implements Iterable<T> {
     private class Node {
         private T data;
         private Node left;
         private Node right;
+        private int height;
+        private int size;
 
         public Node(T data) {
             this.data = data;
             left = null;
             right = null;
+            height = 0;
+            size = 1;
+        }
+    }
+
+    /**
+     * Lazy in-order iterator that walks the tree with an explicit stack.
+     * Optionally starts at a lower bound, stops after an upper bound,
+     * and stops after a maximum number of values.
+     */
+    private class InOrderIterator implements Iterator<T> {
+        private final LinkedList<Node> stack;
+        private final T to;
+        private final Comparator<T> cmp;
+        private int remaining;
+
+        /**
+         * Creates an iterator over the values in [from, to].
+         *
+         * @param from  the smallest value to return, or null for no lower bound.
+         * @param to    the largest value to return, or null for no upper bound.
+         * @param limit the maximum number of values to return.
+         * @param cmp   the Comparator indicating how data in the tree is ordered,
+         *              may be null when from and to are both null.
+         */
+        public InOrderIterator(T from, T to, int limit, Comparator<T> cmp) {
+            this.stack = new LinkedList<>();
+            this.to = to;
+            this.cmp = cmp;
+            this.remaining = limit;
+
+            // push the path to the first value >= from
+            Node node = root;
+            while (node != null) {
+                if (from == null || cmp.compare(from, node.data) <= 0) {
+                    stack.addFirst(node);
+                    node = node.left;
+                } else {
+                    node = node.right;
+                }
+            }
+        }
+
+        /**
+         * Returns whether there are more values in the range.
+         *
+         * @return whether next() can be called
+         */
+        @Override
+        public boolean hasNext() {
+            if (remaining <= 0 || stack.isEmpty()) {
+                return false;
+            }
+            return to == null || cmp.compare(stack.getFirst().data, to) <= 0;
+        }
+
+        /**
+         * Returns the next value in order.
+         *
+         * @return the next value in the range
+         * @throws NoSuchElementException when there are no more values
+         */
+        @Override
+        public T next() throws NoSuchElementException {
+            if (!hasNext()) {
+                throw new NoSuchElementException("next: no more elements");
+            }
+
+            Node node = stack.getFirst();
+            stack.removeFirst();
+            remaining--;
+
+            // push the leftmost path of the right subtree
+            for (Node temp = node.right; temp != null; temp = temp.left) {
+                stack.addFirst(temp);
+            }
+
+            return node.data;
         }
     }
 
     private Node root;
+    private final boolean balanced;
 
     /***CONSTRUCTORS***/
 
     /**
      * Default constructor for BST sets root to null.
+     * The tree is not self-balancing.
      */
     public BST() {
+        this(false);
+    }
+
+    /**
+     * Constructor for a BST that can keep itself balanced.
+     * A balanced BST rebalances (AVL rotations) on every insert and remove,
+     * so its height stays O(log n) even when data arrives in sorted order.
+     *
+     * @param balanced whether the tree should balance itself.
+     */
+    public BST(boolean balanced) {
         root = null;
+        this.balanced = balanced;
     }
 
     /**
      * Copy constructor for BST.
+     * The copy balances itself if bst does.
      *
      * @param bst the BST of which to make a copy.
      * @param cmp the way the tree is organized.
      */
     public BST(BST<T> bst, Comparator<T> cmp) {
-        this();
+        this(bst != null && bst.balanced);
         if (bst == null) {
             return;
         }
-        if (bst.root != null) {
-            root = new Node(bst.root.data);
-            copyHelper(bst.root, cmp);
-        }
+        copyHelper(bst.root, cmp);
     }
 
     /**
@@ -84,6 +178,7 @@ public class BST<T> {
      * @precondition array must be sorted in ascending order.
      */
     public BST(T[] array, Comparator<T> cmp) throws IllegalArgumentException {
+        this(false);
         if (array == null) {
             root = null;
             return;
@@ -94,6 +189,31 @@ public class BST<T> {
         root = arrayHelper(0, array.length - 1, array);
     }
 
+    /**
+     * Creates a BST of minimal height from an array of values in any order.
+     * The values are copied and sorted in parallel, then the tree is built
+     * from the sorted copy in linear time.
+     *
+     * @param array    the values to insert, left unchanged.
+     * @param cmp      the way the tree is organized.
+     * @param balanced whether the new tree should balance itself on later
+     *                 inserts and removes.
+     * @param <T>      a generic data type
+     * @return a new BST containing every value in array.
+     */
+    public static <T> BST<T> bulkLoad(T[] array, Comparator<T> cmp, boolean balanced) {
+        BST<T> bst = new BST<>(balanced);
+        if (array == null || array.length == 0) {
+            return bst;
+        }
+
+        T[] sorted = Arrays.copyOf(array, array.length);
+        Arrays.parallelSort(sorted, cmp); // stable, so duplicates keep their order
+
+        bst.root = bst.arrayHelper(0, sorted.length - 1, sorted);
+        return bst;
+    }
+
     /**
      * Private helper method for array constructor
      * to check for a sorted array.
@@ -133,6 +253,7 @@ public class BST<T> {
 
         node.left = arrayHelper(begin, (mid - 1), array);
         node.right = arrayHelper((mid + 1), end, array);
+        update(node);
         return node;
     }
 
@@ -152,6 +273,15 @@ public class BST<T> {
         return root.data;
     }
 
+    /**
+     * Determines whether the tree balances itself on insert and remove.
+     *
+     * @return whether the tree is self-balancing.
+     */
+    public boolean isBalanced() {
+        return balanced;
+    }
+
     /**
      * Determines whether the tree is empty.
      *
@@ -163,50 +293,48 @@ public class BST<T> {
 
     /**
      * Returns the current size of the tree (number of nodes).
+     * Sizes are stored in each Node, so this takes constant time.
      *
      * @return the size of the tree.
      */
     public int getSize() {
-        return getSize(root);
+        return size(root);
     }
 
     /**
-     * Helper method for the getSize method.
+     * Returns the stored size of the subtree rooted at a node.
      *
-     * @param node the current node to count.
-     * @return the size of the tree.
+     * @param node the root of the subtree.
+     * @return the number of nodes in the subtree, or 0 when node is null.
      */
-    private int getSize(Node node) {
+    private int size(Node node) {
         if (node == null) {
             return 0;
         }
-        return 1 + getSize(node.left) + getSize(node.right);
+        return node.size;
     }
 
     /**
      * Returns the height of tree by counting edges.
+     * Heights are stored in each Node, so this takes constant time.
      *
      * @return the height of the tree.
      */
     public int getHeight() {
-        return getHeight(root);
+        return height(root);
     }
 
     /**
-     * Helper method for getHeight method.
+     * Returns the stored height of a node.
      *
-     * @param node the current node whose height to count.
-     * @return the height of the tree.
+     * @param node the node whose height to return.
+     * @return the height of node, or -1 when node is null.
      */
-    private int getHeight(Node node) {
+    private int height(Node node) {
         if (node == null) {
             return -1;
         }
-
-        int left = getHeight(node.left);
-        int right = getHeight(node.right);
-
-        return 1 + Math.max(left, right);
+        return node.height;
     }
 
     /**
@@ -263,6 +391,60 @@ public class BST<T> {
         return node.data;
     }
 
+    /**
+     * Returns the k-th smallest value in the tree, counting from 0.
+     * Takes O(log n) time in a balanced tree.
+     *
+     * @param index the position of the value in sorted order.
+     * @return the value at that position.
+     * @throws IndexOutOfBoundsException when the precondition is violated.
+     * @precondition 0 <= index < getSize()
+     */
+    public T select(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= getSize()) {
+            throw new IndexOutOfBoundsException("Select: index out of bounds");
+        }
+
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.data;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of values in the tree that are smaller than the
+     * given data, which is the position data has (or would have) in sorted
+     * order. Takes O(log n) time in a balanced tree.
+     *
+     * @param data the value whose position to find.
+     * @param cmp  the Comparator that indicates the way
+     *             the data in the tree was ordered.
+     * @return the number of values less than data, from 0 to getSize().
+     */
+    public int rank(T data, Comparator<T> cmp) {
+        int rank = 0;
+        Node node = root;
+
+        while (node != null) {
+            if (cmp.compare(data, node.data) <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+
+        return rank;
+    }
+
     /**
      * Searches for a specified value in the tree.
      *
@@ -302,42 +484,48 @@ public class BST<T> {
     }
 
     /**
-     * Returns an ArrayListList of Users that have names that match the
-     * given first and last name (case-insensitive).
+     * Returns every value in the tree that the Comparator considers equal
+     * to the given data, in order. Only subtrees that can hold an equal
+     * value are visited, so this takes O(log n + k) time for k matches
+     * in a balanced tree.
      *
-     * @param firstName  the first name to search for
-     * @param lastName   the last name to search for
-     * @param userToFind a User with the firstName and lastname
-     * @param cmp        a Comparator that compares Users by first and last name
-     * @return an ArrayList of Users with matching name
-     * @see data.User#getFirstName
-     * @see data.User#getLastName
+     * @param data the value to search for.
+     * @param cmp  the Comparator that indicates the way
+     *             the data in the tree was ordered.
+     * @return an ArrayList of all matching values, empty if none match.
      */
-    public ArrayList<T> findUsersByName(String firstName, String lastName, T userToFind,
-                                        Comparator<T> cmp) {
+    public ArrayList<T> searchAll(T data, Comparator<T> cmp) {
         ArrayList<T> results = new ArrayList<>();
+        searchAll(data, root, cmp, results);
+        return results;
+    }
 
-        // if BST is empty
-        if (isEmpty()) {
-            return results;
+    /**
+     * Helper method for the searchAll method.
+     * Duplicates are inserted to the right, but rotations can move them to
+     * the left, so both children of a matching node are searched.
+     *
+     * @param data    the data to search for.
+     * @param node    the current node to check.
+     * @param cmp     the Comparator that determines how the BST is organized.
+     * @param results the ArrayList collecting the matching values.
+     */
+    private void searchAll(T data, Node node, Comparator<T> cmp, ArrayList<T> results) {
+        if (node == null) {
+            return;
         }
 
-        BST<T> copyBST = new BST<>(this, cmp);
-        String fullName = firstName + " " + lastName;
-        String inOrder = this.inOrderString();
-        String[] userEntries = inOrder.split("\n");
-
-        for (String entry : userEntries) {
-            if (entry == null || entry.isEmpty())
-                continue;
+        int comparison = cmp.compare(data, node.data);
 
-            if (entry.equalsIgnoreCase(fullName)) {
-                T tempUser = copyBST.search(userToFind, cmp);
-                copyBST.remove(userToFind, cmp);
-                results.add(tempUser);
-            }
+        if (comparison < 0) {
+            searchAll(data, node.left, cmp, results);
+        } else if (comparison > 0) {
+            searchAll(data, node.right, cmp, results);
+        } else {
+            searchAll(data, node.left, cmp, results);
+            results.add(node.data);
+            searchAll(data, node.right, cmp, results);
         }
-        return results;
     }
 
     /***MUTATORS***/
@@ -349,11 +537,7 @@ public class BST<T> {
      * @param cmp  the Comparator indicating how data in the tree is ordered.
      */
     public void insert(T data, Comparator<T> cmp) {
-        if (root == null) {
-            root = new Node(data);
-        } else {
-            insert(data, root, cmp);
-        }
+        root = insert(data, root, cmp);
     }
 
     /**
@@ -364,21 +548,20 @@ public class BST<T> {
      * @param node the current node in the search for the correct insert
      *             location.
      * @param cmp  the Comparator indicating how data in the tree is ordered.
+     * @return an updated reference variable.
      */
-    private void insert(T data, Node node, Comparator<T> cmp) {
+    private Node insert(T data, Node node, Comparator<T> cmp) {
+        if (node == null) {
+            return new Node(data);
+        }
+
         if (cmp.compare(data, node.data) < 0) {
-            if (node.left == null) {
-                node.left = new Node(data);
-            } else {
-                insert(data, node.left, cmp);
-            }
+            node.left = insert(data, node.left, cmp);
         } else {
-            if (node.right == null) {
-                node.right = new Node(data);
-            } else {
-                insert(data, node.right, cmp);
-            }
+            node.right = insert(data, node.right, cmp);
         }
+
+        return rebalance(node);
     }
 
     /**
@@ -419,19 +602,200 @@ public class BST<T> {
             } else if (node.left == null && node.right != null) {
                 node = node.right;
             } else {
-                T foundData = findMin(node.right);
+                node.data = findMin(node.right);
+
+                // unlink the minimum itself: with duplicate keys, searching for
+                // its value could stop at an equal node rotated above it
+                node.right = removeMin(node.right);
+            }
+        }
+
+        if (node == null) {
+            return null;
+        }
+        return rebalance(node);
+    }
+
+    /**
+     * Removes the smallest node of a subtree.
+     *
+     * @param node the root of the subtree.
+     * @return the root of the updated subtree.
+     */
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    /**
+     * Recomputes the stored height and size of a node from its children.
+     *
+     * @param node the node to update.
+     */
+    private void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    /**
+     * Updates the height and size of a node whose subtrees have changed and, if this
+     * tree is self-balancing, rotates it so that the heights of its subtrees
+     * differ by at most one.
+     *
+     * @param node the node whose subtree changed.
+     * @return the root of the updated subtree.
+     */
+    private Node rebalance(Node node) {
+        update(node);
+        if (!balanced) {
+            return node;
+        }
 
-                node.data = foundData;
+        int balance = height(node.left) - height(node.right);
 
-                node.right = remove(foundData, node.right, cmp);
+        if (balance > 1) { // left heavy
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
             }
+            return rotateRight(node);
+        } else if (balance < -1) { // right heavy
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
         }
 
         return node;
     }
 
+    /**
+     * Rotates a subtree to the right, making the left child its new root.
+     *
+     * @param node the root of the subtree.
+     * @return the new root of the subtree.
+     */
+    private Node rotateRight(Node node) {
+        Node newRoot = node.left;
+        node.left = newRoot.right;
+        newRoot.right = node;
+        update(node);
+        update(newRoot);
+        return newRoot;
+    }
+
+    /**
+     * Rotates a subtree to the left, making the right child its new root.
+     *
+     * @param node the root of the subtree.
+     * @return the new root of the subtree.
+     */
+    private Node rotateLeft(Node node) {
+        Node newRoot = node.right;
+        node.right = newRoot.left;
+        newRoot.left = node;
+        update(node);
+        update(newRoot);
+        return newRoot;
+    }
+
     /***ADDITONAL OPERATIONS***/
 
+    /**
+     * Creates a new BST of minimal height containing the values of this
+     * tree and another tree. Both trees are read in order and merged
+     * in linear time; neither is changed.
+     *
+     * @param other the BST to merge with this one.
+     * @param cmp   the way both trees are organized.
+     * @return a new BST with every value from both trees, which balances
+     * itself if either tree does.
+     */
+    @SuppressWarnings("unchecked")
+    public BST<T> merge(BST<T> other, Comparator<T> cmp) {
+        int otherSize = other == null ? 0 : other.getSize();
+        BST<T> merged = new BST<>(balanced || (other != null && other.balanced));
+        T[] values = (T[]) new Object[getSize() + otherSize];
+        if (values.length == 0) {
+            return merged;
+        }
+
+        Iterator<T> first = iterator();
+        Iterator<T> second = other == null ? new BST<T>().iterator() : other.iterator();
+        boolean hasFirst = first.hasNext(), hasSecond = second.hasNext();
+        T nextFirst = hasFirst ? first.next() : null;
+        T nextSecond = hasSecond ? second.next() : null;
+
+        for (int i = 0; i < values.length; i++) {
+            // take from this tree on ties so equal values keep a stable order
+            if (!hasSecond || (hasFirst && cmp.compare(nextFirst, nextSecond) <= 0)) {
+                values[i] = nextFirst;
+                hasFirst = first.hasNext();
+                nextFirst = hasFirst ? first.next() : null;
+            } else {
+                values[i] = nextSecond;
+                hasSecond = second.hasNext();
+                nextSecond = hasSecond ? second.next() : null;
+            }
+        }
+
+        merged.root = merged.arrayHelper(0, values.length - 1, values);
+        return merged;
+    }
+
+    /**
+     * Returns a lazy iterator over all values in order. The tree must not
+     * be modified while the iterator is in use.
+     *
+     * @return an in-order iterator over the tree.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new InOrderIterator(null, null, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Returns the values from "from" to "to" (both inclusive) in order.
+     * Values are produced lazily, so only the part of the tree that is
+     * actually read is visited.
+     *
+     * @param from the smallest value to return.
+     * @param to   the largest value to return.
+     * @param cmp  the Comparator indicating how data in the tree is ordered.
+     * @return an Iterable over the values in the range.
+     * @throws NullPointerException when from, to, or cmp is null.
+     */
+    public Iterable<T> range(T from, T to, Comparator<T> cmp) throws NullPointerException {
+        if (from == null || to == null || cmp == null) {
+            throw new NullPointerException("Range: bounds and comparator cannot be null");
+        }
+        return () -> new InOrderIterator(from, to, Integer.MAX_VALUE, cmp);
+    }
+
+    /**
+     * Returns at most limit values that are greater than or equal to key,
+     * in order. Useful for showing one page of a large tree at a time.
+     *
+     * @param key   the smallest value to return.
+     * @param limit the maximum number of values to return.
+     * @param cmp   the Comparator indicating how data in the tree is ordered.
+     * @return an Iterable over the values in the page.
+     * @throws NullPointerException     when key or cmp is null.
+     * @throws IllegalArgumentException when limit < 0.
+     */
+    public Iterable<T> tailFrom(T key, int limit, Comparator<T> cmp)
+            throws NullPointerException, IllegalArgumentException {
+        if (key == null || cmp == null) {
+            throw new NullPointerException("TailFrom: key and comparator cannot be null");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("TailFrom: limit cannot be negative");
+        }
+        return () -> new InOrderIterator(key, null, limit, cmp);
+    }
+
     /**
      * Returns a String containing the data in pre order
      * followed by a new line.
@@ -0,0 +1,463 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+
+/**
+ * ConcurrentSkipList.java
+ * Defines a lock-free skip list ordered by a Comparator, with the same
+ * insert/search/remove API as BST. Any number of threads may insert, remove,
+ * and search at the same time without locking. Like BST, duplicates are
+ * allowed and are kept next to each other.
+ * A node is removed by first marking its links (logical removal), after
+ * which any traversal that passes it unlinks it (physical removal).
+ *
+ * @param <T> a generic data type
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class ConcurrentSkipList<T> implements Iterable<T> {
+    private static final int MAX_LEVEL = 24; // enough for ~16 million elements
+
+    private class Node {
+        private final T data;
+        private final AtomicMarkableReference<Node>[] next;
+        private final int topLevel;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Node(T data, int topLevel) {
+            this.data = data;
+            this.topLevel = topLevel;
+            this.next = (AtomicMarkableReference<Node>[]) new AtomicMarkableReference[topLevel + 1];
+            for (int i = 0; i <= topLevel; i++) {
+                next[i] = new AtomicMarkableReference<>(null, false);
+            }
+        }
+    }
+
+    /**
+     * Weakly consistent iterator over the bottom level. Values removed
+     * before they are reached are skipped; values inserted concurrently
+     * may or may not be returned.
+     */
+    private class SkipListIterator implements Iterator<T> {
+        private Node cursor;
+        private final T to;
+        private final Comparator<T> cmp;
+
+        /**
+         * Creates an iterator starting at the given node.
+         *
+         * @param start the first node to consider.
+         * @param to    the largest value to return, or null for no upper bound.
+         * @param cmp   the Comparator for the upper bound, may be null when to is null.
+         */
+        public SkipListIterator(Node start, T to, Comparator<T> cmp) {
+            this.to = to;
+            this.cmp = cmp;
+            this.cursor = skipMarked(start);
+        }
+
+        /**
+         * Returns whether there are more values in the range.
+         *
+         * @return whether next() can be called
+         */
+        @Override
+        public boolean hasNext() {
+            return cursor != tail && (to == null || cmp.compare(cursor.data, to) <= 0);
+        }
+
+        /**
+         * Returns the next value in order.
+         *
+         * @return the next value in the range
+         * @throws NoSuchElementException when there are no more values
+         */
+        @Override
+        public T next() throws NoSuchElementException {
+            if (!hasNext()) {
+                throw new NoSuchElementException("next: no more elements");
+            }
+
+            T data = cursor.data;
+            cursor = skipMarked(cursor.next[0].getReference());
+            return data;
+        }
+
+        /**
+         * Returns the first node, starting at node, that has not been removed.
+         *
+         * @param node the node to start at.
+         * @return the first unmarked node, or tail.
+         */
+        private Node skipMarked(Node node) {
+            while (node != tail && node.next[0].isMarked()) {
+                node = node.next[0].getReference();
+            }
+            return node;
+        }
+    }
+
+    private final Node head;
+    private final Node tail;
+    private final AtomicInteger size;
+
+    /***CONSTRUCTORS***/
+
+    /**
+     * Default constructor for ConcurrentSkipList creates an empty list.
+     */
+    public ConcurrentSkipList() {
+        head = new Node(null, MAX_LEVEL);
+        tail = new Node(null, MAX_LEVEL);
+        for (int i = 0; i <= MAX_LEVEL; i++) {
+            head.next[i].set(tail, false);
+        }
+        size = new AtomicInteger(0);
+    }
+
+    /**
+     * Creates a ConcurrentSkipList from an array of values in linear time
+     * by appending each value to the end of every level it belongs to.
+     *
+     * @param array the list of values to insert.
+     * @param cmp   the way the list is ordered.
+     * @throws IllegalArgumentException when the array is unsorted.
+     * @precondition array must be sorted in ascending order.
+     */
+    public ConcurrentSkipList(T[] array, Comparator<T> cmp) throws IllegalArgumentException {
+        this();
+        if (array == null) {
+            return;
+        }
+        for (int i = 1; i < array.length; i++) {
+            if (cmp.compare(array[i - 1], array[i]) > 0) {
+                throw new IllegalArgumentException("Array is not sorted.");
+            }
+        }
+
+        Node[] last = newNodeArray();
+        Arrays.fill(last, head);
+        for (T value : array) {
+            Node node = new Node(value, randomLevel());
+            for (int level = 0; level <= node.topLevel; level++) {
+                node.next[level].set(tail, false);
+                last[level].next[level].set(node, false);
+                last[level] = node;
+            }
+        }
+        size.set(array.length);
+    }
+
+    /**
+     * Creates a ConcurrentSkipList from an array of values in any order.
+     * The values are copied and sorted in parallel, then the list is built
+     * from the sorted copy in linear time.
+     *
+     * @param array the values to insert, left unchanged.
+     * @param cmp   the way the list is ordered.
+     * @param <T>   a generic data type
+     * @return a new ConcurrentSkipList containing every value in array.
+     */
+    public static <T> ConcurrentSkipList<T> bulkLoad(T[] array, Comparator<T> cmp) {
+        if (array == null || array.length == 0) {
+            return new ConcurrentSkipList<>();
+        }
+
+        T[] sorted = Arrays.copyOf(array, array.length);
+        Arrays.parallelSort(sorted, cmp);
+        return new ConcurrentSkipList<>(sorted, cmp);
+    }
+
+    /***ACCESSORS***/
+
+    /**
+     * Returns the number of values in the list. While other threads are
+     * inserting or removing, this is a momentary count.
+     *
+     * @return the size of the list.
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * Determines whether the list is empty.
+     *
+     * @return whether the list is empty.
+     */
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    /**
+     * Searches for a specified value in the list without locking or
+     * changing the list.
+     *
+     * @param data the value to search for.
+     * @param cmp  the Comparator that indicates the way
+     *             the data in the list was ordered.
+     * @return the data stored in that Node of the list, otherwise null.
+     */
+    public T search(T data, Comparator<T> cmp) {
+        Node node = lowerBound(data, cmp);
+        if (node != tail && cmp.compare(node.data, data) == 0) {
+            return node.data;
+        }
+        return null;
+    }
+
+    /**
+     * Returns every value in the list that the Comparator considers equal
+     * to the given data, in order.
+     *
+     * @param data the value to search for.
+     * @param cmp  the Comparator that indicates the way
+     *             the data in the list was ordered.
+     * @return an ArrayList of all matching values, empty if none match.
+     */
+    public ArrayList<T> searchAll(T data, Comparator<T> cmp) {
+        ArrayList<T> results = new ArrayList<>();
+        for (T value : range(data, data, cmp)) {
+            results.add(value);
+        }
+        return results;
+    }
+
+    /***MUTATORS***/
+
+    /**
+     * Inserts a new value in the list. Equal values are kept together.
+     *
+     * @param data the data to insert.
+     * @param cmp  the Comparator indicating how data in the list is ordered.
+     */
+    public void insert(T data, Comparator<T> cmp) {
+        int topLevel = randomLevel();
+        Node[] preds = newNodeArray();
+        Node[] succs = newNodeArray();
+
+        while (true) {
+            find(data, cmp, preds, succs);
+
+            Node node = new Node(data, topLevel);
+            for (int level = 0; level <= topLevel; level++) {
+                node.next[level].set(succs[level], false);
+            }
+
+            // linking the bottom level makes the value part of the list
+            if (!preds[0].next[0].compareAndSet(succs[0], node, false, false)) {
+                continue;
+            }
+            size.incrementAndGet();
+
+            // link the upper levels, which only speed up searches
+            for (int level = 1; level <= topLevel; level++) {
+                while (true) {
+                    Node succ = succs[level];
+                    Node expected = node.next[level].getReference();
+                    if (expected != succ && !node.next[level].compareAndSet(expected, succ, false, false)) {
+                        return; // node is already being removed
+                    }
+                    if (preds[level].next[level].compareAndSet(succ, node, false, false)) {
+                        break;
+                    }
+                    find(data, cmp, preds, succs);
+                }
+            }
+            return;
+        }
+    }
+
+    /**
+     * Removes one value equal to data from the list.
+     *
+     * @param data the value to remove.
+     * @param cmp  the Comparator indicating how data in the list is organized.
+     * @return whether a value was removed.
+     */
+    public boolean remove(T data, Comparator<T> cmp) {
+        Node[] preds = newNodeArray();
+        Node[] succs = newNodeArray();
+        boolean[] marked = {false};
+
+        while (true) {
+            if (!find(data, cmp, preds, succs)) {
+                return false;
+            }
+            Node victim = succs[0];
+
+            // mark the upper levels from the top down
+            for (int level = victim.topLevel; level >= 1; level--) {
+                Node succ = victim.next[level].get(marked);
+                while (!marked[0]) {
+                    victim.next[level].compareAndSet(succ, succ, false, true);
+                    succ = victim.next[level].get(marked);
+                }
+            }
+
+            // the thread that marks the bottom level removes the value
+            Node succ = victim.next[0].get(marked);
+            while (true) {
+                boolean markedByThis = victim.next[0].compareAndSet(succ, succ, false, true);
+                succ = victim.next[0].get(marked);
+                if (markedByThis) {
+                    size.decrementAndGet();
+                    find(data, cmp, preds, succs); // unlink victim
+                    return true;
+                } else if (marked[0]) {
+                    break; // another thread removed victim, try the next equal value
+                }
+            }
+        }
+    }
+
+    /***ADDITIONAL OPERATIONS***/
+
+    /**
+     * Returns a weakly consistent iterator over all values in order.
+     *
+     * @return an iterator over the list.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new SkipListIterator(head.next[0].getReference(), null, null);
+    }
+
+    /**
+     * Returns the values from "from" to "to" (both inclusive) in order.
+     *
+     * @param from the smallest value to return.
+     * @param to   the largest value to return.
+     * @param cmp  the Comparator indicating how data in the list is ordered.
+     * @return an Iterable over the values in the range.
+     * @throws NullPointerException when from, to, or cmp is null.
+     */
+    public Iterable<T> range(T from, T to, Comparator<T> cmp) throws NullPointerException {
+        if (from == null || to == null || cmp == null) {
+            throw new NullPointerException("Range: bounds and comparator cannot be null");
+        }
+        return () -> new SkipListIterator(lowerBound(from, cmp), to, cmp);
+    }
+
+    /**
+     * Returns a String containing the data in order followed by a new line.
+     *
+     * @return a String of data in order
+     */
+    public String inOrderString() {
+        StringBuilder sb = new StringBuilder();
+        for (T value : this) {
+            sb.append(value).append("\n");
+        }
+        return sb + "\n";
+    }
+
+    /**
+     * Locates, on every level, the last node whose value is less than data
+     * (preds) and the node after it (succs), unlinking any removed nodes
+     * along the way.
+     *
+     * @param data  the value to locate.
+     * @param cmp   the Comparator indicating how data in the list is ordered.
+     * @param preds filled with the predecessor on each level.
+     * @param succs filled with the successor on each level.
+     * @return whether the bottom-level successor is equal to data.
+     */
+    private boolean find(T data, Comparator<T> cmp, Node[] preds, Node[] succs) {
+        boolean[] marked = {false};
+
+        retry:
+        while (true) {
+            Node pred = head;
+            for (int level = MAX_LEVEL; level >= 0; level--) {
+                Node curr = pred.next[level].getReference();
+                while (true) {
+                    Node succ = curr.next[level].get(marked);
+                    while (marked[0]) { // unlink removed node
+                        if (!pred.next[level].compareAndSet(curr, succ, false, false)) {
+                            continue retry;
+                        }
+                        curr = succ;
+                        succ = curr.next[level].get(marked);
+                    }
+                    if (curr != tail && cmp.compare(curr.data, data) < 0) {
+                        pred = curr;
+                        curr = succ;
+                    } else {
+                        break;
+                    }
+                }
+                preds[level] = pred;
+                succs[level] = curr;
+            }
+            return succs[0] != tail && cmp.compare(succs[0].data, data) == 0;
+        }
+    }
+
+    /**
+     * Returns the first bottom-level node whose value is not less than data,
+     * without changing the list.
+     *
+     * @param data the value to locate.
+     * @param cmp  the Comparator indicating how data in the list is ordered.
+     * @return the first node >= data, or tail.
+     */
+    private Node lowerBound(T data, Comparator<T> cmp) {
+        boolean[] marked = {false};
+        Node pred = head;
+        Node curr = null;
+
+        for (int level = MAX_LEVEL; level >= 0; level--) {
+            curr = pred.next[level].getReference();
+            while (true) {
+                Node succ = curr.next[level].get(marked);
+                while (marked[0]) { // skip removed node
+                    curr = succ;
+                    succ = curr.next[level].get(marked);
+                }
+                if (curr != tail && cmp.compare(curr.data, data) < 0) {
+                    pred = curr;
+                    curr = succ;
+                } else {
+                    break;
+                }
+            }
+        }
+
+        return curr;
+    }
+
+    /**
+     * Creates an array with one slot per level.
+     *
+     * @return a new array of MAX_LEVEL + 1 null nodes.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Node[] newNodeArray() {
+        return (Node[]) new ConcurrentSkipList.Node[MAX_LEVEL + 1];
+    }
+
+    /**
+     * Picks the level of a new node: level k with probability 1 / 2^(k+1).
+     *
+     * @return a level from 0 to MAX_LEVEL.
+     */
+    private static int randomLevel() {
+        int bits = ThreadLocalRandom.current().nextInt();
+        int level = Integer.numberOfTrailingZeros(bits | (1 << MAX_LEVEL));
+        return Math.min(level, MAX_LEVEL);
+    }
+}
@@ -0,0 +1,249 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CooccurrenceMatrix.java
+ * Defines a sparse, symmetric count of how often two int items appear in the
+ * same set (for example two interests of the same user). Only pairs that
+ * occur are stored. Also keeps how many sets contain each item, so pairs can
+ * be scored by lift and pointwise mutual information (PMI).
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class CooccurrenceMatrix {
+    private final ArrayList<HashMap<Integer, Integer>> pairCounts; // row per item: other item -> count
+    private final ArrayList<Integer> itemCounts; // number of sets containing each item
+    private int numSets;
+
+    /***CONSTRUCTORS***/
+
+    /**
+     * Default constructor for CooccurrenceMatrix creates an empty matrix.
+     */
+    public CooccurrenceMatrix() {
+        pairCounts = new ArrayList<>();
+        itemCounts = new ArrayList<>();
+        numSets = 0;
+    }
+
+    /**
+     * Builds a matrix from many sets at once. Sets are counted in parallel,
+     * each worker into its own matrix, and the matrices are then merged.
+     *
+     * @param sets the sets of distinct non-negative items.
+     * @return a new CooccurrenceMatrix of the sets.
+     */
+    public static CooccurrenceMatrix build(List<int[]> sets) {
+        return sets.parallelStream().collect(CooccurrenceMatrix::new, CooccurrenceMatrix::addSet,
+                CooccurrenceMatrix::merge);
+    }
+
+    /***ACCESSORS***/
+
+    /**
+     * Returns the number of sets counted.
+     *
+     * @return the number of sets.
+     */
+    public synchronized int getNumSets() {
+        return numSets;
+    }
+
+    /**
+     * Returns the number of sets containing an item.
+     *
+     * @param item the item.
+     * @return the number of sets with item.
+     */
+    public synchronized int getCount(int item) {
+        return item >= 0 && item < itemCounts.size() ? itemCounts.get(item) : 0;
+    }
+
+    /**
+     * Returns the number of sets containing both of two items.
+     *
+     * @param a the first item.
+     * @param b the second item.
+     * @return the number of sets with a and b.
+     */
+    public synchronized int getCount(int a, int b) {
+        if (a == b) {
+            return getCount(a);
+        }
+        if (a < 0 || a >= pairCounts.size()) {
+            return 0;
+        }
+        return pairCounts.get(a).getOrDefault(b, 0);
+    }
+
+    /**
+     * Returns the lift of two items: how many times more often they appear
+     * together than they would if they were independent.
+     * Lift above 1 means the items are related.
+     *
+     * @param a the first item.
+     * @param b the second item.
+     * @return count(a, b) * numSets / (count(a) * count(b)), or 0 if either
+     * item never appears.
+     */
+    public synchronized double getLift(int a, int b) {
+        int countA = getCount(a);
+        int countB = getCount(b);
+        if (countA == 0 || countB == 0) {
+            return 0;
+        }
+        return (double) getCount(a, b) * numSets / ((double) countA * countB);
+    }
+
+    /**
+     * Returns the pointwise mutual information of two items, the base 2
+     * logarithm of their lift.
+     *
+     * @param a the first item.
+     * @param b the second item.
+     * @return the PMI of a and b, or negative infinity if they never appear
+     * together.
+     */
+    public double getPmi(int a, int b) {
+        return Math.log(getLift(a, b)) / Math.log(2);
+    }
+
+    /**
+     * Returns up to k items that appear together with an item, most related
+     * first (by lift, then by co-occurrence count, then by item).
+     *
+     * @param item the item to find related items for.
+     * @param k    the maximum number of items to return.
+     * @return an ArrayList of related items, empty if none.
+     * @throws IllegalArgumentException when k < 0.
+     */
+    public synchronized ArrayList<Integer> getRelated(int item, int k) throws IllegalArgumentException {
+        if (k < 0) {
+            throw new IllegalArgumentException("GetRelated: k cannot be negative");
+        }
+
+        ArrayList<Integer> related = new ArrayList<>();
+        if (item < 0 || item >= pairCounts.size()) {
+            return related;
+        }
+
+        related.addAll(pairCounts.get(item).keySet());
+        related.sort((b1, b2) -> {
+            int comparison = Double.compare(getLift(item, b2), getLift(item, b1));
+            if (comparison == 0) {
+                comparison = Integer.compare(getCount(item, b2), getCount(item, b1));
+            }
+            return comparison != 0 ? comparison : Integer.compare(b1, b2);
+        });
+
+        return new ArrayList<>(related.subList(0, Math.min(k, related.size())));
+    }
+
+    /***MUTATORS***/
+
+    /**
+     * Counts a new set of items.
+     *
+     * @param set the distinct non-negative items of the set.
+     */
+    public synchronized void addSet(int[] set) {
+        for (int i = 0; i < set.length; i++) {
+            incrementItem(set[i], 1);
+            for (int j = i + 1; j < set.length; j++) {
+                incrementPair(set[i], set[j], 1);
+            }
+        }
+        numSets++;
+    }
+
+    /**
+     * Counts a new item added to a set that was already counted (or to a new
+     * set, when the set has no other items).
+     *
+     * @param otherItems the items already in the set, not including item.
+     * @param item       the item added to the set.
+     */
+    public synchronized void addToSet(int[] otherItems, int item) {
+        if (otherItems.length == 0) {
+            numSets++;
+        }
+
+        incrementItem(item, 1);
+        for (int other : otherItems) {
+            incrementPair(item, other, 1);
+        }
+    }
+
+    /**
+     * Adds all the counts of another matrix to this one.
+     *
+     * @param other the matrix to add, not changed.
+     */
+    public synchronized void merge(CooccurrenceMatrix other) {
+        synchronized (other) {
+            for (int a = 0; a < other.itemCounts.size(); a++) {
+                incrementItem(a, other.itemCounts.get(a));
+            }
+            for (int a = 0; a < other.pairCounts.size(); a++) {
+                for (Map.Entry<Integer, Integer> entry : other.pairCounts.get(a).entrySet()) {
+                    if (a < entry.getKey()) { // each pair is stored in both rows
+                        incrementPair(a, entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+            numSets += other.numSets;
+        }
+    }
+
+    /**
+     * Adds to the number of sets containing an item.
+     *
+     * @param item   the item.
+     * @param amount the amount to add.
+     */
+    private void incrementItem(int item, int amount) {
+        ensureItem(item);
+        itemCounts.set(item, itemCounts.get(item) + amount);
+    }
+
+    /**
+     * Adds to the number of sets containing a pair of different items, in
+     * both of their rows.
+     *
+     * @param a      the first item.
+     * @param b      the second item.
+     * @param amount the amount to add.
+     */
+    private void incrementPair(int a, int b, int amount) {
+        ensureItem(Math.max(a, b));
+        pairCounts.get(a).merge(b, amount, Integer::sum);
+        pairCounts.get(b).merge(a, amount, Integer::sum);
+    }
+
+    /**
+     * Makes room for items up to and including the given one.
+     *
+     * @param item the largest item to make room for.
+     * @throws IllegalArgumentException when item is negative.
+     */
+    private void ensureItem(int item) throws IllegalArgumentException {
+        if (item < 0) {
+            throw new IllegalArgumentException("CooccurrenceMatrix: items cannot be negative");
+        }
+
+        while (pairCounts.size() <= item) {
+            pairCounts.add(new HashMap<>());
+            itemCounts.add(0);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * CountLeaderboard.java
+ * Defines a set of int items with counters, kept in order from the highest
+ * count to the lowest. Items with the same count form a contiguous bucket,
+ * and the start of each bucket is remembered, so incrementing an item is a
+ * single swap to the front of its bucket: O(1) time. Reading the top k items
+ * takes O(k) time because they are already first.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class CountLeaderboard {
+    private int[] counts; // count of each item
+    private int[] order; // items by count, highest first
+    private int[] position; // index of each item in order, -1 if not added
+    private int[] bucketStart; // first index in order of each count, valid only while the bucket is non-empty
+    private int numItems;
+
+    /***CONSTRUCTORS***/
+
+    /**
+     * Default constructor for CountLeaderboard creates an empty leaderboard.
+     */
+    public CountLeaderboard() {
+        counts = new int[16];
+        order = new int[16];
+        position = new int[16];
+        Arrays.fill(position, -1);
+        bucketStart = new int[16];
+        numItems = 0;
+    }
+
+    /***ACCESSORS***/
+
+    /**
+     * Returns the number of items on the leaderboard.
+     *
+     * @return the number of items.
+     */
+    public synchronized int getSize() {
+        return numItems;
+    }
+
+    /**
+     * Returns the count of an item.
+     *
+     * @param item the item.
+     * @return the item's count, 0 if it was never added.
+     */
+    public synchronized int getCount(int item) {
+        return item >= 0 && item < position.length && position[item] != -1 ? counts[item] : 0;
+    }
+
+    /**
+     * Returns up to k items with the highest counts, highest first, in O(k) time.
+     * Items with equal counts are in no particular order.
+     *
+     * @param k the maximum number of items to return.
+     * @return an array of at most k items.
+     * @throws IllegalArgumentException when k < 0.
+     */
+    public synchronized int[] getTop(int k) throws IllegalArgumentException {
+        if (k < 0) {
+            throw new IllegalArgumentException("GetTop: k cannot be negative");
+        }
+        return Arrays.copyOf(order, Math.min(k, numItems));
+    }
+
+    /***MUTATORS***/
+
+    /**
+     * Adds an item with a count of 0, if it isn't already on the leaderboard.
+     *
+     * @param item the item to add.
+     * @throws IllegalArgumentException when item is negative.
+     */
+    public synchronized void add(int item) throws IllegalArgumentException {
+        if (item < 0) {
+            throw new IllegalArgumentException("Add: item cannot be negative");
+        }
+
+        ensureItem(item);
+        if (position[item] != -1) {
+            return;
+        }
+
+        // count 0 is the last bucket, so the new item goes at the end
+        if (!isBucketStart(0)) {
+            bucketStart[0] = numItems;
+        }
+        order[numItems] = item;
+        position[item] = numItems;
+        counts[item] = 0;
+        numItems++;
+    }
+
+    /**
+     * Adds 1 to the count of an item, adding the item first if needed, in O(1) time.
+     *
+     * @param item the item to increment.
+     * @throws IllegalArgumentException when item is negative.
+     */
+    public synchronized void increment(int item) throws IllegalArgumentException {
+        add(item);
+
+        int count = counts[item];
+        int first = bucketStart[count];
+
+        // swap item to the front of its bucket
+        int other = order[first];
+        order[first] = item;
+        order[position[item]] = other;
+        position[other] = position[item];
+        position[item] = first;
+
+        // item now ends the (count + 1) bucket, just before the rest of its old bucket
+        if (count + 1 >= bucketStart.length) {
+            bucketStart = Arrays.copyOf(bucketStart, 2 * bucketStart.length);
+        }
+        if (!isBucketStart(count + 1)) {
+            bucketStart[count + 1] = first;
+        }
+        counts[item]++;
+        bucketStart[count] = first + 1;
+    }
+
+    /**
+     * Determines whether the stored start of a bucket is still the start of a
+     * non-empty bucket. Buckets are contiguous, so the start is valid exactly
+     * when some item has that count.
+     *
+     * @param count the count of the bucket.
+     * @return whether bucketStart[count] points at an item with that count.
+     */
+    private boolean isBucketStart(int count) {
+        int start = bucketStart[count];
+        return start < numItems && counts[order[start]] == count
+                && (start == 0 || counts[order[start - 1]] != count);
+    }
+
+    /**
+     * Makes room for items up to and including the given one.
+     *
+     * @param item the largest item to make room for.
+     */
+    private void ensureItem(int item) {
+        if (item >= position.length) {
+            int length = Math.max(2 * position.length, item + 1);
+            counts = Arrays.copyOf(counts, length);
+            order = Arrays.copyOf(order, length);
+            int oldLength = position.length;
+            position = Arrays.copyOf(position, length);
+            Arrays.fill(position, oldLength, length, -1);
+        }
+    }
+}
@@ -162,6 +162,21 @@ public class Graph {
         return finishTime.get(v - 1) == null ? -1 : finishTime.get(v - 1);
     }
 
+    /**
+     * Returns the number of edges of vertex v, without copying its adjacency list
+     *
+     * @param v a vertex in the graph
+     * @return the degree of vertex v
+     * @throws IndexOutOfBoundsException when v is out of bounds
+     * @precondition 0 < v <= vertices
+     */
+    public int getDegree(int v) throws IndexOutOfBoundsException {
+        if (v <= 0 || v > vertices) {
+            throw new IndexOutOfBoundsException("Vertex out of bounds");
+        }
+        return adj.get(v - 1).getLength();
+    }
+
     /**
      * Returns the LinkedList stored at index v
      *
@@ -176,10 +191,8 @@ public class Graph {
         }
         LinkedList<Integer> adjList = new LinkedList<>();
 
-        adj.get(v - 1).positionIterator();
-        while (!adj.get(v - 1).offEnd()) {
-            adjList.addLast(adj.get(v - 1).getIterator() + 1);
-            adj.get(v - 1).advanceIterator();
+        for (int neighbor : adj.get(v - 1)) {
+            adjList.addLast(neighbor + 1);
         }
 
         return adjList;
@@ -236,11 +249,8 @@ public class Graph {
         for (int i = 0; i < vertices; i++) {
             sb.append(i + 1).append(": ");
 
-            adj.get(i).positionIterator();
-
-            while (!adj.get(i).offEnd()) {
-                sb.append(adj.get(i).getIterator() + 1).append(" ");
-                adj.get(i).advanceIterator();
+            for (int neighbor : adj.get(i)) {
+                sb.append(neighbor + 1).append(" ");
             }
 
             sb.append("\n");
@@ -280,19 +290,13 @@ public class Graph {
             int u = queue.getFirst();
             queue.removeFirst();
 
-            LinkedList<Integer> adjlist = adj.get(u);
-            adjlist.positionIterator();
-
-            while (!adjlist.offEnd()) {
-                int v = adjlist.getIterator();
-
+            for (int v : adj.get(u)) {
                 if (color.get(v) == 'W') {
                     color.set(v, 'G');
                     distance.set(v, distance.get(u) + 1);
                     parent.set(v, u);
                     queue.addLast(v);
                 }
-                adjlist.advanceIterator();
             }
 
             color.set(u, 'B');
@@ -301,6 +305,56 @@ public class Graph {
 
     }
 
+    /**
+     * Performs breadth first search from a source vertex, stopping at the
+     * given depth, and records the distance and number of shortest paths of
+     * each vertex reached in the given buffer. Unlike BFS, this does not touch
+     * the Graph's own arrays, so it only costs time for the vertices reached
+     * and several threads may run it at once, each with its own buffer.
+     *
+     * @param source   the starting vertex
+     * @param maxDepth the largest distance to explore
+     * @param buffer   the buffer to record the traversal in
+     * @return the number of vertices reached, including source
+     * @throws IndexOutOfBoundsException when the source vertex is out of bounds
+     *                                   of the graph
+     * @throws IllegalArgumentException  when maxDepth < 0
+     * @precondition source is a vertex in the graph
+     */
+    public int boundedBFS(int source, int maxDepth, TraversalBuffer buffer)
+            throws IndexOutOfBoundsException, IllegalArgumentException {
+        if (source <= 0 || source > vertices) {
+            throw new IndexOutOfBoundsException("Vertex out of bounds");
+        }
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Maximum depth cannot be negative");
+        }
+
+        buffer.begin(vertices);
+        buffer.visit(source, 0, 1);
+
+        // the reached vertices double as the queue
+        for (int head = 0; head < buffer.getNumReached(); head++) {
+            int u = buffer.getReached(head);
+            int du = buffer.getDistance(u);
+            if (du == maxDepth) {
+                break; // every vertex after this one is at maxDepth too
+            }
+
+            for (int neighbor : adj.get(u - 1)) {
+                int v = neighbor + 1;
+                int dv = buffer.getDistance(v);
+                if (dv == -1) {
+                    buffer.visit(v, du + 1, buffer.getPathCount(u));
+                } else if (dv == du + 1) {
+                    buffer.addPaths(v, buffer.getPathCount(u));
+                }
+            }
+        }
+
+        return buffer.getNumReached();
+    }
+
     /**
      * Performs depth first search on this Graph in order of vertex lists
      */
@@ -331,16 +385,11 @@ public class Graph {
         time++;
         discoverTime.set(vertex, time);
 
-        LinkedList<Integer> adjlist = adj.get(vertex);
-        adjlist.positionIterator();
-
-        while (!adjlist.offEnd()) {
-            int neighbor = adjlist.getIterator();
+        for (int neighbor : adj.get(vertex)) {
             if (color.get(neighbor) == 'W') {
                 parent.set(neighbor, vertex);
                 visit(neighbor);
             }
-            adjlist.advanceIterator();
         }
 
         color.set(vertex, 'B');
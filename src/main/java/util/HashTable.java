@@ -115,16 +115,10 @@ public class HashTable<T> {
 
         int index = hash(elmt);
 
-        LinkedList<T> list = table.get(index);
-
-        list.positionIterator();
-
-        while (!list.offEnd()) {
-            if (list.getIterator().equals(elmt)) {
-                return list.getIterator();
+        for (T element : table.get(index)) {
+            if (element.equals(elmt)) {
+                return element;
             }
-
-            list.advanceIterator();
         }
 
         return null;
@@ -145,16 +139,10 @@ public class HashTable<T> {
 
         int index = hash(elmt);
 
-        LinkedList<T> list = table.get(index);
-
-        list.positionIterator();
-
-        while (!list.offEnd()) {
-            if (list.getIterator().equals(elmt)) {
+        for (T element : table.get(index)) {
+            if (element.equals(elmt)) {
                 return index;
             }
-
-            list.advanceIterator();
         }
 
         return -1;
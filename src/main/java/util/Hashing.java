@@ -0,0 +1,42 @@
+package util;
+
+/**
+ * Hashing.java
+ * Defines the bit mixing shared by the hash-based structures, so that they
+ * all scramble values the same way.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public final class Hashing {
+
+    /***CONSTRUCTORS***/
+
+    /**
+     * Private constructor, since Hashing only has static methods.
+     */
+    private Hashing() {
+    }
+
+    /***ADDITIONAL OPERATIONS***/
+
+    /**
+     * Scrambles the bits of a value (the finalizer of MurmurHash3), so that
+     * values differing in any bit give unrelated results.
+     *
+     * @param value the value.
+     * @return the scrambled value.
+     */
+    public static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
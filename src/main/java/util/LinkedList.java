@@ -1,6 +1,9 @@
 package util;
 
+import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 /**
  * LinkedList.java
@@ -15,7 +18,7 @@ import java.util.NoSuchElementException;
  * @author Kenneth Garcia
  * @author Tu Luong
  */
-public class LinkedList<T> {
+public class LinkedList<T> implements Iterable<T> {
     private class Node {
         private T data;
         private Node next;
@@ -28,6 +31,47 @@ public class LinkedList<T> {
         }
     }
 
+    /**
+     * External iterator that keeps its own cursor, so traversing the list
+     * does not touch the list's internal iterator.
+     */
+    private class ListIterator implements Iterator<T> {
+        private Node cursor;
+
+        public ListIterator() {
+            cursor = first;
+        }
+
+        /**
+         * Returns whether there are more elements to visit.
+         *
+         * @return whether the cursor is still on a node
+         */
+        @Override
+        public boolean hasNext() {
+            return cursor != null;
+        }
+
+        /**
+         * Returns the data at the cursor and moves the cursor one node
+         * towards the last.
+         *
+         * @return the data stored in the current node
+         * @throws NoSuchElementException when there are no more elements
+         */
+        @Override
+        public T next() throws NoSuchElementException {
+            if (cursor == null) {
+                throw new NoSuchElementException("next: no more elements");
+            }
+
+            T data = cursor.data;
+            cursor = cursor.next;
+
+            return data;
+        }
+    }
+
     private int length;
     private Node first;
     private Node last;
@@ -362,6 +406,31 @@ public class LinkedList<T> {
 
     /**** ADDITIONAL OPERATIONS ****/
 
+    /**
+     * Returns an iterator over the LinkedList from first to last. The cursor
+     * is kept in the returned object, so any number of readers may traverse
+     * the same list at once as long as no thread is modifying it.
+     *
+     * @return a new iterator positioned at the first node
+     * @postcondition the internal iterator is unchanged
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new ListIterator();
+    }
+
+    /**
+     * Returns a sized, ordered Spliterator over the LinkedList so it can be
+     * traversed (or split) by a Stream.
+     *
+     * @return a Spliterator over the elements from first to last
+     * @postcondition the internal iterator is unchanged
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), length, Spliterator.ORDERED);
+    }
+
     /**
      * Re-sets LinkedList to empty as if the default constructor had just been called
      */
@@ -0,0 +1,333 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+
+/**
+ * MinHashIndex.java
+ * Defines a locality-sensitive hashing (LSH) index for finding sets with a
+ * high Jaccard similarity to a given set without comparing it to every set.
+ * Each set (identified by a non-negative int id) is summarized by a MinHash
+ * signature: the minimum of each of numBands * rowsPerBand hash functions
+ * over its items. Two sets agree on one minimum with probability equal to
+ * their Jaccard similarity, so the fraction of agreeing minimums estimates it.
+ * The signature is cut into bands of rowsPerBand minimums, and sets whose
+ * band matches land in the same bucket; only sets sharing a bucket are
+ * candidates, which makes similar sets likely and dissimilar sets unlikely
+ * to be compared. Adding an item to a set only lowers some minimums, so the
+ * index is updated incrementally.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class MinHashIndex {
+    private static final long SEED = 0x5DEECE66DL; // fixed, so signatures are the same in every run
+
+    private final int numBands;
+    private final int rowsPerBand;
+    private final long[] hashSeeds; // one per hash function
+    private final ArrayList<int[]> signatures; // signature of each id, null if the id has no items
+    private final ArrayList<HashMap<Long, Bucket>> bands; // band key -> ids with that band
+    private int numSets;
+    private int[] seenStamps; // query that last saw each id, to skip duplicate candidates
+    private int stamp;
+
+    /**
+     * Private static class for the ids in one bucket, kept in an int array.
+     */
+    private static class Bucket {
+        private int[] ids = new int[2];
+        private int size = 0;
+
+        /**
+         * Adds an id to the bucket.
+         *
+         * @param id the id to add.
+         */
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, 2 * size);
+            }
+            ids[size++] = id;
+        }
+
+        /**
+         * Removes an id from the bucket, moving the last id into its place.
+         *
+         * @param id the id to remove.
+         */
+        void remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /***CONSTRUCTORS***/
+
+    /**
+     * Creates an empty index. More bands find less similar sets; more rows
+     * per band make matches stricter. Sets with similarity s become
+     * candidates with probability 1 - (1 - s^rowsPerBand)^numBands.
+     *
+     * @param numBands    the number of bands.
+     * @param rowsPerBand the number of minimums per band.
+     * @throws IllegalArgumentException when numBands or rowsPerBand < 1.
+     */
+    public MinHashIndex(int numBands, int rowsPerBand) throws IllegalArgumentException {
+        if (numBands < 1 || rowsPerBand < 1) {
+            throw new IllegalArgumentException("MinHashIndex: numBands and rowsPerBand must be at least 1");
+        }
+
+        this.numBands = numBands;
+        this.rowsPerBand = rowsPerBand;
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        hashSeeds = new long[numBands * rowsPerBand];
+        for (int i = 0; i < hashSeeds.length; i++) {
+            hashSeeds[i] = random.nextLong();
+        }
+
+        signatures = new ArrayList<>();
+        bands = new ArrayList<>(numBands);
+        for (int b = 0; b < numBands; b++) {
+            bands.add(new HashMap<>());
+        }
+        numSets = 0;
+        seenStamps = new int[16];
+        stamp = 0;
+    }
+
+    /***ACCESSORS***/
+
+    /**
+     * Returns the number of sets with at least one item.
+     *
+     * @return the number of sets.
+     */
+    public synchronized int getSize() {
+        return numSets;
+    }
+
+    /**
+     * Estimates the Jaccard similarity of two sets from their signatures.
+     *
+     * @param id1 the id of the first set.
+     * @param id2 the id of the second set.
+     * @return the fraction of matching minimums, 0 if either set is empty.
+     */
+    public synchronized double estimateSimilarity(int id1, int id2) {
+        int[] signature1 = getSignature(id1);
+        int[] signature2 = getSignature(id2);
+        if (signature1 == null || signature2 == null) {
+            return 0;
+        }
+        return matchingFraction(signature1, signature2);
+    }
+
+    /**
+     * Finds up to k sets most similar to a set, by estimated similarity,
+     * among the sets sharing a bucket with it. Ties are broken by smaller id.
+     *
+     * @param id            the id of the set.
+     * @param k             the maximum number of sets to return.
+     * @param minSimilarity the smallest estimated similarity to return.
+     * @return the ids of the similar sets, most similar first, not including id.
+     * @throws IllegalArgumentException when k < 0.
+     */
+    public synchronized int[] findSimilar(int id, int k, double minSimilarity) throws IllegalArgumentException {
+        if (k < 0) {
+            throw new IllegalArgumentException("FindSimilar: k cannot be negative");
+        }
+
+        int[] signature = getSignature(id);
+        if (signature == null) {
+            return new int[0];
+        }
+
+        nextStamp();
+        markSeen(id);
+        TopKHeap heap = new TopKHeap(k);
+        for (int b = 0; b < numBands; b++) {
+            Bucket bucket = bands.get(b).get(bandKey(signature, b));
+            for (int i = 0; i < bucket.size; i++) {
+                int candidate = bucket.ids[i];
+                if (markSeen(candidate)) {
+                    double similarity = matchingFraction(signature, signatures.get(candidate));
+                    if (similarity >= minSimilarity) {
+                        heap.offer(candidate, similarity);
+                    }
+                }
+            }
+        }
+
+        heap.sort();
+        int[] similar = new int[heap.getSize()];
+        for (int i = 0; i < similar.length; i++) {
+            similar[i] = heap.getId(i);
+        }
+        return similar;
+    }
+
+    /***MUTATORS***/
+
+    /**
+     * Adds an item to a set, lowering its minimums and moving it to the
+     * buckets of the bands that changed.
+     *
+     * @param id   the id of the set.
+     * @param item the item to add.
+     * @throws IllegalArgumentException when id is negative.
+     */
+    public synchronized void add(int id, int item) throws IllegalArgumentException {
+        addAll(id, new int[]{item});
+    }
+
+    /**
+     * Adds several items to a set, updating its buckets once.
+     *
+     * @param id    the id of the set.
+     * @param items the items to add.
+     * @throws IllegalArgumentException when id is negative.
+     */
+    public synchronized void addAll(int id, int[] items) throws IllegalArgumentException {
+        if (id < 0) {
+            throw new IllegalArgumentException("AddAll: id cannot be negative");
+        }
+        if (items.length == 0) {
+            return;
+        }
+
+        while (signatures.size() <= id) {
+            signatures.add(null);
+        }
+        int[] signature = signatures.get(id);
+        int[] old = signature == null ? null : signature.clone();
+        if (signature == null) {
+            signature = new int[hashSeeds.length];
+            Arrays.fill(signature, Integer.MAX_VALUE);
+            signatures.set(id, signature);
+            numSets++;
+        }
+
+        for (int item : items) {
+            for (int h = 0; h < hashSeeds.length; h++) {
+                signature[h] = Math.min(signature[h], hash(item, h));
+            }
+        }
+
+        // move the set between buckets only for the bands that changed
+        for (int b = 0; b < numBands; b++) {
+            long key = bandKey(signature, b);
+            if (old != null) {
+                long oldKey = bandKey(old, b);
+                if (oldKey == key) {
+                    continue;
+                }
+                Bucket oldBucket = bands.get(b).get(oldKey);
+                oldBucket.remove(id);
+                if (oldBucket.size == 0) {
+                    bands.get(b).remove(oldKey);
+                }
+            }
+            bands.get(b).computeIfAbsent(key, k -> new Bucket()).add(id);
+        }
+    }
+
+    /**
+     * Returns the signature of a set.
+     *
+     * @param id the id of the set.
+     * @return the signature, or null if the set has no items.
+     */
+    private int[] getSignature(int id) {
+        return id >= 0 && id < signatures.size() ? signatures.get(id) : null;
+    }
+
+    /**
+     * Returns the fraction of positions where two signatures match.
+     *
+     * @param signature1 the first signature.
+     * @param signature2 the second signature.
+     * @return the estimated Jaccard similarity.
+     */
+    private static double matchingFraction(int[] signature1, int[] signature2) {
+        int matches = 0;
+        for (int h = 0; h < signature1.length; h++) {
+            if (signature1[h] == signature2[h]) {
+                matches++;
+            }
+        }
+        return (double) matches / signature1.length;
+    }
+
+    /**
+     * Computes the bucket key of one band of a signature.
+     *
+     * @param signature the signature.
+     * @param band      the band.
+     * @return the key of the band's minimums.
+     */
+    private long bandKey(int[] signature, int band) {
+        int start = band * rowsPerBand;
+        if (rowsPerBand <= 2) { // exact key, no collisions
+            long key = signature[start] & 0xFFFFFFFFL;
+            return rowsPerBand == 1 ? key : key << 32 | (signature[start + 1] & 0xFFFFFFFFL);
+        }
+
+        long key = band;
+        for (int r = start; r < start + rowsPerBand; r++) {
+            key = Hashing.mix(key ^ signature[r]);
+        }
+        return key;
+    }
+
+    /**
+     * Computes one of the hash functions of an item.
+     *
+     * @param item the item.
+     * @param h    the index of the hash function.
+     * @return the hash of item.
+     */
+    private int hash(int item, int h) {
+        return (int) (Hashing.mix(item ^ hashSeeds[h]) >>> 32);
+    }
+
+    /**
+     * Starts a new query, forgetting which ids the last one saw.
+     */
+    private void nextStamp() {
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(seenStamps, 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * Marks an id as seen by the current query.
+     *
+     * @param id the id.
+     * @return true if id was not already seen.
+     */
+    private boolean markSeen(int id) {
+        if (id >= seenStamps.length) {
+            seenStamps = Arrays.copyOf(seenStamps, Math.max(2 * seenStamps.length, id + 1));
+        }
+        if (seenStamps[id] == stamp) {
+            return false;
+        }
+        seenStamps[id] = stamp;
+        return true;
+    }
+}
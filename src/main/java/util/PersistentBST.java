@@ -0,0 +1,430 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * PersistentBST.java
+ * Defines an immutable, self-balancing (AVL) binary search tree.
+ * Insert and remove never change an existing tree. Instead they return a new
+ * tree that copies only the O(log n) nodes on the changed path and shares
+ * every other subtree with the old tree, so any number of readers can keep
+ * using an old version while a writer publishes a new one.
+ * The rotations are not shared with BST: BST relinks its mutable nodes in
+ * place, which here would change nodes that older versions still use, so
+ * every rotation builds new nodes instead.
+ *
+ * @param <T> a generic data type
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class PersistentBST<T> implements Iterable<T> {
+    /**
+     * Private static class for an immutable node. It is static so that a
+     * node doesn't refer to the version that created it, which would keep
+     * every old version (and its root) reachable from the nodes they share.
+     *
+     * @param <T> a generic data type
+     */
+    private static class Node<T> {
+        private final T data;
+        private final Node<T> left;
+        private final Node<T> right;
+        private final int height;
+        private final int size;
+
+        /**
+         * Creates a node over two subtrees, computing its height and size.
+         *
+         * @param data  the data of the node.
+         * @param left  the left subtree.
+         * @param right the right subtree.
+         */
+        public Node(T data, Node<T> left, Node<T> right) {
+            this.data = data;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+        }
+    }
+
+    private final Node<T> root;
+
+    /***CONSTRUCTORS***/
+
+    /**
+     * Default constructor for PersistentBST creates an empty tree.
+     */
+    public PersistentBST() {
+        root = null;
+    }
+
+    /**
+     * Creates a PersistentBST of minimal height holding the same values as
+     * the given BST. Takes linear time.
+     *
+     * @param bst the BST whose values to copy, may be null.
+     */
+    @SuppressWarnings("unchecked")
+    public PersistentBST(BST<T> bst) {
+        if (bst == null || bst.isEmpty()) {
+            root = null;
+            return;
+        }
+
+        T[] values = (T[]) new Object[bst.getSize()];
+        int i = 0;
+        for (T value : bst) {
+            values[i++] = value;
+        }
+        root = build(0, values.length - 1, values);
+    }
+
+    /**
+     * Private constructor wrapping an existing root.
+     *
+     * @param root the root of the new version.
+     */
+    private PersistentBST(Node<T> root) {
+        this.root = root;
+    }
+
+    /**
+     * Recursive helper for the BST constructor.
+     *
+     * @param begin  beginning array index.
+     * @param end    ending array index.
+     * @param values sorted array of values.
+     * @return the newly created Node.
+     */
+    private static <T> Node<T> build(int begin, int end, T[] values) {
+        if (begin > end) {
+            return null;
+        }
+
+        int mid = begin + (end - begin) / 2;
+        return new Node<>(values[mid], build(begin, mid - 1, values), build(mid + 1, end, values));
+    }
+
+    /***ACCESSORS***/
+
+    /**
+     * Determines whether the tree is empty.
+     *
+     * @return whether the tree is empty.
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Returns the current size of the tree (number of nodes) in constant time.
+     *
+     * @return the size of the tree.
+     */
+    public int getSize() {
+        return size(root);
+    }
+
+    /**
+     * Returns the height of the tree by counting edges, in constant time.
+     *
+     * @return the height of the tree, or -1 when it is empty.
+     */
+    public int getHeight() {
+        return height(root);
+    }
+
+    /**
+     * Searches for a specified value in the tree.
+     *
+     * @param data the value to search for.
+     * @param cmp  the Comparator that indicates the way
+     *             the data in the tree was ordered.
+     * @return the data stored in that Node of the tree, otherwise null.
+     */
+    public T search(T data, Comparator<T> cmp) {
+        Node<T> node = root;
+
+        while (node != null) {
+            int comparison = cmp.compare(data, node.data);
+            if (comparison == 0) {
+                return node.data;
+            }
+            node = comparison < 0 ? node.left : node.right;
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns every value in the tree that the Comparator considers equal
+     * to the given data, in order, in O(log n + k) time for k matches.
+     *
+     * @param data the value to search for.
+     * @param cmp  the Comparator that indicates the way
+     *             the data in the tree was ordered.
+     * @return an ArrayList of all matching values, empty if none match.
+     */
+    public ArrayList<T> searchAll(T data, Comparator<T> cmp) {
+        ArrayList<T> results = new ArrayList<>();
+        searchAll(data, root, cmp, results);
+        return results;
+    }
+
+    /**
+     * Helper method for the searchAll method.
+     *
+     * @param data    the data to search for.
+     * @param node    the current node to check.
+     * @param cmp     the Comparator that determines how the tree is organized.
+     * @param results the ArrayList collecting the matching values.
+     */
+    private static <T> void searchAll(T data, Node<T> node, Comparator<T> cmp, ArrayList<T> results) {
+        if (node == null) {
+            return;
+        }
+
+        int comparison = cmp.compare(data, node.data);
+
+        if (comparison < 0) {
+            searchAll(data, node.left, cmp, results);
+        } else if (comparison > 0) {
+            searchAll(data, node.right, cmp, results);
+        } else {
+            searchAll(data, node.left, cmp, results);
+            results.add(node.data);
+            searchAll(data, node.right, cmp, results);
+        }
+    }
+
+    /***MUTATORS***/
+
+    /**
+     * Returns a new version of the tree with data inserted.
+     * This tree is not changed.
+     *
+     * @param data the data to insert.
+     * @param cmp  the Comparator indicating how data in the tree is ordered.
+     * @return the new version of the tree.
+     */
+    public PersistentBST<T> insert(T data, Comparator<T> cmp) {
+        return new PersistentBST<>(insert(data, root, cmp));
+    }
+
+    /**
+     * Helper method to insert. Copies the nodes on the path to the
+     * insert location.
+     *
+     * @param data the data to insert.
+     * @param node the current node.
+     * @param cmp  the Comparator indicating how data in the tree is ordered.
+     * @return the root of the new subtree.
+     */
+    private static <T> Node<T> insert(T data, Node<T> node, Comparator<T> cmp) {
+        if (node == null) {
+            return new Node<>(data, null, null);
+        }
+
+        if (cmp.compare(data, node.data) < 0) {
+            return balance(node.data, insert(data, node.left, cmp), node.right);
+        }
+        return balance(node.data, node.left, insert(data, node.right, cmp));
+    }
+
+    /**
+     * Returns a new version of the tree with one value equal to data removed.
+     * This tree is not changed.
+     *
+     * @param data the value to remove.
+     * @param cmp  the Comparator indicating how data in the tree is organized.
+     * @return the new version of the tree, or this tree when data is not found.
+     */
+    public PersistentBST<T> remove(T data, Comparator<T> cmp) {
+        Node<T> newRoot = remove(data, root, cmp);
+        return newRoot == root ? this : new PersistentBST<>(newRoot);
+    }
+
+    /**
+     * Helper method to the remove method. Copies the nodes on the path to the
+     * removed value, and returns node itself when nothing was removed.
+     *
+     * @param data the data to remove.
+     * @param node the current node.
+     * @param cmp  the Comparator indicating how data in the tree is organized.
+     * @return the root of the new subtree.
+     */
+    private static <T> Node<T> remove(T data, Node<T> node, Comparator<T> cmp) {
+        if (node == null) {
+            return null;
+        }
+
+        int comp = cmp.compare(data, node.data);
+
+        if (comp < 0) {
+            Node<T> left = remove(data, node.left, cmp);
+            return left == node.left ? node : balance(node.data, left, node.right);
+        } else if (comp > 0) {
+            Node<T> right = remove(data, node.right, cmp);
+            return right == node.right ? node : balance(node.data, node.left, right);
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        }
+
+        Node<T> min = node.right;
+        while (min.left != null) {
+            min = min.left;
+        }
+        return balance(min.data, node.left, removeMin(node.right));
+    }
+
+    /**
+     * Removes the smallest node of a subtree.
+     *
+     * @param node the root of the subtree.
+     * @return the root of the new subtree.
+     */
+    private static <T> Node<T> removeMin(Node<T> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.data, removeMin(node.left), node.right);
+    }
+
+    /***ADDITIONAL OPERATIONS***/
+
+    /**
+     * Returns a lazy in-order iterator over this version of the tree.
+     * Because the tree never changes, it is safe to iterate while other
+     * threads insert into or remove from newer versions.
+     *
+     * @return an in-order iterator over the tree.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private final LinkedList<Node<T>> stack = pushLeft(root, new LinkedList<>());
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public T next() throws NoSuchElementException {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException("next: no more elements");
+                }
+
+                Node<T> node = stack.getFirst();
+                stack.removeFirst();
+                pushLeft(node.right, stack);
+                return node.data;
+            }
+        };
+    }
+
+    /**
+     * Pushes a node and all its left descendants onto a stack.
+     *
+     * @param node  the node to start from.
+     * @param stack the stack to push onto.
+     * @return the stack.
+     */
+    private static <T> LinkedList<Node<T>> pushLeft(Node<T> node, LinkedList<Node<T>> stack) {
+        for (Node<T> temp = node; temp != null; temp = temp.left) {
+            stack.addFirst(temp);
+        }
+        return stack;
+    }
+
+    /**
+     * Returns a String containing the data in order followed by a new line.
+     *
+     * @return a String of data in order
+     */
+    public String inOrderString() {
+        StringBuilder sb = new StringBuilder();
+        for (T value : this) {
+            sb.append(value).append("\n");
+        }
+        return sb + "\n";
+    }
+
+    /**
+     * Creates a new node from the given data and subtrees, rotating so that
+     * the heights of its subtrees differ by at most one.
+     *
+     * @param data  the data of the new node.
+     * @param left  the left subtree.
+     * @param right the right subtree.
+     * @return the root of the balanced subtree.
+     */
+    private static <T> Node<T> balance(T data, Node<T> left, Node<T> right) {
+        int balance = height(left) - height(right);
+
+        if (balance > 1) { // left heavy
+            if (height(left.left) < height(left.right)) {
+                left = rotateLeft(left);
+            }
+            return new Node<>(left.data, left.left, new Node<>(data, left.right, right));
+        } else if (balance < -1) { // right heavy
+            if (height(right.right) < height(right.left)) {
+                right = rotateRight(right);
+            }
+            return new Node<>(right.data, new Node<>(data, left, right.left), right.right);
+        }
+
+        return new Node<>(data, left, right);
+    }
+
+    /**
+     * Returns a copy of a subtree rotated to the right.
+     *
+     * @param node the root of the subtree.
+     * @return the new root of the subtree.
+     */
+    private static <T> Node<T> rotateRight(Node<T> node) {
+        return new Node<>(node.left.data, node.left.left, new Node<>(node.data, node.left.right, node.right));
+    }
+
+    /**
+     * Returns a copy of a subtree rotated to the left.
+     *
+     * @param node the root of the subtree.
+     * @return the new root of the subtree.
+     */
+    private static <T> Node<T> rotateLeft(Node<T> node) {
+        return new Node<>(node.right.data, new Node<>(node.data, node.left, node.right.left), node.right.right);
+    }
+
+    /**
+     * Returns the stored height of a node.
+     *
+     * @param node the node whose height to return.
+     * @return the height of node, or -1 when node is null.
+     */
+    private static int height(Node<?> node) {
+        return node == null ? -1 : node.height;
+    }
+
+    /**
+     * Returns the stored size of the subtree rooted at a node.
+     *
+     * @param node the root of the subtree.
+     * @return the number of nodes in the subtree, or 0 when node is null.
+     */
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
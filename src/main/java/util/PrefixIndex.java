@@ -0,0 +1,220 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * PrefixIndex.java
+ * Defines a sorted-array index from normalized String keys to values, used
+ * for search-as-you-type. The entries are always kept sorted by key, so
+ * finding the values whose keys start with a prefix takes a binary search
+ * plus the number of results read.
+ *
+ * @param <T> a generic data type
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class PrefixIndex<T> {
+    private class Entry {
+        private final String key;
+        private final T value;
+
+        public Entry(String key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final ArrayList<Entry> entries;
+    private final Comparator<Entry> keyComparator;
+
+    /***CONSTRUCTORS***/
+
+    /**
+     * Creates an empty PrefixIndex.
+     *
+     * @param initialCapacity the number of keys to make room for.
+     * @throws IllegalArgumentException when initialCapacity < 0.
+     */
+    public PrefixIndex(int initialCapacity) throws IllegalArgumentException {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity cannot be negative.");
+        }
+
+        entries = new ArrayList<>(initialCapacity);
+        keyComparator = (e1, e2) -> e1.key.compareTo(e2.key);
+    }
+
+    /***ACCESSORS***/
+
+    /**
+     * Returns the number of keys in the index.
+     *
+     * @return the number of keys.
+     */
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * Returns up to limit distinct values whose keys start with the given
+     * prefix (after normalization), in key order.
+     *
+     * @param prefix the start of the key to search for.
+     * @param limit  the maximum number of values to return.
+     * @return an ArrayList of matching values, empty if none match.
+     * @throws NullPointerException     when prefix is null.
+     * @throws IllegalArgumentException when limit < 0.
+     */
+    public synchronized ArrayList<T> findByPrefix(String prefix, int limit)
+            throws NullPointerException, IllegalArgumentException {
+        if (prefix == null) {
+            throw new NullPointerException("FindByPrefix: prefix cannot be null");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("FindByPrefix: limit cannot be negative");
+        }
+
+        String key = normalize(prefix);
+        ArrayList<T> results = new ArrayList<>(Math.min(limit, 16));
+
+        for (int i = lowerBound(key); i < entries.size() && results.size() < limit; i++) {
+            Entry entry = entries.get(i);
+            if (!entry.key.startsWith(key)) {
+                break;
+            }
+            if (!containsValue(results, entry.value)) { // a value may be indexed under several keys
+                results.add(entry.value);
+            }
+        }
+
+        return results;
+    }
+
+    /***MUTATORS***/
+
+    /**
+     * Adds a value to the index under the given key, at its sorted position
+     * (after any equal keys). The key is normalized (trimmed, lower case,
+     * single spaces). Takes O(log n) comparisons and one array shift.
+     *
+     * @param key   the key to index the value under.
+     * @param value the value to add.
+     * @throws NullPointerException when key is null.
+     */
+    public synchronized void add(String key, T value) throws NullPointerException {
+        if (key == null) {
+            throw new NullPointerException("Add: key cannot be null");
+        }
+
+        String normalized = normalize(key);
+        entries.add(upperBound(normalized), new Entry(normalized, value));
+    }
+
+    /**
+     * Adds many values at once, sorting the entries a single time, which is
+     * faster than adding them one by one when loading an index.
+     *
+     * @param keys   the keys to index the values under.
+     * @param values the values, values.get(i) indexed under keys.get(i).
+     * @throws NullPointerException     when a key is null.
+     * @throws IllegalArgumentException when keys and values differ in size.
+     */
+    public synchronized void addAll(List<String> keys, List<T> values)
+            throws NullPointerException, IllegalArgumentException {
+        if (keys.size() != values.size()) {
+            throw new IllegalArgumentException("AddAll: keys and values must have the same size");
+        }
+
+        ArrayList<Entry> added = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            if (keys.get(i) == null) {
+                throw new NullPointerException("AddAll: key cannot be null");
+            }
+            added.add(new Entry(normalize(keys.get(i)), values.get(i)));
+        }
+
+        entries.addAll(added);
+        entries.sort(keyComparator); // stable merge sort, so equal keys keep the order they were added in
+    }
+
+    /***ADDITIONAL OPERATIONS***/
+
+    /**
+     * Normalizes a key by trimming it, converting it to lower case, and
+     * replacing runs of whitespace with a single space.
+     *
+     * @param key the key to normalize.
+     * @return the normalized key.
+     */
+    public static String normalize(String key) {
+        return key.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the index of the first entry whose key is not less than key.
+     *
+     * @param key the normalized key to search for.
+     * @return the insertion point of key, from 0 to the number of entries.
+     */
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = entries.size();
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries.get(mid).key.compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Returns the index of the first entry whose key is greater than key.
+     *
+     * @param key the normalized key to search for.
+     * @return the position after every entry with a key not greater than key.
+     */
+    private int upperBound(String key) {
+        int low = 0;
+        int high = entries.size();
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries.get(mid).key.compareTo(key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Determines whether a value (by reference) is already in the results.
+     *
+     * @param results the values collected so far.
+     * @param value   the value to look for.
+     * @return whether value is already in results.
+     */
+    private boolean containsValue(ArrayList<T> results, T value) {
+        for (T result : results) {
+            if (result == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
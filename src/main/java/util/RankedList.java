@@ -0,0 +1,50 @@
+package util;
+
+/**
+ * RankedList.java
+ * Defines a read-only list of (id, score) pairs ordered from best to worst,
+ * which may hold only the first pairs of a longer ranking.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public interface RankedList {
+    /**
+     * Returns the number of pairs in the list.
+     *
+     * @return the number of pairs.
+     */
+    int getSize();
+
+    /**
+     * Returns the id of a pair.
+     *
+     * @param index the rank of the pair, 0 for the best.
+     * @return the id of the pair.
+     * @precondition 0 <= index < getSize()
+     * @throws IndexOutOfBoundsException when the precondition is violated.
+     */
+    int getId(int index) throws IndexOutOfBoundsException;
+
+    /**
+     * Returns the score of a pair.
+     *
+     * @param index the rank of the pair, 0 for the best.
+     * @return the score of the pair.
+     * @precondition 0 <= index < getSize()
+     * @throws IndexOutOfBoundsException when the precondition is violated.
+     */
+    double getScore(int index) throws IndexOutOfBoundsException;
+
+    /**
+     * Determines whether the list holds the whole ranking.
+     *
+     * @return false if more pairs rank after the last one in the list.
+     */
+    boolean isComplete();
+}
@@ -0,0 +1,341 @@
+package util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * RankedListFile.java
+ * Defines a compact binary file holding one RankedList per int key, which is
+ * memory-mapped when opened so lists are read straight from the page cache
+ * without being parsed or copied onto the heap. The layout is
+ * <pre>
+ *   header:  magic, version, numKeys, 0 (ints), fingerprint, createdAt (longs)
+ *   starts:  numKeys + 1 ints, the index of the first pair of each key
+ *   flags:   numKeys bytes, 1 if the key's list is complete, padded to 8 bytes
+ *   ids:     one int per pair, padded to 8 bytes
+ *   scores:  one double per pair
+ * </pre>
+ * The fingerprint is chosen by the writer to tell whether the file still
+ * matches the data it was computed from. A mapped file is read-only and may
+ * be read by several threads at once.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class RankedListFile {
+    private static final int MAGIC = 0x524C5354; // "RLST"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private final MappedByteBuffer buffer;
+    private final int numKeys;
+    private final long fingerprint;
+    private final long createdAt;
+    private final int flagsOffset;
+    private final int idsOffset;
+    private final int scoresOffset;
+
+    /***CONSTRUCTORS***/
+
+    /**
+     * Creates a RankedListFile over a mapped file whose header was checked.
+     *
+     * @param buffer the mapped file.
+     */
+    private RankedListFile(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        numKeys = buffer.getInt(8);
+        fingerprint = buffer.getLong(16);
+        createdAt = buffer.getLong(24);
+
+        int numPairs = buffer.getInt(HEADER_BYTES + 4 * numKeys);
+        flagsOffset = HEADER_BYTES + 4 * (numKeys + 1);
+        idsOffset = align(flagsOffset + numKeys);
+        scoresOffset = align(idsOffset + 4 * numPairs);
+    }
+
+    /**
+     * Memory-maps a file written by write().
+     *
+     * @param file the path of the file.
+     * @return the mapped file.
+     * @throws IOException when the file cannot be read or is not a valid RankedListFile.
+     */
+    public static RankedListFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES + 4 || length > Integer.MAX_VALUE) {
+                throw new IOException("RankedListFile: invalid file length " + length);
+            }
+
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("RankedListFile: " + file + " is not a ranked list file");
+            }
+
+            int numKeys = buffer.getInt(8);
+            if (numKeys < 0 || HEADER_BYTES + 4L * (numKeys + 1) > length) {
+                throw new IOException("RankedListFile: invalid number of keys " + numKeys);
+            }
+            int numPairs = buffer.getInt(HEADER_BYTES + 4 * numKeys);
+            long expected = align(align(HEADER_BYTES + 4L * (numKeys + 1) + numKeys) + 4L * numPairs)
+                    + 8L * numPairs;
+            if (numPairs < 0 || expected != length) {
+                throw new IOException("RankedListFile: file length does not match its header");
+            }
+
+            return new RankedListFile(buffer);
+        }
+    }
+
+    /***ACCESSORS***/
+
+    /**
+     * Returns the number of keys, one more than the largest key.
+     *
+     * @return the number of keys.
+     */
+    public int getNumKeys() {
+        return numKeys;
+    }
+
+    /**
+     * Returns the fingerprint given when the file was written.
+     *
+     * @return the fingerprint.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns when the file was written.
+     *
+     * @return the time in milliseconds since the epoch.
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Returns the list of a key, read from the mapped file on each access.
+     *
+     * @param key the key.
+     * @return the key's list, empty and complete if key is out of range.
+     */
+    public RankedList getList(int key) {
+        if (key < 0 || key >= numKeys) {
+            return new MappedList(0, 0, true);
+        }
+
+        int start = buffer.getInt(HEADER_BYTES + 4 * key);
+        int end = buffer.getInt(HEADER_BYTES + 4 * (key + 1));
+        return new MappedList(start, end - start, buffer.get(flagsOffset + key) != 0);
+    }
+
+    /***ADDITIONAL OPERATIONS***/
+
+    /**
+     * Writes one ranked list per key to a file, replacing it atomically so
+     * readers never see a partly written file. Key i's list is made of
+     * ids[i] and scores[i], which may both be null for an empty list.
+     *
+     * @param file        the path of the file.
+     * @param fingerprint a value identifying the data the lists were computed from.
+     * @param ids         the ids of each key's list, best first.
+     * @param scores      the scores of each key's list.
+     * @param complete    whether each key's list holds its whole ranking.
+     * @throws IOException              when the file cannot be written.
+     * @throws IllegalArgumentException when the arrays' lengths don't match.
+     */
+    public static void write(Path file, long fingerprint, int[][] ids, double[][] scores, boolean[] complete)
+            throws IOException, IllegalArgumentException {
+        int numKeys = ids.length;
+        if (scores.length != numKeys || complete.length != numKeys) {
+            throw new IllegalArgumentException("Write: ids, scores and complete must have the same length");
+        }
+
+        long numPairs = 0;
+        for (int key = 0; key < numKeys; key++) {
+            int length = ids[key] == null ? 0 : ids[key].length;
+            if ((scores[key] == null ? 0 : scores[key].length) != length) {
+                throw new IllegalArgumentException("Write: ids and scores of key " + key + " differ in length");
+            }
+            numPairs += length;
+        }
+        if (align(align(HEADER_BYTES + 4L * (numKeys + 1) + numKeys) + 4L * numPairs) + 8L * numPairs
+                > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Write: too many pairs for one file");
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(numKeys);
+            out.writeInt(0);
+            out.writeLong(fingerprint);
+            out.writeLong(System.currentTimeMillis());
+
+            int start = 0;
+            for (int key = 0; key < numKeys; key++) {
+                out.writeInt(start);
+                start += ids[key] == null ? 0 : ids[key].length;
+            }
+            out.writeInt(start);
+
+            for (int key = 0; key < numKeys; key++) {
+                out.writeByte(complete[key] ? 1 : 0);
+            }
+            pad(out);
+
+            for (int[] keyIds : ids) {
+                if (keyIds != null) {
+                    for (int id : keyIds) {
+                        out.writeInt(id);
+                    }
+                }
+            }
+            pad(out);
+
+            for (double[] keyScores : scores) {
+                if (keyScores != null) {
+                    for (double score : keyScores) {
+                        out.writeDouble(score);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Rounds a byte offset up to a multiple of 8.
+     *
+     * @param offset the offset.
+     * @return the aligned offset.
+     */
+    private static int align(int offset) {
+        return (offset + 7) & ~7;
+    }
+
+    /**
+     * Rounds a byte offset up to a multiple of 8.
+     *
+     * @param offset the offset.
+     * @return the aligned offset.
+     */
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    /**
+     * Writes zero bytes until the stream's length is a multiple of 8.
+     *
+     * @param out the stream.
+     * @throws IOException when the stream cannot be written.
+     */
+    private static void pad(DataOutputStream out) throws IOException {
+        while (out.size() % 8 != 0) {
+            out.writeByte(0);
+        }
+    }
+
+    /**
+     * Private inner class for the list of one key, a window of the mapped file.
+     */
+    private class MappedList implements RankedList {
+        private final int start;
+        private final int size;
+        private final boolean complete;
+
+        /**
+         * Creates a view of the pairs from start to start + size - 1.
+         *
+         * @param start    the index of the first pair.
+         * @param size     the number of pairs.
+         * @param complete whether the list holds its whole ranking.
+         */
+        MappedList(int start, int size, boolean complete) {
+            this.start = start;
+            this.size = size;
+            this.complete = complete;
+        }
+
+        /**
+         * Returns the number of pairs in the list.
+         *
+         * @return the number of pairs.
+         */
+        @Override
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Returns the id of a pair, read from the mapped file.
+         *
+         * @param index the rank of the pair, 0 for the best.
+         * @return the id of the pair.
+         * @throws IndexOutOfBoundsException when index is out of bounds.
+         */
+        @Override
+        public int getId(int index) throws IndexOutOfBoundsException {
+            checkIndex(index);
+            return buffer.getInt(idsOffset + 4 * (start + index));
+        }
+
+        /**
+         * Returns the score of a pair, read from the mapped file.
+         *
+         * @param index the rank of the pair, 0 for the best.
+         * @return the score of the pair.
+         * @throws IndexOutOfBoundsException when index is out of bounds.
+         */
+        @Override
+        public double getScore(int index) throws IndexOutOfBoundsException {
+            checkIndex(index);
+            return buffer.getDouble(scoresOffset + 8 * (start + index));
+        }
+
+        /**
+         * Determines whether the list holds the whole ranking.
+         *
+         * @return false if more pairs rank after the last one in the list.
+         */
+        @Override
+        public boolean isComplete() {
+            return complete;
+        }
+
+        /**
+         * Checks that an index refers to a pair of this list.
+         *
+         * @param index the index to check.
+         * @throws IndexOutOfBoundsException when index is out of bounds.
+         */
+        private void checkIndex(int index) throws IndexOutOfBoundsException {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index out of bounds");
+            }
+        }
+    }
+}
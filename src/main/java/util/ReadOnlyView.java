@@ -0,0 +1,160 @@
+package util;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * ReadOnlyView.java
+ * Defines an unmodifiable view of a ConcurrentSkipList. The view copies
+ * nothing: it reads the live skip list, so it always shows the current
+ * values, and it can hide one value (by reference) without removing it
+ * from the list.
+ *
+ * @param <T> a generic data type
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class ReadOnlyView<T> implements Iterable<T> {
+    private final ConcurrentSkipList<T> source;
+    private final Comparator<T> cmp;
+    private final T excluded; // hidden from the view, may be null
+
+    /***CONSTRUCTORS***/
+
+    /**
+     * Creates a view of every value in a skip list.
+     *
+     * @param source the skip list to view.
+     * @param cmp    the Comparator the skip list is ordered by.
+     * @throws NullPointerException when source or cmp is null.
+     */
+    public ReadOnlyView(ConcurrentSkipList<T> source, Comparator<T> cmp) throws NullPointerException {
+        this(source, cmp, null);
+    }
+
+    /**
+     * Private constructor for a view that hides one value.
+     *
+     * @param source   the skip list to view.
+     * @param cmp      the Comparator the skip list is ordered by.
+     * @param excluded the value to hide, or null to hide nothing.
+     * @throws NullPointerException when source or cmp is null.
+     */
+    private ReadOnlyView(ConcurrentSkipList<T> source, Comparator<T> cmp, T excluded) throws NullPointerException {
+        if (source == null || cmp == null) {
+            throw new NullPointerException("ReadOnlyView: source and cmp cannot be null");
+        }
+
+        this.source = source;
+        this.cmp = cmp;
+        this.excluded = excluded;
+    }
+
+    /***ACCESSORS***/
+
+    /**
+     * Returns the number of values in the view. This takes O(1) time when
+     * nothing is hidden, and otherwise O(log n + m) time, where m is the
+     * number of values comparing equal to the hidden one, since each is
+     * checked by reference. While other threads change the skip list this
+     * is only an estimate.
+     *
+     * @return the number of values visible through the view.
+     */
+    public int getSize() {
+        return source.getSize() - (containsExcluded() ? 1 : 0);
+    }
+
+    /**
+     * Determines whether the view has no values.
+     *
+     * @return whether the view is empty.
+     */
+    public boolean isEmpty() {
+        return !iterator().hasNext();
+    }
+
+    /***ADDITIONAL OPERATIONS***/
+
+    /**
+     * Returns a view of the same skip list that hides the given value
+     * instead of the one this view hides: a view hides at most one value.
+     * Only this exact object (by reference) is hidden, so other values that
+     * compare equal to it stay visible.
+     *
+     * @param value the value to hide, may be null.
+     * @return a new view; neither this view nor the skip list is changed.
+     */
+    public ReadOnlyView<T> excluding(T value) {
+        return new ReadOnlyView<>(source, cmp, value);
+    }
+
+    /**
+     * Returns an in-order iterator over the visible values. The iterator
+     * does not support remove().
+     *
+     * @return an iterator over the view.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private final Iterator<T> it = source.iterator();
+            private T nextValue = advance();
+
+            @Override
+            public boolean hasNext() {
+                return nextValue != null;
+            }
+
+            @Override
+            public T next() throws NoSuchElementException {
+                if (nextValue == null) {
+                    throw new NoSuchElementException("next: no more elements");
+                }
+
+                T value = nextValue;
+                nextValue = advance();
+                return value;
+            }
+
+            /**
+             * Returns the next value that is not hidden.
+             *
+             * @return the next visible value, or null when there are none.
+             */
+            private T advance() {
+                while (it.hasNext()) {
+                    T value = it.next();
+                    if (value != excluded) {
+                        return value;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Determines whether the hidden value is in the skip list.
+     *
+     * @return whether the excluded object is one of the skip list's values.
+     */
+    private boolean containsExcluded() {
+        if (excluded == null) {
+            return false;
+        }
+
+        for (T value : source.range(excluded, excluded, cmp)) { // stops at the first match, copying nothing
+            if (value == excluded) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
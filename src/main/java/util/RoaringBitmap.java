@@ -0,0 +1,704 @@
+package util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * RoaringBitmap.java
+ * Defines a compressed set of non-negative ints in the style of Roaring
+ * bitmaps. Values are split by their high 16 bits into chunks, and each
+ * chunk stores its low 16 bits in whichever container is smallest:
+ * a sorted array (sparse chunks), a 65536-bit bitmap (dense chunks),
+ * or a list of runs (long consecutive ranges, after runOptimize).
+ * AND, OR, and AND NOT work chunk by chunk and return new bitmaps.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class RoaringBitmap {
+    private static final int ARRAY_MAX = 4096; // largest array container, same size as a bitmap
+    private static final int BITMAP_WORDS = 1024; // 65536 bits
+
+    /**
+     * Stores the low 16 bits of the values in one chunk.
+     */
+    private abstract static class Container {
+        /**
+         * Returns the number of values in the container.
+         *
+         * @return the cardinality of the container.
+         */
+        abstract int cardinality();
+
+        /**
+         * Determines whether the container holds a value.
+         *
+         * @param value the low 16 bits of the value.
+         * @return whether the value is in the container.
+         */
+        abstract boolean contains(char value);
+
+        /**
+         * Adds a value, switching to another kind of container if needed.
+         *
+         * @param value the low 16 bits of the value.
+         * @return the container now holding the value (this or a new one).
+         */
+        abstract Container add(char value);
+
+        /**
+         * Returns a bitmap container holding the same values.
+         *
+         * @return this if it is a bitmap container, otherwise a new one.
+         */
+        abstract BitmapContainer toBitmap();
+
+        /**
+         * Returns an independent copy of the container.
+         *
+         * @return a new container with the same values.
+         */
+        abstract Container copy();
+
+        /**
+         * Passes every value in the container, in order, to action.
+         *
+         * @param high   the high 16 bits of the chunk, already shifted.
+         * @param action the action to perform on each full value.
+         */
+        abstract void forEach(int high, IntConsumer action);
+
+        /**
+         * Counts the runs of consecutive values in the container.
+         *
+         * @return the number of runs.
+         */
+        int numberOfRuns() {
+            int[] runs = {0};
+            int[] last = {-2};
+            forEach(0, value -> {
+                if (value != last[0] + 1) {
+                    runs[0]++;
+                }
+                last[0] = value;
+            });
+            return runs[0];
+        }
+
+        /**
+         * Returns a run container if it would be smaller than this container.
+         *
+         * @return the smallest container holding the same values.
+         */
+        Container runOptimize() {
+            int runs = numberOfRuns();
+            int currentBytes = this instanceof ArrayContainer ? 2 * cardinality() : 8 * BITMAP_WORDS;
+            if (this instanceof RunContainer || 4 * runs >= currentBytes) {
+                return this;
+            }
+            return new RunContainer(this, runs);
+        }
+    }
+
+    /**
+     * Sorted array of up to ARRAY_MAX values.
+     */
+    private static class ArrayContainer extends Container {
+        private char[] values;
+        private int cardinality;
+
+        public ArrayContainer(int capacity) {
+            values = new char[Math.max(capacity, 4)];
+            cardinality = 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(2 * values.length, ARRAY_MAX));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        /**
+         * Appends a value larger than every value already in the container.
+         *
+         * @param value the low 16 bits of the value.
+         */
+        void append(char value) {
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(2 * values.length, ARRAY_MAX));
+            }
+            values[cardinality++] = value;
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+
+        @Override
+        Container copy() {
+            ArrayContainer copy = new ArrayContainer(cardinality);
+            System.arraycopy(values, 0, copy.values, 0, cardinality);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < cardinality; i++) {
+                action.accept(high | values[i]);
+            }
+        }
+
+        /**
+         * Returns the values of this container that are (or are not) in another.
+         *
+         * @param other the container to test against.
+         * @param keep  true to keep values in other (AND), false to drop them (AND NOT).
+         * @return a new array container with the kept values.
+         */
+        ArrayContainer filter(Container other, boolean keep) {
+            ArrayContainer result = new ArrayContainer(cardinality);
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i]) == keep) {
+                    result.values[result.cardinality++] = values[i];
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns the union of two array containers whose total size fits in
+         * an array container.
+         *
+         * @param other the other array container.
+         * @return a new array container with the values of both.
+         */
+        ArrayContainer union(ArrayContainer other) {
+            ArrayContainer result = new ArrayContainer(cardinality + other.cardinality);
+            int i = 0, j = 0;
+            while (i < cardinality || j < other.cardinality) {
+                if (j == other.cardinality || (i < cardinality && values[i] < other.values[j])) {
+                    result.values[result.cardinality++] = values[i++];
+                } else if (i == cardinality || other.values[j] < values[i]) {
+                    result.values[result.cardinality++] = other.values[j++];
+                } else {
+                    result.values[result.cardinality++] = values[i++];
+                    j++;
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Bitmap of all 65536 possible low values.
+     */
+    private static class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        public BitmapContainer() {
+            words = new long[BITMAP_WORDS];
+            cardinality = 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container add(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            return this;
+        }
+
+        @Override
+        Container copy() {
+            BitmapContainer copy = new BitmapContainer();
+            System.arraycopy(words, 0, copy.words, 0, BITMAP_WORDS);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    action.accept(high | (i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        /**
+         * Combines two bitmaps word by word.
+         *
+         * @param other the other bitmap.
+         * @param op    0 for AND, 1 for OR, 2 for AND NOT.
+         * @return a new bitmap with the combined words.
+         */
+        BitmapContainer combine(BitmapContainer other, int op) {
+            BitmapContainer result = new BitmapContainer();
+            int cardinality = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word;
+                if (op == 0) {
+                    word = words[i] & other.words[i];
+                } else if (op == 1) {
+                    word = words[i] | other.words[i];
+                } else {
+                    word = words[i] & ~other.words[i];
+                }
+                result.words[i] = word;
+                cardinality += Long.bitCount(word);
+            }
+            result.cardinality = cardinality;
+            return result;
+        }
+
+        /**
+         * Returns an array container if the bitmap is sparse enough.
+         *
+         * @return the smaller of this bitmap and an equivalent array container.
+         */
+        Container compact() {
+            if (cardinality > ARRAY_MAX) {
+                return this;
+            }
+            ArrayContainer array = new ArrayContainer(cardinality);
+            forEach(0, value -> array.append((char) value));
+            return array;
+        }
+    }
+
+    /**
+     * Sorted list of runs, each a start value and a length.
+     */
+    private static class RunContainer extends Container {
+        private final char[] starts;
+        private final char[] lengths; // run covers start to start + length
+        private final int cardinality;
+
+        public RunContainer(Container source, int runs) {
+            starts = new char[runs];
+            lengths = new char[runs];
+            int[] index = {-1};
+            int[] last = {-2};
+            source.forEach(0, value -> {
+                if (value != last[0] + 1) {
+                    starts[++index[0]] = (char) value;
+                } else {
+                    lengths[index[0]]++;
+                }
+                last[0] = value;
+            });
+            cardinality = source.cardinality();
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            int index = Arrays.binarySearch(starts, value);
+            if (index >= 0) {
+                return true;
+            }
+            index = -index - 2; // run starting before value
+            return index >= 0 && value <= starts[index] + lengths[index];
+        }
+
+        @Override
+        Container add(char value) {
+            if (contains(value)) {
+                return this;
+            }
+            return toBitmap().add(value);
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            forEach(0, value -> bitmap.add((char) value));
+            return bitmap;
+        }
+
+        @Override
+        Container copy() {
+            return this; // never changed in place, add() returns a new container
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < starts.length; i++) {
+                int end = starts[i] + lengths[i];
+                for (int value = starts[i]; value <= end; value++) {
+                    action.accept(high | value);
+                }
+            }
+        }
+
+        @Override
+        int numberOfRuns() {
+            return starts.length;
+        }
+    }
+
+    private char[] keys; // high 16 bits of each chunk, sorted
+    private Container[] containers;
+    private int size; // number of chunks
+
+    /***CONSTRUCTORS***/
+
+    /**
+     * Default constructor for RoaringBitmap creates an empty set.
+     */
+    public RoaringBitmap() {
+        keys = new char[4];
+        containers = new Container[4];
+        size = 0;
+    }
+
+    /**
+     * Copy constructor for RoaringBitmap.
+     *
+     * @param other the RoaringBitmap to copy.
+     * @throws NullPointerException when other is null.
+     */
+    public RoaringBitmap(RoaringBitmap other) throws NullPointerException {
+        if (other == null) {
+            throw new NullPointerException("RoaringBitmap: other cannot be null");
+        }
+
+        keys = Arrays.copyOf(other.keys, Math.max(other.size, 4));
+        containers = new Container[keys.length];
+        for (int i = 0; i < other.size; i++) {
+            containers[i] = other.containers[i].copy();
+        }
+        size = other.size;
+    }
+
+    /***ACCESSORS***/
+
+    /**
+     * Determines whether the set contains a value.
+     *
+     * @param value the value to look for.
+     * @return whether value is in the set.
+     */
+    public boolean contains(int value) {
+        int index = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    /**
+     * Returns the number of values in the set.
+     *
+     * @return the cardinality of the set.
+     */
+    public int getCardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * Determines whether the set is empty.
+     *
+     * @return whether the set is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /***MUTATORS***/
+
+    /**
+     * Adds a value to the set.
+     *
+     * @param value the value to add.
+     * @throws IllegalArgumentException when value is negative.
+     * @precondition value >= 0
+     */
+    public void add(int value) throws IllegalArgumentException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Add: value cannot be negative");
+        }
+
+        char key = (char) (value >>> 16);
+        int index = Arrays.binarySearch(keys, 0, size, key);
+
+        if (index >= 0) {
+            containers[index] = containers[index].add((char) value);
+        } else {
+            ArrayContainer container = new ArrayContainer(4);
+            container.append((char) value);
+            insertContainer(-index - 1, key, container);
+        }
+    }
+
+    /**
+     * Removes every value from the set.
+     */
+    public void clear() {
+        keys = new char[4];
+        containers = new Container[4];
+        size = 0;
+    }
+
+    /**
+     * Converts each chunk into a run container when that is smaller.
+     * Useful for sets with long ranges of consecutive values.
+     */
+    public void runOptimize() {
+        for (int i = 0; i < size; i++) {
+            containers[i] = containers[i].runOptimize();
+        }
+    }
+
+    /***ADDITIONAL OPERATIONS***/
+
+    /**
+     * Returns the values in both this set and another (intersection).
+     *
+     * @param other the other set.
+     * @return a new RoaringBitmap; neither set is changed.
+     */
+    public RoaringBitmap and(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0, j = 0;
+
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.appendContainer(keys[i], and(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the values in this set, another set, or both (union).
+     *
+     * @param other the other set.
+     * @return a new RoaringBitmap; neither set is changed.
+     */
+    public RoaringBitmap or(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0, j = 0;
+
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.appendContainer(keys[i], containers[i].copy());
+                i++;
+            } else if (i == size || other.keys[j] < keys[i]) {
+                result.appendContainer(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.appendContainer(keys[i], or(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the values in this set that are not in another (difference).
+     *
+     * @param other the other set.
+     * @return a new RoaringBitmap; neither set is changed.
+     */
+    public RoaringBitmap andNot(RoaringBitmap other) {
+        RoaringBitmap result = new RoaringBitmap();
+        int j = 0;
+
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.size && other.keys[j] == keys[i]) {
+                result.appendContainer(keys[i], andNot(containers[i], other.containers[j]));
+            } else {
+                result.appendContainer(keys[i], containers[i].copy());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Passes every value in the set, in increasing order, to action without
+     * copying the set.
+     *
+     * @param action the action to perform on each value.
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * Returns the values of the set in increasing order.
+     *
+     * @return a new array of the values.
+     */
+    public int[] toArray() {
+        int[] values = new int[getCardinality()];
+        int[] index = {0};
+        forEach(value -> values[index[0]++] = value);
+        return values;
+    }
+
+    /**
+     * Returns the values of the set in increasing order, separated by spaces,
+     * followed by a new line.
+     *
+     * @return a String of the values.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        forEach(value -> sb.append(value).append(" "));
+        return sb + "\n";
+    }
+
+    /**
+     * Intersects two containers.
+     *
+     * @param a the first container.
+     * @param b the second container.
+     * @return a new container with the values in both.
+     */
+    private static Container and(Container a, Container b) {
+        if (a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).filter(b, true);
+        } else if (b instanceof ArrayContainer) {
+            return ((ArrayContainer) b).filter(a, true);
+        }
+        return a.toBitmap().combine(b.toBitmap(), 0).compact();
+    }
+
+    /**
+     * Unites two containers.
+     *
+     * @param a the first container.
+     * @param b the second container.
+     * @return a new container with the values in either.
+     */
+    private static Container or(Container a, Container b) {
+        if (a instanceof ArrayContainer && b instanceof ArrayContainer
+                && a.cardinality() + b.cardinality() <= ARRAY_MAX) {
+            return ((ArrayContainer) a).union((ArrayContainer) b);
+        }
+        return a.toBitmap().combine(b.toBitmap(), 1).compact();
+    }
+
+    /**
+     * Subtracts one container from another.
+     *
+     * @param a the container to subtract from.
+     * @param b the container whose values to remove.
+     * @return a new container with the values of a that are not in b.
+     */
+    private static Container andNot(Container a, Container b) {
+        if (a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).filter(b, false);
+        }
+        return a.toBitmap().combine(b.toBitmap(), 2).compact();
+    }
+
+    /**
+     * Inserts a chunk at the given position.
+     *
+     * @param index     the position to insert at.
+     * @param key       the high 16 bits of the chunk.
+     * @param container the container of the chunk.
+     */
+    private void insertContainer(int index, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, 2 * size);
+            containers = Arrays.copyOf(containers, 2 * size);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    /**
+     * Appends a chunk after every existing chunk, skipping empty containers.
+     *
+     * @param key       the high 16 bits of the chunk, larger than any existing key.
+     * @param container the container of the chunk.
+     */
+    private void appendContainer(char key, Container container) {
+        if (container.cardinality() > 0) {
+            insertContainer(size, key, container);
+        }
+    }
+}
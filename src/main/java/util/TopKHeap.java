@@ -0,0 +1,207 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * TopKHeap.java
+ * Defines a bounded min-heap that keeps the k best (score, id) pairs offered
+ * to it, stored in parallel primitive arrays so no objects are created per
+ * pair. A pair is better when its score is higher, or when the scores are
+ * equal and its id is smaller, so the result is deterministic. The root is
+ * the worst pair kept, so each offer costs O(log k).
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class TopKHeap {
+    private final int k;
+    private int[] ids;
+    private double[] scores;
+    private int size;
+    private boolean sorted; // true after sort(), until the next offer
+
+    /***CONSTRUCTORS***/
+
+    /**
+     * Creates an empty heap that keeps at most k pairs.
+     *
+     * @param k the number of pairs to keep.
+     * @throws IllegalArgumentException when k < 0.
+     */
+    public TopKHeap(int k) throws IllegalArgumentException {
+        if (k < 0) {
+            throw new IllegalArgumentException("TopKHeap: k cannot be negative");
+        }
+
+        this.k = k;
+        ids = new int[Math.min(k, 16)];
+        scores = new double[ids.length];
+        size = 0;
+        sorted = false;
+    }
+
+    /***ACCESSORS***/
+
+    /**
+     * Returns the number of pairs kept.
+     *
+     * @return the number of pairs, at most k.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the id of a kept pair. After sort(), index 0 is the best pair.
+     *
+     * @param index the position of the pair, from 0 to getSize() - 1.
+     * @return the id of the pair.
+     * @throws IndexOutOfBoundsException when index is out of bounds.
+     */
+    public int getId(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        return ids[index];
+    }
+
+    /**
+     * Returns the score of a kept pair. After sort(), index 0 is the best pair.
+     *
+     * @param index the position of the pair, from 0 to getSize() - 1.
+     * @return the score of the pair.
+     * @throws IndexOutOfBoundsException when index is out of bounds.
+     */
+    public double getScore(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        return scores[index];
+    }
+
+    /**
+     * Determines whether one (score, id) pair ranks below another.
+     *
+     * @param score1 the score of the first pair.
+     * @param id1    the id of the first pair.
+     * @param score2 the score of the second pair.
+     * @param id2    the id of the second pair.
+     * @return whether the first pair is worse than the second.
+     */
+    public static boolean isWorse(double score1, int id1, double score2, int id2) {
+        int comparison = Double.compare(score1, score2);
+        return comparison < 0 || (comparison == 0 && id1 > id2);
+    }
+
+    /***MUTATORS***/
+
+    /**
+     * Offers a pair, keeping it if it is among the k best so far.
+     *
+     * @param id    the id of the pair.
+     * @param score the score of the pair.
+     * @throws IllegalStateException when called after sort().
+     */
+    public void offer(int id, double score) throws IllegalStateException {
+        if (sorted) {
+            throw new IllegalStateException("Offer: heap has already been sorted");
+        }
+
+        if (size < k) {
+            if (size == ids.length) {
+                int length = (int) Math.min(k, 2L * size);
+                ids = Arrays.copyOf(ids, length);
+                scores = Arrays.copyOf(scores, length);
+            }
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (k > 0 && isWorse(scores[0], ids[0], score, id)) {
+            ids[0] = id; // replace the worst pair kept
+            scores[0] = score;
+            siftDown(0, size);
+        }
+    }
+
+    /**
+     * Sorts the kept pairs from best to worst in place (heap sort), in
+     * O(k log k) time. No more pairs may be offered afterwards.
+     */
+    public void sort() {
+        if (sorted) {
+            return;
+        }
+
+        // repeatedly move the worst remaining pair to the end of the heap
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+        sorted = true;
+    }
+
+    /**
+     * Moves a pair up until its parent is worse than it.
+     *
+     * @param index the position of the pair.
+     */
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!isWorse(scores[index], ids[index], scores[parent], ids[parent])) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    /**
+     * Moves a pair down until both its children are better than it.
+     *
+     * @param index the position of the pair.
+     * @param end   the number of pairs in the heap.
+     */
+    private void siftDown(int index, int end) {
+        while (2 * index + 1 < end) {
+            int child = 2 * index + 1;
+            if (child + 1 < end && isWorse(scores[child + 1], ids[child + 1], scores[child], ids[child])) {
+                child++;
+            }
+            if (!isWorse(scores[child], ids[child], scores[index], ids[index])) {
+                return;
+            }
+            swap(index, child);
+            index = child;
+        }
+    }
+
+    /**
+     * Swaps two pairs.
+     *
+     * @param i the position of the first pair.
+     * @param j the position of the second pair.
+     */
+    private void swap(int i, int j) {
+        int tempId = ids[i];
+        ids[i] = ids[j];
+        ids[j] = tempId;
+
+        double tempScore = scores[i];
+        scores[i] = scores[j];
+        scores[j] = tempScore;
+    }
+
+    /**
+     * Checks that an index refers to a kept pair.
+     *
+     * @param index the index to check.
+     * @throws IndexOutOfBoundsException when index is out of bounds.
+     */
+    private void checkIndex(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+    }
+}
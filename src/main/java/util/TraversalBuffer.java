@@ -0,0 +1,184 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * TraversalBuffer.java
+ * Defines reusable scratch space for Graph.boundedBFS. Instead of clearing
+ * per-vertex arrays before every traversal, each entry is tagged with the
+ * number of the traversal that wrote it, so starting a traversal is O(1)
+ * and its cost depends only on the vertices it reaches. A buffer must only
+ * be used by one thread at a time.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class TraversalBuffer {
+    private int[] visitStamps; // traversal that reached each vertex
+    private int[] distances;
+    private int[] pathCounts; // number of shortest paths from the source
+    private int[] markStamps; // traversal that marked each vertex
+    private int[] reached; // vertices in the order they were reached
+    private int numReached;
+    private int stamp;
+
+    /***CONSTRUCTORS***/
+
+    /**
+     * Default constructor for TraversalBuffer creates an empty buffer that
+     * grows to fit the graphs it is used with.
+     */
+    public TraversalBuffer() {
+        visitStamps = new int[16];
+        distances = new int[16];
+        pathCounts = new int[16];
+        markStamps = new int[16];
+        reached = new int[16];
+        numReached = 0;
+        stamp = 1; // arrays start at 0, so nothing is reached or marked yet
+    }
+
+    /***ACCESSORS***/
+
+    /**
+     * Returns the number of vertices reached by the last traversal,
+     * including its source.
+     *
+     * @return the number of vertices reached.
+     */
+    public int getNumReached() {
+        return numReached;
+    }
+
+    /**
+     * Returns a vertex reached by the last traversal, in the order reached
+     * (so in order of distance).
+     *
+     * @param index the position of the vertex, from 0 to getNumReached() - 1.
+     * @return the vertex.
+     * @throws IndexOutOfBoundsException when index is out of bounds.
+     */
+    public int getReached(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= numReached) {
+            throw new IndexOutOfBoundsException("GetReached: index out of bounds");
+        }
+        return reached[index];
+    }
+
+    /**
+     * Returns the distance of a vertex from the source of the last traversal.
+     *
+     * @param v a vertex.
+     * @return the distance of v, or -1 if the traversal did not reach it.
+     */
+    public int getDistance(int v) {
+        return isReached(v) ? distances[v] : -1;
+    }
+
+    /**
+     * Returns the number of shortest paths from the source of the last
+     * traversal to a vertex. For a vertex two edges away this is the number
+     * of neighbors it shares with the source (e.g. mutual friends).
+     *
+     * @param v a vertex.
+     * @return the number of shortest paths to v, or 0 if it was not reached.
+     */
+    public int getPathCount(int v) {
+        return isReached(v) ? pathCounts[v] : 0;
+    }
+
+    /***MUTATORS***/
+
+    /**
+     * Marks a vertex for the current traversal, e.g. to skip duplicates while
+     * collecting results. Marks are cleared when the next traversal begins.
+     *
+     * @param v a vertex, which may be larger than any vertex of the graph.
+     * @return true if v was not already marked.
+     * @throws IllegalArgumentException when v is negative.
+     */
+    public boolean mark(int v) throws IllegalArgumentException {
+        if (v < 0) {
+            throw new IllegalArgumentException("Mark: vertex cannot be negative");
+        }
+
+        ensureCapacity(v + 1);
+        if (markStamps[v] == stamp) {
+            return false;
+        }
+        markStamps[v] = stamp;
+        return true;
+    }
+
+    /**
+     * Starts a new traversal, forgetting the previous one in O(1) time.
+     *
+     * @param numVertices the largest vertex of the graph.
+     */
+    void begin(int numVertices) {
+        ensureCapacity(numVertices + 1);
+        numReached = 0;
+        stamp++;
+
+        if (stamp == Integer.MAX_VALUE) { // start the stamps over
+            Arrays.fill(visitStamps, 0);
+            Arrays.fill(markStamps, 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * Records that the current traversal reached a vertex.
+     *
+     * @param v         the vertex.
+     * @param distance  the distance of v from the source.
+     * @param pathCount the number of shortest paths to v found so far.
+     */
+    void visit(int v, int distance, int pathCount) {
+        visitStamps[v] = stamp;
+        distances[v] = distance;
+        pathCounts[v] = pathCount;
+        reached[numReached++] = v;
+    }
+
+    /**
+     * Adds shortest paths to a reached vertex, stopping at Integer.MAX_VALUE.
+     *
+     * @param v         the vertex.
+     * @param pathCount the number of paths to add.
+     */
+    void addPaths(int v, int pathCount) {
+        pathCounts[v] = (int) Math.min(Integer.MAX_VALUE, (long) pathCounts[v] + pathCount);
+    }
+
+    /**
+     * Determines whether the current traversal reached a vertex.
+     *
+     * @param v a vertex.
+     * @return whether v was reached.
+     */
+    private boolean isReached(int v) {
+        return v >= 0 && v < visitStamps.length && visitStamps[v] == stamp;
+    }
+
+    /**
+     * Makes room for vertices up to capacity - 1.
+     *
+     * @param capacity the number of vertices to make room for.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > visitStamps.length) {
+            int length = Math.max(2 * visitStamps.length, capacity);
+            visitStamps = Arrays.copyOf(visitStamps, length);
+            distances = Arrays.copyOf(distances, length);
+            pathCounts = Arrays.copyOf(pathCounts, length);
+            markStamps = Arrays.copyOf(markStamps, length);
+            reached = Arrays.copyOf(reached, length);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+
+/**
+ * TrigramIndex.java
+ * Defines an index for fuzzy lookup of Strings by int ID. Each String is
+ * split into its distinct trigrams (runs of three characters, after padding
+ * with spaces), and each trigram maps to the IDs of the Strings containing
+ * it. A query only reads the postings of its own trigrams, so the work
+ * depends on how many Strings share a trigram with it, not on the total
+ * number of Strings. Matches are ranked by Jaccard similarity of trigrams.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class TrigramIndex {
+    /**
+     * Growable array of the IDs of the Strings containing one trigram.
+     */
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int size = 0;
+
+        /**
+         * Appends an ID.
+         *
+         * @param id the ID to append.
+         */
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, 2 * size);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    private final HashMap<String, Postings> postings; // trigram -> IDs containing it
+    private int[] trigramCounts; // number of distinct trigrams of each ID, 0 if not indexed
+    private int[] matchCounts; // scratch: shared trigrams per ID during a query
+
+    /***CONSTRUCTORS***/
+
+    /**
+     * Default constructor for TrigramIndex creates an empty index.
+     */
+    public TrigramIndex() {
+        postings = new HashMap<>();
+        trigramCounts = new int[16];
+        matchCounts = new int[16];
+    }
+
+    /***ACCESSORS***/
+
+    /**
+     * Returns up to k IDs whose Strings are most similar to the query, most
+     * similar first (ties by smaller ID). Similarity is the Jaccard index of
+     * the two sets of trigrams, from 0 (nothing shared) to 1 (same trigrams).
+     * Comparison ignores case and surrounding whitespace.
+     *
+     * @param query         the String to look up.
+     * @param k             the maximum number of IDs to return.
+     * @param minSimilarity the smallest similarity to return, from 0 to 1.
+     * @return an ArrayList of at most k IDs, empty if none are similar enough.
+     * @throws NullPointerException     when query is null.
+     * @throws IllegalArgumentException when k < 0.
+     */
+    public synchronized ArrayList<Integer> findSimilar(String query, int k, double minSimilarity)
+            throws NullPointerException, IllegalArgumentException {
+        if (query == null) {
+            throw new NullPointerException("FindSimilar: query cannot be null");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("FindSimilar: k cannot be negative");
+        }
+
+        String[] queryTrigrams = trigrams(query);
+        ArrayList<Integer> touched = new ArrayList<>(); // IDs sharing at least one trigram
+
+        // count shared trigrams per ID from the query's postings only
+        for (String trigram : queryTrigrams) {
+            Postings list = postings.get(trigram);
+            if (list == null) {
+                continue;
+            }
+            for (int i = 0; i < list.size; i++) {
+                int id = list.ids[i];
+                if (matchCounts[id]++ == 0) {
+                    touched.add(id);
+                }
+            }
+        }
+
+        // score the touched IDs, resetting the scratch counts as we go
+        double[] scores = new double[touched.size()];
+        ArrayList<Integer> matches = new ArrayList<>();
+        for (int i = 0; i < touched.size(); i++) {
+            int id = touched.get(i);
+            int shared = matchCounts[id];
+            matchCounts[id] = 0;
+            scores[i] = (double) shared / (queryTrigrams.length + trigramCounts[id] - shared);
+            if (scores[i] >= minSimilarity) {
+                matches.add(i);
+            }
+        }
+
+        matches.sort((i1, i2) -> {
+            int comparison = Double.compare(scores[i2], scores[i1]);
+            return comparison != 0 ? comparison : Integer.compare(touched.get(i1), touched.get(i2));
+        });
+
+        ArrayList<Integer> results = new ArrayList<>(Math.min(k, matches.size()));
+        for (int i = 0; i < matches.size() && results.size() < k; i++) {
+            results.add(touched.get(matches.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * Returns the Jaccard similarity of the trigrams of two Strings.
+     *
+     * @param s1 the first String.
+     * @param s2 the second String.
+     * @return the similarity, from 0 to 1.
+     * @throws NullPointerException when s1 or s2 is null.
+     */
+    public static double similarity(String s1, String s2) throws NullPointerException {
+        if (s1 == null || s2 == null) {
+            throw new NullPointerException("Similarity: Strings cannot be null");
+        }
+
+        String[] t1 = trigrams(s1);
+        String[] t2 = trigrams(s2);
+        Arrays.sort(t2);
+
+        int shared = 0;
+        for (String trigram : t1) {
+            if (Arrays.binarySearch(t2, trigram) >= 0) {
+                shared++;
+            }
+        }
+        int union = t1.length + t2.length - shared;
+        return union == 0 ? 0 : (double) shared / union;
+    }
+
+    /***MUTATORS***/
+
+    /**
+     * Adds a String to the index under an ID. Each ID should be added once.
+     *
+     * @param id  the ID of the String.
+     * @param key the String to index.
+     * @throws NullPointerException     when key is null.
+     * @throws IllegalArgumentException when id is negative or already indexed.
+     */
+    public synchronized void add(int id, String key) throws NullPointerException, IllegalArgumentException {
+        if (key == null) {
+            throw new NullPointerException("Add: key cannot be null");
+        }
+        if (id < 0) {
+            throw new IllegalArgumentException("Add: id cannot be negative");
+        }
+
+        if (id >= trigramCounts.length) {
+            int length = Math.max(2 * trigramCounts.length, id + 1);
+            trigramCounts = Arrays.copyOf(trigramCounts, length);
+            matchCounts = Arrays.copyOf(matchCounts, length);
+        }
+        if (trigramCounts[id] != 0) {
+            throw new IllegalArgumentException("Add: id " + id + " is already indexed");
+        }
+
+        String[] keyTrigrams = trigrams(key);
+        for (String trigram : keyTrigrams) {
+            postings.computeIfAbsent(trigram, t -> new Postings()).add(id);
+        }
+        trigramCounts[id] = keyTrigrams.length;
+    }
+
+    /***ADDITIONAL OPERATIONS***/
+
+    /**
+     * Returns the distinct trigrams of a String, after trimming it, converting
+     * it to lower case, and padding it with two spaces in front and one behind
+     * so that short Strings and word starts still have trigrams.
+     *
+     * @param s the String to split.
+     * @return an array of the distinct trigrams, never empty.
+     */
+    private static String[] trigrams(String s) {
+        String padded = "  " + s.trim().toLowerCase(Locale.ROOT) + " ";
+        LinkedHashSet<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,147 @@
+package data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * BatchRecommenderTest.java
+ * Tests that precomputed recommendations are served only while their
+ * fingerprint matches the data, and match live recommendations.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Course Project
+ */
+public class BatchRecommenderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * A file written for the same data loads and serves the same pages as
+     * ranking live, and Users whose neighborhood changes get live pages.
+     */
+    @Test
+    public void matchingFileServesSamePages() throws IOException {
+        UserDirectory directory = FriendTest.randomDirectory(new Random(46));
+        Path file = write(directory);
+
+        Friend served = new Friend(directory);
+        assertTrue(served.loadPrecomputedRecommendations(file));
+        for (User user : directory.getUsersAL()) {
+            if (user.getId() % 20 == 0) {
+                assertPagesMatch(served, user, directory);
+            }
+        }
+        assertEquals(0, served.getRecommendationCache().getMisses()); // never ranked
+
+        // a new friendship makes the affected precomputed lists outdated
+        User user = directory.findUserById(20);
+        User other = served.getFriendRecommendations(user, 1).getUsers().get(0);
+        directory.addFriendConnection(user, other);
+        assertPagesMatch(served, user, directory);
+        assertFalse(served.getFriendRecommendations(user).contains(other));
+    }
+
+    /**
+     * A file computed from other data, or with another ScoringModel, is not loaded.
+     */
+    @Test
+    public void fingerprintMismatchIsNotLoaded() throws IOException {
+        UserDirectory directory = FriendTest.randomDirectory(new Random(47));
+        Path file = write(directory);
+        long fingerprint = BatchRecommender.fingerprint(directory, LinearScoringModel.DEFAULT);
+
+        // another ScoringModel
+        ScoringModel other = (candidates, scores) -> { };
+        assertNotEquals(fingerprint, BatchRecommender.fingerprint(directory, other));
+        assertFalse(new Friend(directory, other).loadPrecomputedRecommendations(file));
+
+        // the same Users with one more friendship
+        UserDirectory changed = FriendTest.randomDirectory(new Random(47));
+        User user = changed.findUserById(1);
+        User stranger = changed.findUserById(2);
+        if (changed.getFriendNetwork().getAdjacencyList(1).findIndex(2) != -1) {
+            stranger = changed.findUserById(3);
+        }
+        changed.addFriendConnection(user, stranger);
+        assertNotEquals(fingerprint, BatchRecommender.fingerprint(changed, LinearScoringModel.DEFAULT));
+        assertFalse(new Friend(changed).loadPrecomputedRecommendations(file));
+
+        // the same Users with one more Interest
+        UserDirectory moreInterests = FriendTest.randomDirectory(new Random(47));
+        moreInterests.getInterestManager().addUserToInterest("Brand New Interest", moreInterests.findUserById(1));
+        assertFalse(new Friend(moreInterests).loadPrecomputedRecommendations(file));
+
+        // identical data built again still matches
+        assertEquals(fingerprint, BatchRecommender.fingerprint(FriendTest.randomDirectory(new Random(47)),
+                LinearScoringModel.DEFAULT));
+        assertTrue(new Friend(FriendTest.randomDirectory(new Random(47))).loadPrecomputedRecommendations(file));
+
+        // no file at all
+        assertFalse(new Friend(directory).loadPrecomputedRecommendations(folder.getRoot().toPath()
+                .resolve("missing.bin")));
+    }
+
+    /**
+     * Invalid settings throw.
+     */
+    @Test
+    public void invalidArgumentsThrow() {
+        UserDirectory directory = FriendTest.randomDirectory(new Random(48));
+        Friend friend = new Friend(directory);
+        assertThrows(IllegalArgumentException.class, () -> new BatchRecommender(directory, friend, 0));
+        BatchRecommender recommender = new BatchRecommender(directory, friend, 5);
+        assertThrows(IllegalArgumentException.class, () -> recommender.writeRecommendations(
+                folder.getRoot().toPath().resolve("lists.bin"), 0));
+    }
+
+    /**
+     * Writes the recommendations of every User in a directory.
+     *
+     * @param directory the directory of all Users
+     * @return the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    private Path write(UserDirectory directory) throws IOException {
+        Path file = folder.getRoot().toPath().resolve("recommendations.bin");
+        BatchRecommender recommender = new BatchRecommender(directory, new Friend(directory),
+                BatchRecommender.DEFAULT_LIST_LENGTH);
+        assertEquals(directory.getNumUsers(), recommender.writeRecommendations(file, 4));
+        return file;
+    }
+
+    /**
+     * Asserts that the first pages from a Friend match those of a Friend
+     * ranking live.
+     *
+     * @param friend    the Friend to check
+     * @param user      the User to find recommended friends for
+     * @param directory the directory of all Users
+     */
+    private static void assertPagesMatch(Friend friend, User user, UserDirectory directory) {
+        Friend live = new Friend(directory);
+        RecommendationPage expected = live.getFriendRecommendations(user, 10);
+        RecommendationPage actual = friend.getFriendRecommendations(user, 10);
+        assertEquals(expected.getUsers(), actual.getUsers());
+        assertEquals(expected.getNextToken(), actual.getNextToken());
+
+        expected = live.getFriendRecommendations(user, 30, expected.getNextToken());
+        actual = friend.getFriendRecommendations(user, 30, actual.getNextToken());
+        assertEquals(expected.getUsers(), actual.getUsers());
+    }
+}
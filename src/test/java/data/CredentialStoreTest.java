@@ -0,0 +1,98 @@
+package data;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+/**
+ * CredentialStoreTest.java
+ * Tests that CredentialStore verifies passwords against the hashes it
+ * computes at registration, and that sessions are checked by ID.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Course Project
+ */
+public class CredentialStoreTest {
+
+    /**
+     * Only the registered password verifies, including for logins made
+     * while the passwords are still being hashed, and a username can't be
+     * registered twice.
+     */
+    @Test
+    public void verifiesRegisteredPasswords() {
+        CredentialStore store = new CredentialStore(100);
+        ArrayList<CompletableFuture<Boolean>> correct = new ArrayList<>();
+        ArrayList<CompletableFuture<Boolean>> incorrect = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            assertTrue(store.register("user" + i, "password" + i));
+        }
+        for (int i = 0; i < 20; i++) { // fewer than the verification queue holds
+            correct.add(store.verifyAsync("user" + i, "password" + i));
+            incorrect.add(store.verifyAsync("user" + i, "password" + (i + 1)));
+        }
+
+        for (int i = 0; i < correct.size(); i++) {
+            assertTrue(correct.get(i).join());
+            assertFalse(incorrect.get(i).join());
+        }
+        assertFalse(store.verifyAsync("nobody", "password0").join());
+        assertFalse(store.register("user0", "other"));
+        assertTrue(store.verifyAsync("user0", "password0").join());
+        assertTrue(store.contains("user39"));
+        assertFalse(store.contains("nobody"));
+    }
+
+    /**
+     * A login starts a session only its ID can be checked against, and a
+     * new login or invalidateSession ends the old one.
+     */
+    @Test
+    public void sessionsMatchTheirId() {
+        CredentialStore store = new CredentialStore(10);
+        store.register("alice", "secret");
+
+        assertNull(store.loginAsync("alice", "wrong").join());
+        String sessionId = store.loginAsync("alice", "secret").join();
+        assertNotNull(sessionId);
+        assertTrue(store.hasSession("alice", sessionId));
+        assertTrue(store.hasSession("alice", sessionId)); // checking doesn't end it
+        assertFalse(store.hasSession("alice", sessionId + "0"));
+        assertFalse(store.hasSession("bob", sessionId));
+        assertFalse(store.hasSession("alice", null));
+
+        String newSessionId = store.loginAsync("alice", "secret").join();
+        assertNotEquals(sessionId, newSessionId);
+        assertFalse(store.hasSession("alice", sessionId));
+        assertTrue(store.hasSession("alice", newSessionId));
+
+        store.invalidateSession("alice");
+        assertFalse(store.hasSession("alice", newSessionId));
+    }
+
+    /**
+     * Null usernames and passwords are rejected.
+     */
+    @Test
+    public void nullArgumentsThrow() {
+        CredentialStore store = new CredentialStore(10);
+        assertThrows(IllegalArgumentException.class, () -> store.register(null, "password"));
+        assertThrows(IllegalArgumentException.class, () -> store.register("user", null));
+        assertThrows(IllegalArgumentException.class, () -> store.verifyAsync("user", null));
+        assertThrows(IllegalArgumentException.class, () -> store.contains(null));
+        assertFalse(store.contains("user"));
+    }
+}
@@ -0,0 +1,166 @@
+package data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import util.BST;
+import util.Graph;
+
+/**
+ * FriendTest.java
+ * Tests that paging through friend recommendations with continuation tokens
+ * returns the full ranking exactly once, including when scores tie across
+ * a page boundary and when paging runs past the cached recommendations.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Course Project
+ */
+public class FriendTest {
+    private static final int NUM_USERS = 400;
+
+    /**
+     * Concatenating the pages gives the full ranking, for several page sizes.
+     */
+    @Test
+    public void pagesConcatenateToFullRanking() {
+        UserDirectory directory = randomDirectory(new Random(44));
+        Friend friend = new Friend(directory);
+        for (int userId : new int[]{1, 17, 250}) {
+            User user = directory.findUserById(userId);
+            ArrayList<User> expected = friend.getFriendRecommendations(user);
+            assertTrue(expected.size() > 60); // more than the cache keeps
+
+            for (int k : new int[]{1, 3, 10, 49, 50, 51, 1000}) {
+                assertEquals(expected, pageThrough(new Friend(directory), user, k));
+                assertEquals(expected, pageThrough(friend, user, k)); // served from the cache
+            }
+        }
+    }
+
+    /**
+     * When every candidate has the same score, pages split ties by ID and
+     * no candidate is repeated or skipped at a page boundary.
+     */
+    @Test
+    public void tiesAcrossPageBoundaries() {
+        UserDirectory directory = randomDirectory(new Random(45));
+        Friend friend = new Friend(directory, (candidates, scores) -> Arrays.fill(scores, 0,
+                candidates.getSize(), 1.0));
+        User user = directory.findUserById(1);
+        ArrayList<User> expected = friend.getFriendRecommendations(user);
+
+        for (int i = 1; i < expected.size(); i++) {
+            assertTrue(expected.get(i - 1).getId() < expected.get(i).getId());
+        }
+        for (int k : new int[]{1, 2, 7, 50, 64}) {
+            assertEquals(expected, pageThrough(friend, user, k));
+        }
+    }
+
+    /**
+     * A token is tied to the ranking, not the page size, and malformed tokens
+     * are rejected.
+     */
+    @Test
+    public void tokensRoundTrip() {
+        UserDirectory directory = randomDirectory(new Random(46));
+        Friend friend = new Friend(directory);
+        User user = directory.findUserById(3);
+        ArrayList<User> expected = friend.getFriendRecommendations(user);
+
+        RecommendationPage first = friend.getFriendRecommendations(user, 5);
+        assertTrue(first.hasNextPage());
+        assertNotNull(first.getNextToken());
+
+        // the same token continues after the fifth recommendation for any page size
+        RecommendationPage next = friend.getFriendRecommendations(user, 20, first.getNextToken());
+        assertEquals(expected.subList(5, 25), next.getUsers());
+        RecommendationPage again = new Friend(directory).getFriendRecommendations(user, 20, first.getNextToken());
+        assertEquals(next.getUsers(), again.getUsers());
+
+        // the last page has no token
+        RecommendationPage last = friend.getFriendRecommendations(user, expected.size());
+        assertFalse(last.hasNextPage());
+        assertNull(last.getNextToken());
+
+        for (String token : new String[]{"", "zz", "1:2:3", "3ff0000000000000", "3ff0000000000000:xyz"}) {
+            assertThrows(IllegalArgumentException.class, () -> friend.getFriendRecommendations(user, 5, token));
+        }
+        assertThrows(IllegalArgumentException.class, () -> friend.getFriendRecommendations(user, 0));
+    }
+
+    /**
+     * Pages through every recommendation of a User.
+     *
+     * @param friend the Friend to ask
+     * @param user   the User to find recommended friends for
+     * @param k      the page size
+     * @return the recommendations of every page, in order
+     */
+    private static ArrayList<User> pageThrough(Friend friend, User user, int k) {
+        ArrayList<User> all = new ArrayList<>();
+        HashSet<User> seen = new HashSet<>();
+        String token = null;
+        do {
+            RecommendationPage page = friend.getFriendRecommendations(user, k, token);
+            assertTrue(page.getUsers().size() <= k);
+            for (User recommended : page.getUsers()) {
+                assertTrue(seen.add(recommended));
+            }
+            all.addAll(page.getUsers());
+            token = page.getNextToken();
+            assertEquals(token != null, page.hasNextPage());
+        } while (token != null);
+        return all;
+    }
+
+    /**
+     * Builds a directory of Users with random friendships and Interests.
+     *
+     * @param random the random number generator
+     * @return the UserDirectory
+     */
+    static UserDirectory randomDirectory(Random random) {
+        InterestManager interestManager = new InterestManager();
+        ArrayList<User> users = new ArrayList<>();
+        Graph graph = new Graph(NUM_USERS);
+        for (int i = 1; i <= NUM_USERS; i++) {
+            User user = new User("user" + i, "password");
+            user.setId(i);
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setCity("City" + random.nextInt(5));
+            for (int j = 0; j < 3; j++) {
+                user.addInterest(interestManager.internInterest("Interest" + random.nextInt(40)));
+            }
+            users.add(user);
+        }
+        for (int i = 1; i <= NUM_USERS; i++) {
+            for (int j = 0; j < 3; j++) {
+                int v = 1 + random.nextInt(NUM_USERS);
+                if (v != i && graph.getAdjacencyList(i).findIndex(v) == -1) {
+                    graph.addUndirectedEdge(i, v);
+                }
+            }
+        }
+        interestManager.addUsersToInterests(users);
+        return new UserDirectory(users, BST.bulkLoad(users.toArray(new User[0]), UserDirectory.nameComparator, true),
+                graph, interestManager);
+    }
+}
@@ -0,0 +1,167 @@
+package data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import data.InterestManager.InterestMatch;
+
+/**
+ * InterestManagerTest.java
+ * Tests the ranked multi-Interest query of InterestManager against counting
+ * each User's Interests directly.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Course Project
+ */
+public class InterestManagerTest {
+    private static final int NUM_USERS = 3000;
+    private static final int NUM_INTERESTS = 8;
+
+    private InterestManager interestManager;
+    private ArrayList<User> users;
+
+    /**
+     * Gives Users with scattered IDs random Interests.
+     */
+    @Before
+    public void setUp() {
+        interestManager = new InterestManager();
+        users = new ArrayList<>();
+        Random random = new Random(37);
+        for (int i = 0; i < NUM_USERS; i++) {
+            User user = new User("user" + i, "password");
+            user.setId(1 + 7 * i); // leave gaps between IDs
+            for (int j = 0; j < NUM_INTERESTS; j++) {
+                if (random.nextInt(3) == 0) {
+                    user.addInterest(interestManager.internInterest("interest" + j));
+                }
+            }
+            users.add(user);
+        }
+        interestManager.addUsersToInterests(users);
+    }
+
+    /**
+     * OR queries rank Users by match count, then ID, and respect minMatch.
+     */
+    @Test
+    public void anyQueriesRankByMatchCount() {
+        String[] names = {"interest0", "interest1", "interest2", "interest3"};
+        for (int minMatch = 1; minMatch <= names.length; minMatch++) {
+            assertMatches(expected(names, minMatch, Integer.MAX_VALUE),
+                    interestManager.queryInterests(names, false, minMatch, Integer.MAX_VALUE));
+        }
+        assertMatches(expected(names, 2, 25), interestManager.queryInterests(names, false, 2, 25));
+    }
+
+    /**
+     * AND queries return the Users with every Interest in ID order.
+     */
+    @Test
+    public void allQueriesReturnUsersWithEveryInterest() {
+        String[] names = {"interest4", " interest5 ", "interest6"};
+        ArrayList<InterestMatch> matches = interestManager.queryInterests(names, true, 1, Integer.MAX_VALUE);
+        assertMatches(expected(names, names.length, Integer.MAX_VALUE), matches);
+        assertTrue(!matches.isEmpty());
+
+        assertEquals(5, interestManager.queryInterests(names, true, 1, 5).size());
+        assertTrue(interestManager.queryInterests(new String[]{"interest4", "missing"}, true, 1, 10).isEmpty());
+    }
+
+    /**
+     * Unknown and repeated Interest names are ignored by OR queries.
+     */
+    @Test
+    public void anyQueriesIgnoreUnknownAndRepeatedNames() {
+        String[] names = {"interest7", "missing", "interest7", "interest0"};
+        assertMatches(expected(new String[]{"interest7", "interest0"}, 1, Integer.MAX_VALUE),
+                interestManager.queryInterests(names, false, 1, Integer.MAX_VALUE));
+        assertTrue(interestManager.queryInterests(new String[]{"missing"}, false, 1, 10).isEmpty());
+        assertTrue(interestManager.queryInterests(names, false, 3, 10).isEmpty());
+    }
+
+    /**
+     * Interest names are looked up from a User's IDs, in ID order.
+     */
+    @Test
+    public void interestNamesFollowIds() {
+        User user = new User("names", "password");
+        user.addInterest(interestManager.internInterest("Sailing"));
+        user.addInterest(interestManager.internInterest("interest3"));
+        user.addInterest(interestManager.internInterest("SAILING")); // already has it
+
+        ArrayList<String> names = new ArrayList<>();
+        for (String name : interestManager.getInterestNames(user)) {
+            names.add(name);
+        }
+        assertEquals(List.of("interest3", "Sailing"), names);
+        assertEquals(0, interestManager.getInterestNames(new User()).getLength());
+    }
+
+    /**
+     * Invalid arguments throw.
+     */
+    @Test
+    public void invalidArgumentsThrow() {
+        String[] names = {"interest0"};
+        assertThrows(IllegalArgumentException.class, () -> interestManager.queryInterests(names, false, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> interestManager.queryInterests(names, false, 1, -1));
+        assertTrue(interestManager.queryInterests(names, false, 1, 0).isEmpty());
+    }
+
+    /**
+     * Ranks the Users by counting their Interests one by one.
+     *
+     * @param names    the distinct names of existing Interests
+     * @param minMatch the fewest Interests a User must have
+     * @param limit    the most matches to return
+     * @return the expected {User ID, match count} pairs, best first
+     */
+    private ArrayList<int[]> expected(String[] names, int minMatch, int limit) {
+        ArrayList<int[]> expected = new ArrayList<>();
+        for (int count = names.length; count >= minMatch; count--) {
+            for (User user : users) { // already in ID order
+                int matched = 0;
+                for (String name : names) {
+                    int id = interestManager.internInterest(name.trim()).getInterestID();
+                    for (int interestId : user.getInterestIds()) {
+                        if (interestId == id) {
+                            matched++;
+                        }
+                    }
+                }
+                if (matched == count && expected.size() < limit) {
+                    expected.add(new int[]{user.getId(), count});
+                }
+            }
+        }
+        return expected;
+    }
+
+    /**
+     * Asserts that the matches are the expected Users with the expected counts.
+     *
+     * @param expected the expected {User ID, match count} pairs
+     * @param actual   the matches returned
+     */
+    private static void assertMatches(ArrayList<int[]> expected, ArrayList<InterestMatch> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i)[0], actual.get(i).getUserId());
+            assertEquals(expected.get(i)[1], actual.get(i).getMatchCount());
+        }
+    }
+}
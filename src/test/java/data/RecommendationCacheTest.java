@@ -0,0 +1,181 @@
+package data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * RecommendationCacheTest.java
+ * Tests LRU eviction, expiry and dependency invalidation in
+ * RecommendationCache, on its own and behind Friend.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Course Project
+ */
+public class RecommendationCacheTest {
+    private static final long HOUR = 60 * 60 * 1000;
+
+    /**
+     * A full cache evicts the entry used least recently, not the oldest one.
+     */
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        RecommendationCache cache = new RecommendationCache(2, HOUR);
+        put(cache, 1, new int[0], new int[0]);
+        put(cache, 2, new int[0], new int[0]);
+        assertNotNull(cache.get(1)); // 2 is now least recently used
+
+        put(cache, 3, new int[0], new int[0]);
+        assertEquals(2, cache.getSize());
+        assertNull(cache.get(2));
+        assertNotNull(cache.get(1));
+        assertNotNull(cache.get(3));
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    /**
+     * Entries older than the TTL count as misses and are removed.
+     */
+    @Test
+    public void expiredEntriesAreMisses() throws InterruptedException {
+        RecommendationCache cache = new RecommendationCache(10, 1);
+        put(cache, 1, new int[0], new int[0]);
+        Thread.sleep(20);
+        assertNull(cache.get(1));
+        assertEquals(0, cache.getSize());
+        assertEquals(1, cache.getMisses());
+
+        RecommendationCache lasting = new RecommendationCache(10, HOUR);
+        RecommendationCache.Entry entry = put(lasting, 1, new int[0], new int[0]);
+        Thread.sleep(20);
+        assertSame(entry, lasting.get(1));
+    }
+
+    /**
+     * Only the entries computed from a changed User or Interest are removed.
+     */
+    @Test
+    public void invalidatesOnlyDependentEntries() {
+        RecommendationCache cache = new RecommendationCache(10, HOUR);
+        put(cache, 1, new int[]{1, 5, 6}, new int[]{100});
+        put(cache, 2, new int[]{2, 6}, new int[]{200});
+        put(cache, 3, new int[]{3}, new int[]{100, 300});
+
+        cache.friendshipAdded(5, 9); // only entry 1 used User 5
+        assertNull(cache.get(1));
+        assertNotNull(cache.get(2));
+        assertNotNull(cache.get(3));
+        assertEquals(1, cache.getInvalidations());
+
+        cache.interestAdded(8, 300); // entry 3 used Interest 300
+        assertNull(cache.get(3));
+        assertNotNull(cache.get(2));
+
+        cache.interestAdded(2, 999); // entry 2 used User 2
+        assertNull(cache.get(2));
+        assertEquals(3, cache.getInvalidations());
+
+        // removed entries no longer depend on anything
+        cache.friendshipAdded(6, 1);
+        cache.interestAdded(1, 100);
+        assertEquals(3, cache.getInvalidations());
+    }
+
+    /**
+     * Replacing an entry drops the old entry's dependencies.
+     */
+    @Test
+    public void replacingEntryDropsOldDependencies() {
+        RecommendationCache cache = new RecommendationCache(10, HOUR);
+        put(cache, 1, new int[]{1, 7}, new int[]{100});
+        put(cache, 1, new int[]{1, 8}, new int[]{200});
+
+        cache.friendshipAdded(7, 9);
+        cache.interestAdded(9, 100);
+        assertNotNull(cache.get(1));
+        cache.friendshipAdded(8, 9);
+        assertNull(cache.get(1));
+        assertEquals(1, cache.getInvalidations());
+    }
+
+    /**
+     * A ranking read before an invalidating change is returned but not
+     * cached, even if the change didn't touch its dependencies.
+     */
+    @Test
+    public void rankingOlderThanChangeIsNotCached() {
+        RecommendationCache cache = new RecommendationCache(10, HOUR);
+        long generation = cache.getGeneration();
+        cache.friendshipAdded(1, 2); // no entries yet, so nothing to invalidate
+
+        assertNotNull(cache.put(1, new int[0], new double[0], true, new int[]{1, 2}, new int[0], generation));
+        assertNull(cache.get(1));
+        assertEquals(0, cache.getSize());
+
+        put(cache, 1, new int[]{1, 2}, new int[0]);
+        assertNotNull(cache.get(1));
+    }
+
+    /**
+     * Behind Friend, adding a friendship or an Interest drops the cached
+     * recommendations that depended on it, so the next page sees the change.
+     */
+    @Test
+    public void friendSeesNetworkChanges() {
+        UserDirectory directory = FriendTest.randomDirectory(new Random(45));
+        Friend friend = new Friend(directory);
+        RecommendationCache cache = friend.getRecommendationCache();
+        User user = directory.findUserById(1);
+
+        ArrayList<User> before = friend.getFriendRecommendations(user, 5).getUsers();
+        friend.getFriendRecommendations(user, 5);
+        assertEquals(1, cache.getHits());
+
+        User newFriend = before.get(before.size() - 1);
+        directory.addFriendConnection(user, newFriend);
+        assertEquals(0, cache.getSize());
+        ArrayList<User> after = friend.getFriendRecommendations(user, 5).getUsers();
+        assertEquals(-1, after.indexOf(newFriend)); // friends are never recommended
+        assertEquals(friend.getFriendRecommendations(user), new Friend(directory).getFriendRecommendations(user));
+
+        directory.getInterestManager().addUserToInterest("Brand New Interest", user);
+        assertEquals(0, cache.getSize());
+    }
+
+    /**
+     * Invalid sizes throw.
+     */
+    @Test
+    public void invalidArgumentsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new RecommendationCache(0, HOUR));
+        assertThrows(IllegalArgumentException.class, () -> new RecommendationCache(1, -1));
+    }
+
+    /**
+     * Caches an empty ranking with the given dependencies.
+     *
+     * @param cache                the cache
+     * @param userId               the ID of the User
+     * @param userDependencies     the IDs of the Users the ranking depends on
+     * @param interestDependencies the IDs of the Interests the ranking depends on
+     * @return the new Entry
+     */
+    private static RecommendationCache.Entry put(RecommendationCache cache, int userId, int[] userDependencies,
+                                                 int[] interestDependencies) {
+        return cache.put(userId, new int[0], new double[0], true, userDependencies, interestDependencies,
+                cache.getGeneration());
+    }
+}
@@ -0,0 +1,190 @@
+package data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/**
+ * RecommendationServiceTest.java
+ * Tests that RecommendationService coalesces identical requests, refuses
+ * requests beyond its limit, always completes its futures, and ranks safely
+ * while friendships are added on another thread.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Course Project
+ */
+public class RecommendationServiceTest {
+
+    /**
+     * Identical requests made while one is running share it, and requests
+     * beyond the limit are refused until the running ones finish.
+     */
+    @Test
+    public void coalescesAndRejects() throws InterruptedException {
+        UserDirectory directory = FriendTest.randomDirectory(new Random(50));
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        Friend blocking = new Friend(directory, (candidates, scores) -> {
+            started.countDown();
+            await(release);
+            LinearScoringModel.DEFAULT.score(candidates, scores);
+        });
+
+        try (RecommendationService service = new RecommendationService(blocking, 2)) {
+            User user1 = directory.findUserById(1);
+            User user2 = directory.findUserById(2);
+            CompletableFuture<RecommendationPage> first = service.getFriendRecommendations(user1, 5, null);
+            CompletableFuture<RecommendationPage> same = service.getFriendRecommendations(user1, 5, null);
+            CompletableFuture<RecommendationPage> other = service.getFriendRecommendations(user2, 5, null);
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            CompletableFuture<RecommendationPage> refused = service.getFriendRecommendations(user1, 6, null);
+            assertTrue(refused.isCompletedExceptionally());
+            assertCause(RejectedExecutionException.class, refused);
+            assertEquals(1, service.getCoalescedRequests());
+            assertEquals(1, service.getRejectedRequests());
+            assertEquals(2, service.getPendingRequests());
+
+            release.countDown();
+            Friend live = new Friend(directory);
+            assertEquals(live.getFriendRecommendations(user1, 5).getUsers(), first.join().getUsers());
+            assertEquals(first.join().getUsers(), same.join().getUsers());
+            assertEquals(live.getFriendRecommendations(user2, 5).getUsers(), other.join().getUsers());
+            assertEquals(0, service.getPendingRequests());
+            assertEquals(live.getFriendRecommendations(user1, 6).getUsers(),
+                    service.getFriendRecommendations(user1, 6, null).join().getUsers());
+        }
+    }
+
+    /**
+     * A request failing with an Error or an invalid argument completes its
+     * future and frees its place, so the same request can run again.
+     */
+    @Test
+    public void failuresCompleteTheFuture() {
+        UserDirectory directory = FriendTest.randomDirectory(new Random(51));
+        AtomicBoolean fail = new AtomicBoolean(true);
+        Friend failing = new Friend(directory, (candidates, scores) -> {
+            if (fail.get()) {
+                throw new AssertionError("scoring failed");
+            }
+            Arrays.fill(scores, 0, candidates.getSize(), 1.0);
+        });
+
+        try (RecommendationService service = new RecommendationService(failing, 1)) {
+            User user = directory.findUserById(1);
+            assertCause(AssertionError.class, service.getFriendRecommendations(user, 5, null));
+            assertEquals(0, service.getPendingRequests());
+
+            fail.set(false);
+            assertEquals(5, service.getFriendRecommendations(user, 5, null).join().getUsers().size());
+            assertCause(IllegalArgumentException.class, service.getFriendRecommendations(user, 0, null));
+            assertCause(IllegalArgumentException.class, service.getFriendRecommendations(user, 5, "bad"));
+            assertEquals(0, service.getPendingRequests());
+        }
+    }
+
+    /**
+     * A closed service refuses every request.
+     */
+    @Test
+    public void closedServiceRejects() {
+        UserDirectory directory = FriendTest.randomDirectory(new Random(52));
+        RecommendationService service = new RecommendationService(new Friend(directory));
+        service.close();
+        assertCause(RejectedExecutionException.class,
+                service.getFriendRecommendations(directory.findUserById(1), 5, null));
+        assertEquals(0, service.getPendingRequests());
+    }
+
+    /**
+     * Rankings running in the background while friendships are added never
+     * fail, and afterwards match a ranking of the final network.
+     */
+    @Test
+    public void ranksWhileFriendshipsAreAdded() {
+        UserDirectory directory = FriendTest.randomDirectory(new Random(53));
+        Friend friend = new Friend(directory);
+        Random random = new Random(54);
+        ArrayList<User[]> added = new ArrayList<>();
+
+        try (RecommendationService service = new RecommendationService(friend, 10_000)) {
+            ArrayList<CompletableFuture<RecommendationPage>> pages = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                User user = directory.findUserById(1 + random.nextInt(directory.getNumUsers()));
+                pages.add(service.getFriendRecommendations(user, 10, null, i % 2 == 0));
+                if (i % 4 == 0) {
+                    User a = directory.findUserById(1 + random.nextInt(directory.getNumUsers()));
+                    User b = directory.findUserById(1 + random.nextInt(directory.getNumUsers()));
+                    if (a != b) {
+                        directory.addFriendConnection(a, b);
+                        added.add(new User[]{a, b});
+                    }
+                }
+            }
+            for (CompletableFuture<RecommendationPage> page : pages) {
+                assertFalse(page.join().getUsers().contains(null));
+            }
+        }
+
+        Friend fresh = new Friend(directory);
+        for (User user : directory.getUsersAL()) {
+            assertEquals(fresh.getFriendRecommendations(user, 10).getUsers(),
+                    friend.getFriendRecommendations(user, 10).getUsers());
+        }
+        for (User[] pair : added) {
+            assertTrue(pair[0].getFriendIds().contains(pair[1].getId()));
+            assertTrue(pair[1].getFriendIds().contains(pair[0].getId()));
+            assertTrue(directory.getFriendNetwork().getAdjacencyList(pair[0].getId()).findIndex(pair[1].getId()) != -1);
+        }
+    }
+
+    /**
+     * Waits for a latch, failing the test if it takes too long.
+     *
+     * @param latch the latch to wait for
+     */
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("latch timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Asserts that a future fails with the given cause.
+     *
+     * @param cause  the expected class of the cause
+     * @param future the future
+     */
+    private static void assertCause(Class<? extends Throwable> cause, CompletableFuture<?> future) {
+        try {
+            future.join();
+            fail("expected " + cause.getSimpleName());
+        } catch (CompletionException e) {
+            assertTrue(e.getCause().toString(), cause.isInstance(e.getCause()));
+        }
+    }
+}
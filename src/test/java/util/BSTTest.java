@@ -0,0 +1,218 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * BSTTest.java
+ * Tests the self-balancing (AVL) mode of BST and its rank/select by
+ * cached subtree sizes.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class BSTTest {
+    private static final Comparator<Integer> CMP = Comparator.naturalOrder();
+
+    /**
+     * Inserting sorted values keeps a balanced tree within the AVL height
+     * bound, while an unbalanced tree degenerates into a list.
+     */
+    @Test
+    public void sortedInsertsStayLogarithmicWhenBalanced() {
+        final int n = 1023;
+        BST<Integer> balanced = new BST<>(true);
+        BST<Integer> unbalanced = new BST<>(false);
+        for (int i = 0; i < n; i++) {
+            balanced.insert(i, CMP);
+            unbalanced.insert(i, CMP);
+        }
+
+        assertTrue(balanced.isBalanced());
+        assertFalse(unbalanced.isBalanced());
+        assertEquals(n, balanced.getSize());
+        assertTrue("height " + balanced.getHeight(), balanced.getHeight() <= avlHeightBound(n));
+        assertEquals(n - 1, unbalanced.getHeight());
+    }
+
+    /**
+     * Random inserts and removes keep the values in order and the height
+     * within the AVL bound.
+     */
+    @Test
+    public void randomInsertsAndRemovesKeepOrderAndBalance() {
+        Random random = new Random(22);
+        BST<Integer> bst = new BST<>(true);
+        ArrayList<Integer> expected = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            int value = random.nextInt(500);
+            bst.insert(value, CMP);
+            expected.add(value);
+        }
+        for (int i = 0; i < 1000; i++) {
+            Integer value = expected.get(random.nextInt(expected.size()));
+            bst.remove(value, CMP);
+            expected.remove(value);
+        }
+        bst.remove(-1, CMP); // not in the tree, changes nothing
+
+        Collections.sort(expected);
+        assertEquals(expected, toList(bst));
+        assertEquals(expected.size(), bst.getSize());
+        assertTrue("height " + bst.getHeight(), bst.getHeight() <= avlHeightBound(bst.getSize()));
+    }
+
+    /**
+     * Removing from a balanced tree whose keys repeat unlinks exactly one
+     * node: no value is kept twice and no other value is lost, even when
+     * rotations have moved equal keys above a node's successor.
+     */
+    @Test
+    public void removingDuplicateKeysKeepsOtherValues() {
+        Comparator<int[]> byKey = Comparator.comparingInt(pair -> pair[0]); // {key, id}, ordered by key only
+        Random random = new Random(28);
+
+        for (int trial = 0; trial < 200; trial++) {
+            BST<int[]> bst = new BST<>(true);
+            int[] keyCounts = new int[10];
+            for (int id = 0; id < 60; id++) {
+                int key = random.nextInt(keyCounts.length);
+                bst.insert(new int[]{key, id}, byKey);
+                keyCounts[key]++;
+            }
+            for (int i = 0; i < 30; i++) {
+                int key = random.nextInt(keyCounts.length);
+                bst.remove(new int[]{key, -1}, byKey);
+                if (keyCounts[key] > 0) {
+                    keyCounts[key]--;
+                }
+            }
+
+            int[] actualCounts = new int[keyCounts.length];
+            boolean[] seenIds = new boolean[60];
+            int previousKey = -1;
+            for (int[] pair : bst) {
+                assertTrue("keys out of order", pair[0] >= previousKey);
+                assertFalse("id " + pair[1] + " kept twice", seenIds[pair[1]]);
+                seenIds[pair[1]] = true;
+                actualCounts[pair[0]]++;
+                previousKey = pair[0];
+            }
+            for (int key = 0; key < keyCounts.length; key++) {
+                assertEquals("count of key " + key, keyCounts[key], actualCounts[key]);
+            }
+            assertTrue("height " + bst.getHeight(), bst.getHeight() <= avlHeightBound(bst.getSize()));
+        }
+    }
+
+    /**
+     * Removing every value empties the tree.
+     */
+    @Test
+    public void removingEverythingEmptiesTree() {
+        BST<Integer> bst = new BST<>(true);
+        for (int i = 0; i < 100; i++) {
+            bst.insert(i, CMP);
+        }
+        for (int i = 99; i >= 0; i--) {
+            bst.remove(i, CMP);
+        }
+
+        assertTrue(bst.isEmpty());
+        assertEquals(0, bst.getSize());
+        assertEquals(-1, bst.getHeight());
+        assertNull(bst.search(5, CMP));
+    }
+
+    /**
+     * select(i) returns the i-th smallest value and rank counts the values
+     * smaller than its argument, including for duplicates and values not in
+     * the tree, after inserts and removes.
+     */
+    @Test
+    public void rankAndSelectMatchSortedOrder() {
+        Random random = new Random(30);
+        BST<Integer> bst = new BST<>(true);
+        ArrayList<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int value = 2 * random.nextInt(300); // even, so odd values are never in the tree
+            bst.insert(value, CMP);
+            expected.add(value);
+        }
+        for (int i = 0; i < 300; i++) {
+            Integer value = expected.get(random.nextInt(expected.size()));
+            bst.remove(value, CMP);
+            expected.remove(value);
+        }
+        Collections.sort(expected);
+
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), bst.select(i));
+        }
+        for (int value = -1; value <= 601; value++) {
+            int smaller = 0;
+            while (smaller < expected.size() && expected.get(smaller) < value) {
+                smaller++;
+            }
+            assertEquals("rank of " + value, smaller, bst.rank(value, CMP));
+        }
+    }
+
+    /**
+     * select rejects indexes outside the tree.
+     */
+    @Test
+    public void selectOutOfBoundsThrows() {
+        BST<Integer> bst = new BST<>(true);
+        bst.insert(1, CMP);
+        for (int index : new int[]{-1, 1}) {
+            try {
+                bst.select(index);
+                fail("select(" + index + ") should throw");
+            } catch (IndexOutOfBoundsException e) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * Returns the largest height an AVL tree of n nodes can have,
+     * about 1.44 log2(n + 2).
+     *
+     * @param n the number of nodes
+     * @return the height bound, counting edges
+     */
+    private static int avlHeightBound(int n) {
+        return (int) Math.floor(1.4405 * Math.log(n + 2) / Math.log(2) - 0.3277);
+    }
+
+    /**
+     * Collects the values of a tree in order.
+     *
+     * @param bst the tree
+     * @return the values in order
+     */
+    private static ArrayList<Integer> toList(BST<Integer> bst) {
+        ArrayList<Integer> values = new ArrayList<>();
+        for (int i = 0; i < bst.getSize(); i++) {
+            values.add(bst.select(i));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,225 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * ConcurrentSkipListTest.java
+ * Tests ConcurrentSkipList alone and with several threads inserting and
+ * removing at once.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class ConcurrentSkipListTest {
+    private static final Comparator<Integer> CMP = Comparator.naturalOrder();
+    private static final int THREADS = 8;
+
+    /**
+     * Inserts, removes, searches and ranges on one thread match a sorted list.
+     */
+    @Test
+    public void singleThreadMatchesSortedList() {
+        Random random = new Random(35);
+        ConcurrentSkipList<Integer> list = new ConcurrentSkipList<>();
+        ArrayList<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int value = random.nextInt(300);
+            list.insert(value, CMP);
+            expected.add(value);
+        }
+        for (int i = 0; i < 1000; i++) {
+            Integer value = random.nextInt(320);
+            assertEquals(expected.remove(value), list.remove(value, CMP));
+        }
+        Collections.sort(expected);
+
+        assertEquals(expected, toList(list));
+        assertEquals(expected.size(), list.getSize());
+        assertEquals(Collections.frequency(expected, 7), list.searchAll(7, CMP).size());
+        assertNull(list.search(-1, CMP));
+
+        ArrayList<Integer> range = new ArrayList<>();
+        for (int value : list.range(100, 110, CMP)) {
+            range.add(value);
+        }
+        ArrayList<Integer> expectedRange = new ArrayList<>();
+        for (int value : expected) {
+            if (value >= 100 && value <= 110) {
+                expectedRange.add(value);
+            }
+        }
+        assertEquals(expectedRange, range);
+    }
+
+    /**
+     * Values inserted by several threads at once all end up in order.
+     */
+    @Test(timeout = 30000)
+    public void concurrentInsertsAreAllKept() throws InterruptedException {
+        final int perThread = 5000;
+        ConcurrentSkipList<Integer> list = new ConcurrentSkipList<>();
+
+        runConcurrently(t -> {
+            for (int i = 0; i < perThread; i++) {
+                list.insert(i * THREADS + t, CMP); // interleaved, so threads compete for the same region
+            }
+        });
+
+        ArrayList<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < perThread * THREADS; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, toList(list));
+        assertEquals(expected.size(), list.getSize());
+    }
+
+    /**
+     * Threads removing some values while others insert new ones leave
+     * exactly the values that weren't removed plus the new ones.
+     */
+    @Test(timeout = 30000)
+    public void concurrentInsertsAndRemoves() throws InterruptedException {
+        final int n = 40000;
+        Integer[] initial = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            initial[i] = 2 * i; // even values to start, odd values are inserted
+        }
+        ConcurrentSkipList<Integer> list = ConcurrentSkipList.bulkLoad(initial, CMP);
+        AtomicInteger removed = new AtomicInteger();
+
+        runConcurrently(t -> {
+            for (int i = t; i < n; i += THREADS) {
+                if (t % 2 == 0) {
+                    if (list.remove(2 * i, CMP)) { // even threads remove every even value they own
+                        removed.incrementAndGet();
+                    }
+                } else {
+                    list.insert(2 * i + 1, CMP); // odd threads insert the odd value after theirs
+                }
+            }
+        });
+
+        ArrayList<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if ((i % THREADS) % 2 == 1) {
+                expected.add(2 * i);
+                expected.add(2 * i + 1);
+            }
+        }
+        assertEquals(n / 2, removed.get());
+        assertEquals(expected, toList(list));
+        assertEquals(expected.size(), list.getSize());
+    }
+
+    /**
+     * When several threads remove the same single value, exactly one succeeds.
+     */
+    @Test(timeout = 30000)
+    public void concurrentRemovesOfOneValueSucceedOnce() throws InterruptedException {
+        for (int round = 0; round < 200; round++) {
+            ConcurrentSkipList<Integer> list = new ConcurrentSkipList<>();
+            list.insert(1, CMP);
+            list.insert(2, CMP);
+            list.insert(3, CMP);
+            AtomicInteger successes = new AtomicInteger();
+
+            runConcurrently(t -> {
+                if (list.remove(2, CMP)) {
+                    successes.incrementAndGet();
+                }
+            });
+
+            assertEquals(1, successes.get());
+            assertEquals(Arrays.asList(1, 3), toList(list));
+            assertFalse(list.remove(2, CMP));
+        }
+    }
+
+    /**
+     * Bulk loading sorts the values, and an empty array gives an empty list.
+     */
+    @Test
+    public void bulkLoadSorts() {
+        ConcurrentSkipList<Integer> list = ConcurrentSkipList.bulkLoad(new Integer[]{5, 1, 4, 1, 3}, CMP);
+        assertEquals(Arrays.asList(1, 1, 3, 4, 5), toList(list));
+        assertTrue(ConcurrentSkipList.bulkLoad(new Integer[0], CMP).isEmpty());
+    }
+
+    /**
+     * Private interface for the work of one thread.
+     */
+    private interface ThreadTask {
+        /**
+         * Runs the work of one thread.
+         *
+         * @param thread the number of the thread, from 0 to THREADS - 1
+         */
+        void run(int thread);
+    }
+
+    /**
+     * Runs a task on THREADS threads started at the same moment and waits for them.
+     *
+     * @param task the task, given the number of its thread
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static void runConcurrently(ThreadTask task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Throwable[] failure = new Throwable[1];
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run(thread);
+                } catch (Throwable e) {
+                    synchronized (failure) {
+                        failure[0] = e;
+                    }
+                }
+            });
+            threads[t].start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure[0] != null) {
+            throw new AssertionError("a thread failed", failure[0]);
+        }
+    }
+
+    /**
+     * Collects the values of a list in order.
+     *
+     * @param list the list
+     * @return the values in order
+     */
+    private static ArrayList<Integer> toList(ConcurrentSkipList<Integer> list) {
+        ArrayList<Integer> values = new ArrayList<>();
+        for (int value : list) {
+            values.add(value);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,132 @@
+package util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * CountLeaderboardTest.java
+ * Tests that CountLeaderboard keeps items ordered by count as increments
+ * swap them between buckets.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class CountLeaderboardTest {
+
+    /**
+     * Incrementing the last item of a bucket swaps it to the front and moves
+     * it into the next bucket up.
+     */
+    @Test
+    public void incrementSwapsToFrontOfBucket() {
+        CountLeaderboard leaderboard = new CountLeaderboard();
+        for (int item = 0; item < 4; item++) {
+            leaderboard.add(item);
+        }
+        assertArrayEquals(new int[]{0, 1, 2, 3}, leaderboard.getTop(4));
+
+        leaderboard.increment(3); // swaps with 0, the front of bucket 0
+        assertArrayEquals(new int[]{3, 1, 2, 0}, leaderboard.getTop(4));
+
+        leaderboard.increment(2); // joins 3 in bucket 1
+        assertArrayEquals(new int[]{3, 2, 1, 0}, leaderboard.getTop(4));
+
+        leaderboard.increment(2); // moves ahead of 3 into bucket 2
+        assertArrayEquals(new int[]{2, 3, 1, 0}, leaderboard.getTop(4));
+
+        leaderboard.increment(0); // the last item jumps over bucket 0's front
+        assertArrayEquals(new int[]{2, 3, 0, 1}, leaderboard.getTop(4));
+        assertEquals(2, leaderboard.getCount(2));
+        assertEquals(1, leaderboard.getCount(0));
+        assertEquals(0, leaderboard.getCount(1));
+    }
+
+    /**
+     * Random adds and increments keep every item's count and the order by
+     * count, including after buckets empty and refill.
+     */
+    @Test
+    public void randomIncrementsKeepOrder() {
+        Random random = new Random(42);
+        CountLeaderboard leaderboard = new CountLeaderboard();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+
+        for (int step = 0; step < 20000; step++) {
+            int item = random.nextInt(step < 10000 ? 50 : 200); // later items start behind
+            if (random.nextInt(10) == 0) {
+                leaderboard.add(item);
+                expected.putIfAbsent(item, 0);
+            } else {
+                leaderboard.increment(item);
+                expected.merge(item, 1, Integer::sum);
+            }
+
+            if (step % 97 == 0) {
+                assertConsistent(expected, leaderboard);
+            }
+        }
+        assertConsistent(expected, leaderboard);
+    }
+
+    /**
+     * getTop stops at k or the number of items, and items never added have a
+     * count of 0.
+     */
+    @Test
+    public void topIsLimitedAndMissingItemsAreZero() {
+        CountLeaderboard leaderboard = new CountLeaderboard();
+        assertEquals(0, leaderboard.getTop(3).length);
+        leaderboard.increment(100); // grows past the initial capacity
+        leaderboard.increment(100);
+        leaderboard.increment(5);
+
+        assertArrayEquals(new int[]{100}, leaderboard.getTop(1));
+        assertArrayEquals(new int[]{100, 5}, leaderboard.getTop(10));
+        assertEquals(0, leaderboard.getTop(0).length);
+        assertEquals(0, leaderboard.getCount(7));
+        assertEquals(0, leaderboard.getCount(-1));
+        assertEquals(0, leaderboard.getCount(1000));
+        assertEquals(2, leaderboard.getSize());
+
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.getTop(-1));
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.add(-1));
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.increment(-1));
+    }
+
+    /**
+     * Asserts that the leaderboard holds exactly the expected items and
+     * counts, ordered by count.
+     *
+     * @param expected    the count of each item.
+     * @param leaderboard the leaderboard to check.
+     */
+    private static void assertConsistent(HashMap<Integer, Integer> expected, CountLeaderboard leaderboard) {
+        assertEquals(expected.size(), leaderboard.getSize());
+        int[] top = leaderboard.getTop(Integer.MAX_VALUE);
+        assertEquals(expected.size(), top.length);
+
+        for (int i = 0; i < top.length; i++) {
+            assertEquals((int) expected.get(top[i]), leaderboard.getCount(top[i]));
+            if (i > 0) {
+                assertTrue(leaderboard.getCount(top[i - 1]) >= leaderboard.getCount(top[i]));
+            }
+        }
+
+        int[] sorted = top.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(expected.keySet().stream().mapToInt(Integer::intValue).sorted().toArray(), sorted);
+    }
+}
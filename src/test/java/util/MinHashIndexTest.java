@@ -0,0 +1,150 @@
+package util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * MinHashIndexTest.java
+ * Tests that MinHashIndex estimates Jaccard similarity, finds similar sets
+ * through its buckets, and keeps its buckets right as items are added one
+ * at a time.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class MinHashIndexTest {
+
+    /**
+     * Estimates are close to the true Jaccard similarity, and exact for
+     * equal and empty sets.
+     */
+    @Test
+    public void estimatesJaccardSimilarity() {
+        MinHashIndex index = new MinHashIndex(64, 2);
+        Random random = new Random(48);
+        for (int trial = 0; trial < 20; trial++) {
+            HashSet<Integer> a = new HashSet<>();
+            HashSet<Integer> b = new HashSet<>();
+            int shared = random.nextInt(60);
+            for (int i = 0; i < shared; i++) {
+                a.add(trial * 1000 + i);
+                b.add(trial * 1000 + i);
+            }
+            for (int i = 0; i < 30; i++) {
+                a.add(trial * 1000 + 100 + i);
+                b.add(trial * 1000 + 200 + i);
+            }
+            index.addAll(2 * trial, toArray(a));
+            index.addAll(2 * trial + 1, toArray(b));
+
+            double jaccard = (double) shared / (shared + 60);
+            assertEquals(jaccard, index.estimateSimilarity(2 * trial, 2 * trial + 1), 0.2);
+        }
+
+        index.addAll(100, new int[]{1, 2, 3});
+        index.addAll(101, new int[]{3, 2, 1, 1});
+        assertEquals(1.0, index.estimateSimilarity(100, 101), 0.0);
+        assertEquals(0.0, index.estimateSimilarity(100, 555), 0.0);
+        assertEquals(42, index.getSize());
+    }
+
+    /**
+     * Similar sets are found, best first, without the set itself, and
+     * within k and minSimilarity.
+     */
+    @Test
+    public void findsSimilarSets() {
+        MinHashIndex index = new MinHashIndex(16, 2);
+        int[] base = {10, 20, 30, 40, 50, 60, 70, 80, 90, 100};
+        index.addAll(0, base);
+        index.addAll(1, base.clone()); // identical
+        index.addAll(2, new int[]{10, 20, 30, 40, 50, 60, 70, 80, 90, 101}); // 9 of 11
+        for (int id = 3; id < 50; id++) {
+            index.addAll(id, new int[]{1000 * id, 1000 * id + 1, 1000 * id + 2}); // unrelated
+        }
+
+        int[] similar = index.findSimilar(0, 10, 0.0);
+        assertTrue(similar.length >= 2);
+        assertEquals(1, similar[0]);
+        assertEquals(2, similar[1]);
+        for (int i = 1; i < similar.length; i++) {
+            assertTrue(index.estimateSimilarity(0, similar[i - 1]) >= index.estimateSimilarity(0, similar[i]));
+        }
+
+        assertArrayEquals(new int[]{1}, index.findSimilar(0, 1, 0.0));
+        for (int id : index.findSimilar(0, 10, 0.5)) {
+            assertTrue(index.estimateSimilarity(0, id) >= 0.5);
+        }
+        assertEquals(0, index.findSimilar(0, 0, 0.0).length);
+        assertEquals(0, index.findSimilar(999, 5, 0.0).length);
+    }
+
+    /**
+     * Adding items one at a time leaves the same signatures and buckets as
+     * adding each final set at once, for exact and hashed band keys.
+     */
+    @Test
+    public void incrementalAddsMatchBulkAdds() {
+        for (int rowsPerBand : new int[]{2, 3}) {
+            Random random = new Random(49);
+            MinHashIndex incremental = new MinHashIndex(16, rowsPerBand);
+            ArrayList<HashSet<Integer>> sets = new ArrayList<>();
+            for (int id = 0; id < 200; id++) {
+                sets.add(new HashSet<>());
+            }
+            for (int step = 0; step < 3000; step++) {
+                int id = random.nextInt(200);
+                int item = random.nextInt(60);
+                incremental.add(id, item);
+                sets.get(id).add(item);
+            }
+
+            MinHashIndex bulk = new MinHashIndex(16, rowsPerBand);
+            for (int id = 0; id < 200; id++) {
+                bulk.addAll(id, toArray(sets.get(id)));
+            }
+
+            assertEquals(bulk.getSize(), incremental.getSize());
+            for (int id = 0; id < 200; id++) {
+                assertArrayEquals(bulk.findSimilar(id, 20, 0.0), incremental.findSimilar(id, 20, 0.0));
+                assertEquals(bulk.estimateSimilarity(id, (id + 1) % 200),
+                        incremental.estimateSimilarity(id, (id + 1) % 200), 0.0);
+            }
+        }
+    }
+
+    /**
+     * Invalid arguments throw.
+     */
+    @Test
+    public void invalidArgumentsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new MinHashIndex(0, 2));
+        assertThrows(IllegalArgumentException.class, () -> new MinHashIndex(2, 0));
+        MinHashIndex index = new MinHashIndex(4, 4);
+        assertThrows(IllegalArgumentException.class, () -> index.add(-1, 5));
+        assertThrows(IllegalArgumentException.class, () -> index.findSimilar(0, -1, 0.0));
+    }
+
+    /**
+     * Copies a set of items into an array.
+     *
+     * @param items the items.
+     * @return a new array of the items.
+     */
+    private static int[] toArray(HashSet<Integer> items) {
+        return items.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,130 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * PersistentBSTTest.java
+ * Tests that PersistentBST versions never change, stay balanced and don't
+ * keep older versions alive.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class PersistentBSTTest {
+    private static final Comparator<Integer> CMP = Comparator.naturalOrder();
+
+    /**
+     * Inserting and removing returns new versions and leaves every older
+     * version with exactly its own values.
+     */
+    @Test
+    public void olderVersionsNeverChange() {
+        ArrayList<PersistentBST<Integer>> versions = new ArrayList<>();
+        ArrayList<ArrayList<Integer>> expected = new ArrayList<>();
+        Random random = new Random(33);
+
+        PersistentBST<Integer> tree = new PersistentBST<>();
+        ArrayList<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int value = random.nextInt(100);
+            if (i % 3 == 2 && !values.isEmpty()) {
+                Integer removed = values.get(random.nextInt(values.size()));
+                tree = tree.remove(removed, CMP);
+                values.remove(removed);
+            } else {
+                tree = tree.insert(value, CMP);
+                values.add(value);
+            }
+            ArrayList<Integer> sorted = new ArrayList<>(values);
+            Collections.sort(sorted);
+            versions.add(tree);
+            expected.add(sorted);
+        }
+
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals("version " + i, expected.get(i), toList(versions.get(i)));
+            assertEquals(expected.get(i).size(), versions.get(i).getSize());
+        }
+    }
+
+    /**
+     * Removing a value that isn't in the tree returns the same version.
+     */
+    @Test
+    public void removingMissingValueReturnsSameVersion() {
+        PersistentBST<Integer> tree = new PersistentBST<Integer>().insert(1, CMP).insert(2, CMP);
+        assertSame(tree, tree.remove(3, CMP));
+        assertNull(tree.search(3, CMP));
+    }
+
+    /**
+     * Sorted inserts keep the height logarithmic, and searchAll finds every duplicate.
+     */
+    @Test
+    public void staysBalancedAndFindsDuplicates() {
+        PersistentBST<Integer> tree = new PersistentBST<>();
+        for (int i = 0; i < 1000; i++) {
+            tree = tree.insert(i / 2, CMP);
+        }
+
+        assertTrue("height " + tree.getHeight(), tree.getHeight() <= 14); // AVL bound for 1000 nodes
+        assertEquals(2, tree.searchAll(250, CMP).size());
+        assertEquals(Integer.valueOf(250), tree.search(250, CMP));
+    }
+
+    /**
+     * Copying a BST gives the same values in order.
+     */
+    @Test
+    public void copiesBST() {
+        BST<Integer> bst = new BST<>(true);
+        for (int value : new int[]{5, 3, 8, 1, 4, 9, 3}) {
+            bst.insert(value, CMP);
+        }
+
+        PersistentBST<Integer> tree = new PersistentBST<>(bst);
+        assertEquals(Arrays.asList(1, 3, 3, 4, 5, 8, 9), toList(tree));
+        assertTrue(new PersistentBST<Integer>(null).isEmpty());
+    }
+
+    /**
+     * Nodes must not be inner classes: an inner node refers to the version
+     * that created it, so versions sharing nodes would keep each other alive.
+     */
+    @Test
+    public void nodesDoNotReferToTheirVersion() throws ClassNotFoundException {
+        Class<?> node = Class.forName("util.PersistentBST$Node");
+        assertTrue(Modifier.isStatic(node.getModifiers()));
+    }
+
+    /**
+     * Collects the values of a tree in order.
+     *
+     * @param tree the tree
+     * @return the values in order
+     */
+    private static ArrayList<Integer> toList(PersistentBST<Integer> tree) {
+        ArrayList<Integer> values = new ArrayList<>();
+        for (int value : tree) {
+            values.add(value);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,99 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * PrefixIndexTest.java
+ * Tests prefix search, normalization and ordering in PrefixIndex.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class PrefixIndexTest {
+    /**
+     * Keys are normalized, and matches come back in key order up to the limit.
+     */
+    @Test
+    public void findsNormalizedPrefixInKeyOrder() {
+        PrefixIndex<String> index = new PrefixIndex<>(8);
+        index.add("  Ada   Lovelace ", "ada");
+        index.add("Alan Turing", "alan");
+        index.add("Alonzo Church", "alonzo");
+        index.add("Grace Hopper", "grace");
+
+        assertEquals(Arrays.asList("ada", "alan", "alonzo"), index.findByPrefix("A", 10));
+        assertEquals(Arrays.asList("ada"), index.findByPrefix("ada  LOVE", 10));
+        assertEquals(Arrays.asList("ada", "alan"), index.findByPrefix("a", 2));
+        assertTrue(index.findByPrefix("z", 10).isEmpty());
+        assertEquals(4, index.findByPrefix("", 10).size());
+    }
+
+    /**
+     * A value indexed under several matching keys is returned once.
+     */
+    @Test
+    public void returnsEachValueOnce() {
+        PrefixIndex<String> index = new PrefixIndex<>(4);
+        index.add("Lee Lee", "lee");
+        index.add("Lee Lee", "lee");
+        index.add("Lee Ann", "ann");
+
+        assertEquals(Arrays.asList("ann", "lee"), index.findByPrefix("lee", 10));
+    }
+
+    /**
+     * Adding keys out of order, one by one and in bulk, gives the same
+     * results as a sorted list.
+     */
+    @Test
+    public void outOfOrderAddsStaySorted() {
+        Random random = new Random(34);
+        PrefixIndex<String> index = new PrefixIndex<>(0);
+        ArrayList<String> expected = new ArrayList<>();
+
+        ArrayList<String> bulk = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            bulk.add("k" + random.nextInt(10000));
+        }
+        index.addAll(bulk, bulk);
+        expected.addAll(bulk);
+        for (int i = 0; i < 500; i++) {
+            String key = "k" + random.nextInt(10000);
+            index.add(key, key);
+            expected.add(key);
+        }
+
+        Collections.sort(expected); // equal keys are distinct String objects, so none are merged
+        assertEquals(1000, index.getSize());
+        assertEquals(expected, index.findByPrefix("k", Integer.MAX_VALUE));
+    }
+
+    /**
+     * A null prefix is rejected.
+     */
+    @Test(expected = NullPointerException.class)
+    public void nullPrefixThrows() {
+        new PrefixIndex<String>(0).findByPrefix(null, 1);
+    }
+
+    /**
+     * A negative limit is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeLimitThrows() {
+        new PrefixIndex<String>(0).findByPrefix("a", -1);
+    }
+}
@@ -0,0 +1,139 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * RankedListFileTest.java
+ * Tests that RankedListFile reads back exactly the lists it wrote and
+ * rejects files that are not valid.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class RankedListFileTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Every list, its completeness and the fingerprint are read back as written.
+     */
+    @Test
+    public void writeThenReadRoundTrips() throws IOException {
+        Random random = new Random(46);
+        int numKeys = 101; // odd, so the flags need padding
+        int[][] ids = new int[numKeys][];
+        double[][] scores = new double[numKeys][];
+        boolean[] complete = new boolean[numKeys];
+        for (int key = 0; key < numKeys; key++) {
+            if (key % 10 == 3) {
+                continue; // null lists are empty
+            }
+            int length = random.nextInt(8);
+            ids[key] = new int[length];
+            scores[key] = new double[length];
+            for (int i = 0; i < length; i++) {
+                ids[key][i] = random.nextInt(1000);
+                scores[key][i] = random.nextGaussian();
+            }
+            complete[key] = random.nextBoolean();
+        }
+
+        Path file = folder.getRoot().toPath().resolve("lists.bin");
+        long before = System.currentTimeMillis();
+        RankedListFile.write(file, 0x1234_5678_9abc_def0L, ids, scores, complete);
+        RankedListFile read = RankedListFile.open(file);
+
+        assertEquals(numKeys, read.getNumKeys());
+        assertEquals(0x1234_5678_9abc_def0L, read.getFingerprint());
+        assertTrue(read.getCreatedAt() >= before);
+        for (int key = 0; key < numKeys; key++) {
+            RankedList list = read.getList(key);
+            int length = ids[key] == null ? 0 : ids[key].length;
+            assertEquals(length, list.getSize());
+            assertEquals(complete[key], list.isComplete());
+            for (int i = 0; i < length; i++) {
+                assertEquals(ids[key][i], list.getId(i));
+                assertEquals(scores[key][i], list.getScore(i), 0.0);
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> list.getId(length));
+        }
+
+        RankedList missing = read.getList(numKeys);
+        assertEquals(0, missing.getSize());
+        assertTrue(missing.isComplete());
+        assertEquals(0, read.getList(-1).getSize());
+    }
+
+    /**
+     * Writing again replaces the file, leaving no temporary files behind.
+     */
+    @Test
+    public void rewritingReplacesFile() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("lists.bin");
+        RankedListFile.write(file, 1, new int[][]{{5}}, new double[][]{{0.5}}, new boolean[]{false});
+        RankedListFile.write(file, 2, new int[0][], new double[0][], new boolean[0]);
+
+        RankedListFile read = RankedListFile.open(file);
+        assertEquals(2, read.getFingerprint());
+        assertEquals(0, read.getNumKeys());
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    /**
+     * Files that are too short, truncated or not ranked list files are rejected.
+     */
+    @Test
+    public void invalidFilesThrow() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("lists.bin");
+        RankedListFile.write(file, 7, new int[][]{{1, 2, 3}}, new double[][]{{3, 2, 1}}, new boolean[]{true});
+        byte[] bytes = Files.readAllBytes(file);
+
+        Path truncated = folder.newFile("truncated.bin").toPath();
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IOException.class, () -> RankedListFile.open(truncated));
+
+        Path wrongMagic = folder.newFile("magic.bin").toPath();
+        byte[] changed = bytes.clone();
+        changed[0] ^= 1;
+        Files.write(wrongMagic, changed);
+        assertThrows(IOException.class, () -> RankedListFile.open(wrongMagic));
+
+        Path empty = folder.newFile("empty.bin").toPath();
+        assertThrows(IOException.class, () -> RankedListFile.open(empty));
+        assertThrows(IOException.class, () -> RankedListFile.open(folder.getRoot().toPath().resolve("missing.bin")));
+    }
+
+    /**
+     * Arrays of different lengths are rejected before anything is written.
+     */
+    @Test
+    public void mismatchedArraysThrow() {
+        Path file = folder.getRoot().toPath().resolve("lists.bin");
+        assertThrows(IllegalArgumentException.class, () -> RankedListFile.write(file, 0,
+                new int[2][], new double[1][], new boolean[2]));
+        assertThrows(IllegalArgumentException.class, () -> RankedListFile.write(file, 0,
+                new int[][]{{1, 2}}, new double[][]{{1}}, new boolean[1]));
+        assertFalse(Files.exists(file));
+    }
+}
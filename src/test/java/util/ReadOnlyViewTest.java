@@ -0,0 +1,111 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+/**
+ * ReadOnlyViewTest.java
+ * Tests that ReadOnlyView shows the live skip list and hides exactly one
+ * object, by reference.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class ReadOnlyViewTest {
+    private static final Comparator<String> BY_LENGTH = Comparator.comparingInt(String::length);
+
+    /**
+     * The view follows later changes to the skip list.
+     */
+    @Test
+    public void viewIsLive() {
+        ConcurrentSkipList<String> list = new ConcurrentSkipList<>();
+        ReadOnlyView<String> view = new ReadOnlyView<>(list, BY_LENGTH);
+        assertTrue(view.isEmpty());
+        assertEquals(0, view.getSize());
+
+        list.insert("ccc", BY_LENGTH);
+        list.insert("a", BY_LENGTH);
+        assertEquals(2, view.getSize());
+        assertEquals(List.of("a", "ccc"), toList(view));
+    }
+
+    /**
+     * Only the excluded object is hidden; equal values stay visible.
+     */
+    @Test
+    public void excludingHidesOnlyThatObject() {
+        ConcurrentSkipList<String> list = new ConcurrentSkipList<>();
+        String hidden = new String("bb");
+        String twin = new String("bb");
+        list.insert("a", BY_LENGTH);
+        list.insert(twin, BY_LENGTH);
+        list.insert("xy", BY_LENGTH); // compares equal to both
+        list.insert(hidden, BY_LENGTH);
+        list.insert("ccc", BY_LENGTH);
+
+        ReadOnlyView<String> view = new ReadOnlyView<>(list, BY_LENGTH).excluding(hidden);
+        assertEquals(4, view.getSize());
+        ArrayList<String> visible = toList(view);
+        assertEquals(4, visible.size());
+        for (String value : visible) {
+            assertTrue(value != hidden);
+        }
+        assertTrue(visible.stream().anyMatch(value -> value == twin));
+        assertEquals(5, list.getSize());
+
+        // excluding replaces the hidden value, and a value that isn't in the list hides nothing
+        ReadOnlyView<String> other = view.excluding(new String("bb"));
+        assertEquals(5, other.getSize());
+        assertEquals(5, toList(other).size());
+        assertTrue(toList(other).stream().anyMatch(value -> value == hidden));
+        assertEquals(4, other.excluding(twin).getSize());
+        assertTrue(toList(other.excluding(twin)).stream().anyMatch(value -> value == hidden));
+    }
+
+    /**
+     * Hiding the only value leaves an empty view.
+     */
+    @Test
+    public void hidingOnlyValueLeavesEmptyView() {
+        ConcurrentSkipList<String> list = new ConcurrentSkipList<>();
+        String only = "only";
+        list.insert(only, BY_LENGTH);
+        ReadOnlyView<String> view = new ReadOnlyView<>(list, BY_LENGTH).excluding(only);
+        assertTrue(view.isEmpty());
+        assertEquals(0, view.getSize());
+
+        Iterator<String> it = view.iterator();
+        assertFalse(it.hasNext());
+        assertThrows(NoSuchElementException.class, it::next);
+    }
+
+    /**
+     * Copies the visible values of a view into a list.
+     *
+     * @param view the view to copy.
+     * @return the values in order.
+     */
+    private static ArrayList<String> toList(ReadOnlyView<String> view) {
+        ArrayList<String> values = new ArrayList<>();
+        for (String value : view) {
+            values.add(value);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,230 @@
+package util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+/**
+ * RoaringBitmapTest.java
+ * Tests that RoaringBitmap switches between array, bitmap and run
+ * containers as chunks fill up, and that and, or and andNot match a
+ * TreeSet whichever containers they combine.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class RoaringBitmapTest {
+    private static final int CHUNK = 1 << 16;
+
+    /**
+     * A chunk stays an array up to 4096 values and becomes a bitmap after.
+     */
+    @Test
+    public void arrayBecomesBitmapWhenFull() throws ReflectiveOperationException {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 4096; i++) {
+            bitmap.add(3 * i);
+            expected.add(3 * i);
+        }
+        assertEquals("ArrayContainer", containerType(bitmap, 0));
+
+        bitmap.add(3 * 4096);
+        expected.add(3 * 4096);
+        assertEquals("BitmapContainer", containerType(bitmap, 0));
+        assertMatches(expected, bitmap);
+    }
+
+    /**
+     * runOptimize turns long ranges into run containers and leaves scattered
+     * values alone, without changing the values.
+     */
+    @Test
+    public void runOptimizeOnlyConvertsRanges() throws ReflectiveOperationException {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 10000; i++) { // dense range: bitmap then run
+            bitmap.add(i);
+            expected.add(i);
+        }
+        for (int i = 0; i < 100; i++) { // scattered: stays an array
+            bitmap.add(CHUNK + 7 * i);
+            expected.add(CHUNK + 7 * i);
+        }
+        for (int i = 0; i < 50; i++) { // short range: array then run
+            bitmap.add(2 * CHUNK + 100 + i);
+            expected.add(2 * CHUNK + 100 + i);
+        }
+
+        bitmap.runOptimize();
+        assertEquals("RunContainer", containerType(bitmap, 0));
+        assertEquals("ArrayContainer", containerType(bitmap, 1));
+        assertEquals("RunContainer", containerType(bitmap, 2));
+        assertMatches(expected, bitmap);
+
+        // adding to a run container keeps every value
+        bitmap.add(20000);
+        bitmap.add(5);
+        expected.add(20000);
+        assertMatches(expected, bitmap);
+    }
+
+    /**
+     * and, or and andNot match TreeSet results for every pairing of array,
+     * bitmap and run containers, and leave both operands unchanged.
+     */
+    @Test
+    public void setOperationsMatchTreeSet() {
+        Random random = new Random(36);
+        int[][] shapes = {{200, 1}, {6000, 1}, {3000, 0}, {40000, 0}}; // {count, scattered?}
+        for (int[] a : shapes) {
+            for (int[] b : shapes) {
+                for (boolean optimize : new boolean[]{false, true}) {
+                    TreeSet<Integer> setA = new TreeSet<>();
+                    TreeSet<Integer> setB = new TreeSet<>();
+                    RoaringBitmap bitmapA = fill(a, random, setA, optimize);
+                    RoaringBitmap bitmapB = fill(b, random, setB, optimize);
+
+                    TreeSet<Integer> and = new TreeSet<>(setA);
+                    and.retainAll(setB);
+                    TreeSet<Integer> or = new TreeSet<>(setA);
+                    or.addAll(setB);
+                    TreeSet<Integer> andNot = new TreeSet<>(setA);
+                    andNot.removeAll(setB);
+
+                    assertMatches(and, bitmapA.and(bitmapB));
+                    assertMatches(or, bitmapA.or(bitmapB));
+                    assertMatches(andNot, bitmapA.andNot(bitmapB));
+                    assertMatches(setA, bitmapA);
+                    assertMatches(setB, bitmapB);
+                }
+            }
+        }
+    }
+
+    /**
+     * An intersection that empties a chunk drops the chunk, and an
+     * intersection of two bitmaps with few values in common is compacted
+     * back to an array.
+     */
+    @Test
+    public void andDropsEmptyChunksAndCompacts() throws ReflectiveOperationException {
+        RoaringBitmap evens = new RoaringBitmap();
+        RoaringBitmap odds = new RoaringBitmap();
+        for (int i = 0; i < 10000; i++) {
+            evens.add(2 * i);
+            odds.add(2 * i + 1);
+        }
+        evens.add(CHUNK + 1);
+        odds.add(5 * CHUNK);
+
+        RoaringBitmap none = evens.and(odds);
+        assertTrue(none.isEmpty());
+        assertEquals(0, none.getCardinality());
+
+        evens.add(3);
+        RoaringBitmap few = evens.and(odds);
+        assertArrayEquals(new int[]{3}, few.toArray());
+        assertEquals("ArrayContainer", containerType(few, 0));
+    }
+
+    /**
+     * The copy is independent of the original, and clear empties the set.
+     */
+    @Test
+    public void copyAndClear() {
+        RoaringBitmap original = new RoaringBitmap();
+        for (int i = 0; i < 5000; i++) {
+            original.add(i * 13);
+        }
+        RoaringBitmap copy = new RoaringBitmap(original);
+        copy.add(1);
+        assertFalse(original.contains(1));
+        assertTrue(copy.contains(1));
+        assertEquals(5000, original.getCardinality());
+
+        original.clear();
+        assertTrue(original.isEmpty());
+        assertFalse(original.contains(0));
+        assertEquals(5001, copy.getCardinality());
+        assertEquals("", original.toString().trim());
+    }
+
+    /**
+     * Negative values are refused.
+     */
+    @Test
+    public void negativeValuesThrow() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1));
+        assertThrows(NullPointerException.class, () -> new RoaringBitmap(null));
+    }
+
+    /**
+     * Fills a bitmap and its reference set with values of one shape spread
+     * over two chunks.
+     *
+     * @param shape     {count, 1 for random values or 0 for one range}
+     * @param random    the random number generator.
+     * @param reference the set receiving the same values.
+     * @param optimize  whether to call runOptimize afterwards.
+     * @return the new bitmap.
+     */
+    private static RoaringBitmap fill(int[] shape, Random random, TreeSet<Integer> reference, boolean optimize) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        int start = random.nextInt(CHUNK);
+        for (int i = 0; i < shape[0]; i++) {
+            int value = shape[1] == 1 ? random.nextInt(2 * CHUNK) : start + i;
+            bitmap.add(value);
+            reference.add(value);
+        }
+        if (optimize) {
+            bitmap.runOptimize();
+        }
+        return bitmap;
+    }
+
+    /**
+     * Asserts that a bitmap holds exactly the values of a set.
+     *
+     * @param expected the values expected.
+     * @param actual   the bitmap to check.
+     */
+    private static void assertMatches(TreeSet<Integer> expected, RoaringBitmap actual) {
+        int[] values = expected.stream().mapToInt(Integer::intValue).toArray();
+        assertArrayEquals(values, actual.toArray());
+        assertEquals(values.length, actual.getCardinality());
+        assertEquals(values.length == 0, actual.isEmpty());
+        for (int value : values) {
+            assertTrue(actual.contains(value));
+            assertFalse(actual.contains(value + CHUNK * 7)); // beyond every chunk used
+        }
+    }
+
+    /**
+     * Returns the kind of container holding a chunk.
+     *
+     * @param bitmap the bitmap to inspect.
+     * @param index  the position of the chunk.
+     * @return the simple class name of the container.
+     * @throws ReflectiveOperationException when the field cannot be read.
+     */
+    private static String containerType(RoaringBitmap bitmap, int index) throws ReflectiveOperationException {
+        Field containers = RoaringBitmap.class.getDeclaredField("containers");
+        containers.setAccessible(true);
+        return ((Object[]) containers.get(bitmap))[index].getClass().getSimpleName();
+    }
+}
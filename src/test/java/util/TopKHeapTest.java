@@ -0,0 +1,89 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * TopKHeapTest.java
+ * Tests that TopKHeap keeps the k best (score, id) pairs, with ties broken
+ * by the smaller id, and sorts them best first.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class TopKHeapTest {
+
+    /**
+     * The sorted heap equals the first k pairs of a full sort, for scores
+     * with many ties.
+     */
+    @Test
+    public void keepsBestPairsWithTiesBySmallerId() {
+        Random random = new Random(44);
+        for (int k : new int[]{0, 1, 2, 7, 100, 1000}) {
+            ArrayList<double[]> pairs = new ArrayList<>(); // {score, id}
+            TopKHeap heap = new TopKHeap(k);
+            for (int id = 0; id < 500; id++) {
+                double score = random.nextInt(20) / 4.0; // few distinct scores
+                pairs.add(new double[]{score, id});
+            }
+            Collections.shuffle(pairs, random);
+            for (double[] pair : pairs) {
+                heap.offer((int) pair[1], pair[0]);
+            }
+
+            pairs.sort((p1, p2) -> p1[0] != p2[0] ? Double.compare(p2[0], p1[0]) : Double.compare(p1[1], p2[1]));
+            heap.sort();
+            assertEquals(Math.min(k, pairs.size()), heap.getSize());
+            for (int i = 0; i < heap.getSize(); i++) {
+                assertEquals((int) pairs.get(i)[1], heap.getId(i));
+                assertEquals(pairs.get(i)[0], heap.getScore(i), 0.0);
+            }
+        }
+    }
+
+    /**
+     * isWorse orders by score, then prefers the smaller id.
+     */
+    @Test
+    public void isWorseOrdersByScoreThenId() {
+        assertTrue(TopKHeap.isWorse(1.0, 1, 2.0, 9));
+        assertFalse(TopKHeap.isWorse(2.0, 9, 1.0, 1));
+        assertTrue(TopKHeap.isWorse(1.0, 5, 1.0, 4));
+        assertFalse(TopKHeap.isWorse(1.0, 4, 1.0, 5));
+        assertFalse(TopKHeap.isWorse(1.0, 4, 1.0, 4));
+        assertTrue(TopKHeap.isWorse(-0.0, 0, 0.0, 1)); // same order as Double.compare
+    }
+
+    /**
+     * Sorting is final, and only kept pairs can be read.
+     */
+    @Test
+    public void sortedHeapRejectsOffersAndBadIndexes() {
+        TopKHeap heap = new TopKHeap(3);
+        heap.offer(1, 1.0);
+        heap.offer(2, 3.0);
+        heap.sort();
+        heap.sort(); // sorting again changes nothing
+        assertEquals(2, heap.getId(0));
+        assertEquals(1, heap.getId(1));
+
+        assertThrows(IllegalStateException.class, () -> heap.offer(3, 5.0));
+        assertThrows(IndexOutOfBoundsException.class, () -> heap.getId(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> heap.getScore(-1));
+        assertThrows(IllegalArgumentException.class, () -> new TopKHeap(-1));
+    }
+}
@@ -0,0 +1,172 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * TraversalBufferTest.java
+ * Tests that Graph.boundedBFS records the same distances and shortest path
+ * counts as a plain breadth first search, and that reusing a TraversalBuffer
+ * never leaks entries from earlier traversals.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class TraversalBufferTest {
+    private static final int NUM_VERTICES = 300;
+
+    /**
+     * One buffer reused for many sources and depths matches a fresh BFS each time.
+     */
+    @Test
+    public void reusedBufferMatchesPlainBFS() {
+        ArrayList<ArrayList<Integer>> neighbors = new ArrayList<>();
+        Graph graph = randomGraph(new Random(43), neighbors);
+        TraversalBuffer buffer = new TraversalBuffer();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 200; i++) {
+            int source = 1 + random.nextInt(NUM_VERTICES);
+            int maxDepth = random.nextInt(4);
+            assertMatchesBFS(graph, neighbors, source, maxDepth, buffer);
+        }
+    }
+
+    /**
+     * Marks last only until the next traversal begins, and may go past the
+     * vertices of the graph.
+     */
+    @Test
+    public void marksAreClearedByNextTraversal() {
+        Graph graph = new Graph(3);
+        graph.addUndirectedEdge(1, 2);
+        TraversalBuffer buffer = new TraversalBuffer();
+
+        graph.boundedBFS(1, 1, buffer);
+        assertTrue(buffer.mark(2));
+        assertFalse(buffer.mark(2));
+        assertTrue(buffer.mark(1000));
+        assertFalse(buffer.mark(1000));
+
+        graph.boundedBFS(3, 1, buffer);
+        assertEquals(1, buffer.getNumReached());
+        assertEquals(-1, buffer.getDistance(1));
+        assertEquals(0, buffer.getPathCount(2));
+        assertTrue(buffer.mark(2));
+        assertTrue(buffer.mark(1000));
+        assertThrows(IllegalArgumentException.class, () -> buffer.mark(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getReached(1));
+    }
+
+    /**
+     * Traversals stay correct when the stamps start over.
+     */
+    @Test
+    public void stampsStartOverSafely() throws ReflectiveOperationException {
+        ArrayList<ArrayList<Integer>> neighbors = new ArrayList<>();
+        Graph graph = randomGraph(new Random(44), neighbors);
+        TraversalBuffer buffer = new TraversalBuffer();
+        graph.boundedBFS(1, 3, buffer);
+        buffer.mark(5);
+
+        Field stamp = TraversalBuffer.class.getDeclaredField("stamp");
+        stamp.setAccessible(true);
+        stamp.setInt(buffer, Integer.MAX_VALUE - 3);
+
+        for (int source = 1; source <= 6; source++) {
+            assertMatchesBFS(graph, neighbors, source, 2, buffer);
+            assertTrue(buffer.mark(5));
+        }
+    }
+
+    /**
+     * Builds a random graph with vertices 1 to NUM_VERTICES.
+     *
+     * @param random    the random number generator.
+     * @param neighbors receives the neighbors of each vertex, index 0 unused.
+     * @return the graph.
+     */
+    private static Graph randomGraph(Random random, ArrayList<ArrayList<Integer>> neighbors) {
+        Graph graph = new Graph(NUM_VERTICES);
+        for (int v = 0; v <= NUM_VERTICES; v++) {
+            neighbors.add(new ArrayList<>());
+        }
+        HashSet<Long> edges = new HashSet<>();
+        for (int i = 0; i < 3 * NUM_VERTICES / 2; i++) {
+            int u = 1 + random.nextInt(NUM_VERTICES);
+            int v = 1 + random.nextInt(NUM_VERTICES);
+            if (u != v && edges.add((long) Math.min(u, v) << 32 | Math.max(u, v))) {
+                graph.addUndirectedEdge(u, v);
+                neighbors.get(u).add(v);
+                neighbors.get(v).add(u);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Asserts that a bounded traversal reaches exactly the vertices within
+     * maxDepth, in order of distance, with the right distances and shortest
+     * path counts.
+     *
+     * @param graph     the graph to traverse.
+     * @param neighbors the neighbors of each vertex.
+     * @param source    the starting vertex.
+     * @param maxDepth  the largest distance to explore.
+     * @param buffer    the buffer to traverse with.
+     */
+    private static void assertMatchesBFS(Graph graph, ArrayList<ArrayList<Integer>> neighbors, int source,
+                                         int maxDepth, TraversalBuffer buffer) {
+        int[] distances = new int[NUM_VERTICES + 1];
+        long[] paths = new long[NUM_VERTICES + 1];
+        Arrays.fill(distances, -1);
+        distances[source] = 0;
+        paths[source] = 1;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(source);
+        int reached = 1;
+        while (!queue.isEmpty()) {
+            int u = queue.remove();
+            if (distances[u] == maxDepth) {
+                continue;
+            }
+            for (int v : neighbors.get(u)) {
+                if (distances[v] == -1) {
+                    distances[v] = distances[u] + 1;
+                    paths[v] = paths[u];
+                    queue.add(v);
+                    reached++;
+                } else if (distances[v] == distances[u] + 1) {
+                    paths[v] += paths[u];
+                }
+            }
+        }
+
+        assertEquals(reached, graph.boundedBFS(source, maxDepth, buffer));
+        assertEquals(reached, buffer.getNumReached());
+        for (int v = 1; v <= NUM_VERTICES; v++) {
+            assertEquals(distances[v], buffer.getDistance(v));
+            assertEquals(distances[v] == -1 ? 0 : paths[v], buffer.getPathCount(v));
+        }
+        for (int i = 1; i < reached; i++) {
+            assertTrue(buffer.getDistance(buffer.getReached(i - 1)) <= buffer.getDistance(buffer.getReached(i)));
+        }
+        assertEquals(source, buffer.getReached(0));
+    }
+}
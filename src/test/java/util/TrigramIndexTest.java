@@ -0,0 +1,123 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * TrigramIndexTest.java
+ * Tests that TrigramIndex ranks Strings by trigram similarity the same way
+ * as comparing the query with every String.
+ *
+ * @author Benjamin Liou
+ * @author Kenneth Garcia
+ * @author Kevin Young
+ * @author Rolen Louie
+ * @author Tu Luong
+ * @author Yukai Qiu
+ * CIS 22C, Final Course Project
+ */
+public class TrigramIndexTest {
+    private static final String[] NAMES = {"Golf", "Sailing", "Reading", "Fishing", "Foreign Policy",
+            "Golfing Lessons", "Painting", "Poker", "Politics", "Horseback Riding", "Writing", "Bridge"};
+
+    /**
+     * Misspelled and partial names find the intended name first.
+     */
+    @Test
+    public void closestNameComesFirst() {
+        TrigramIndex index = build();
+        assertEquals(0, (int) index.findSimilar("golf ", 1, 0.3).get(0));
+        assertEquals(1, (int) index.findSimilar("Saling", 1, 0.3).get(0));
+        assertEquals(8, (int) index.findSimilar("POLITIC", 1, 0.3).get(0));
+        assertTrue(index.findSimilar("zzzz", 3, 0.1).isEmpty());
+    }
+
+    /**
+     * Results match a scan of every name by similarity, with ties by ID,
+     * for several k and thresholds, and repeating a query gives the same
+     * result.
+     */
+    @Test
+    public void matchesScanOfEveryName() {
+        TrigramIndex index = build();
+        String[] queries = {"ing", "Golfing", "Pol", "riding horses", "Bridge", "x"};
+        for (String query : queries) {
+            for (int k : new int[]{0, 1, 3, NAMES.length}) {
+                for (double minSimilarity : new double[]{0.0, 0.1, 0.25}) {
+                    List<Integer> expected = scan(query, k, minSimilarity);
+                    assertEquals(expected, index.findSimilar(query, k, minSimilarity));
+                    assertEquals(expected, index.findSimilar(query, k, minSimilarity));
+                }
+            }
+        }
+    }
+
+    /**
+     * Similarity is 1 for equal trigram sets and 0 for none shared.
+     */
+    @Test
+    public void similarityRange() {
+        assertEquals(1.0, TrigramIndex.similarity("Golf", " golf"), 0.0);
+        assertEquals(0.0, TrigramIndex.similarity("abc", "xyz"), 0.0);
+        double s = TrigramIndex.similarity("Golf", "Golfing");
+        assertTrue(s > 0 && s < 1);
+        assertEquals(s, TrigramIndex.similarity("Golfing", "Golf"), 1e-12);
+    }
+
+    /**
+     * Invalid arguments throw.
+     */
+    @Test
+    public void invalidArgumentsThrow() {
+        TrigramIndex index = build();
+        assertThrows(IllegalArgumentException.class, () -> index.add(0, "again"));
+        assertThrows(IllegalArgumentException.class, () -> index.add(-1, "negative"));
+        assertThrows(NullPointerException.class, () -> index.add(50, null));
+        assertThrows(NullPointerException.class, () -> index.findSimilar(null, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> index.findSimilar("golf", -1, 0));
+
+        index.add(1000, "Golf Carts"); // IDs may leave gaps
+        assertTrue(index.findSimilar("golf cart", 2, 0.3).contains(1000));
+    }
+
+    /**
+     * Indexes every name under its position.
+     *
+     * @return the new index.
+     */
+    private static TrigramIndex build() {
+        TrigramIndex index = new TrigramIndex();
+        for (int i = 0; i < NAMES.length; i++) {
+            index.add(i, NAMES[i]);
+        }
+        return index;
+    }
+
+    /**
+     * Ranks every name by its similarity to the query.
+     *
+     * @param query         the String to look up.
+     * @param k             the maximum number of IDs to return.
+     * @param minSimilarity the smallest similarity to return.
+     * @return the expected IDs, most similar first.
+     */
+    private static List<Integer> scan(String query, int k, double minSimilarity) {
+        ArrayList<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < NAMES.length; i++) {
+            double similarity = TrigramIndex.similarity(query, NAMES[i]);
+            if (similarity > 0 && similarity >= minSimilarity) {
+                ids.add(i);
+            }
+        }
+        ids.sort(Comparator.comparingDouble((Integer id) -> -TrigramIndex.similarity(query, NAMES[id]))
+                .thenComparingInt(id -> id));
+        return ids.subList(0, Math.min(k, ids.size()));
+    }
+}